@@ -0,0 +1,85 @@
+package app.benchmark;
+
+import app.donation.model.Donation;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.wallet.model.Wallet;
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.UUID;
+
+/**
+ * Builds the synthetic users, wallets, Sparks and donations the benchmarks run on.
+ * The dataset is scaled by the number of donations, with a fixed number of donations per donor and per Spark.
+ */
+@UtilityClass
+public class BenchmarkData {
+
+    public static final int DONATIONS_PER_DONOR = 10;
+    public static final int DONATIONS_PER_SPARK = 100;
+
+    private static final SparkCategory[] CATEGORIES = SparkCategory.values();
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    public static User user(int index) {
+        return User.builder()
+                .id(UUID.randomUUID())
+                .username("benchmark-user-" + index)
+                .firstName("First" + index)
+                .lastName("Last" + index)
+                .email("benchmark-user-" + index + "@gmail.com")
+                .password("12345")
+                .userRole(UserRole.USER)
+                .userStatus(UserStatus.ACTIVE)
+                .createdOn(START.plusMinutes(index))
+                .build();
+    }
+
+    public static Wallet wallet(User owner) {
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(owner)
+                .amount(BigDecimal.valueOf(1000))
+                .currency(Currency.getInstance("EUR"))
+                .donations(new ArrayList<>())
+                .createdOn(owner.getCreatedOn())
+                .build();
+        owner.setWallet(wallet);
+        return wallet;
+    }
+
+    public static Spark spark(User creator, int index) {
+        return Spark.builder()
+                .id(UUID.randomUUID())
+                .creator(creator)
+                .title("Benchmark Spark " + index)
+                .description("Spark Description for benchmarking number " + index)
+                .goalAmount(BigDecimal.valueOf(1000000))
+                .currentAmount(BigDecimal.ZERO)
+                .firstPictureUrl("www.pic" + index + ".com")
+                .status(SparkStatus.ACTIVE)
+                .category(CATEGORIES[index % CATEGORIES.length])
+                .donations(new ArrayList<>())
+                .createdOn(START.plusMinutes(index))
+                .build();
+    }
+
+    public static Donation donation(Wallet wallet, Spark spark, int index) {
+        return Donation.builder()
+                .id(UUID.randomUUID())
+                .wallet(wallet)
+                .spark(spark)
+                .amount(BigDecimal.valueOf(index % 100 + 1))
+                .message("Donation message " + index)
+                .createdOn(START.plusSeconds(index))
+                .build();
+    }
+}
@@ -0,0 +1,79 @@
+package app.benchmark;
+
+import app.donation.repository.DonationRepository;
+import app.donation.repository.WalletDonationTotalRepository;
+import app.donation.service.DonationLeaderboard;
+import app.donation.service.DonationService;
+import app.email.service.EmailOutboxService;
+import app.metrics.DomainMetrics;
+import app.spark.repostiroty.SparkRepository;
+import app.spark.service.SparkService;
+import app.wallet.model.Wallet;
+import app.wallet.service.WalletService;
+import app.web.dto.TotalDonationsInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the donation statistics of the Home screen after a growing number of donations was recorded.
+ * The running totals of the wallets are kept in a map instead of the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DonationStatisticsBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int donations;
+
+    private DonationService donationService;
+
+    @Setup
+    public void setUp() {
+        Map<UUID, BigDecimal> walletTotals = new HashMap<>();
+        WalletDonationTotalRepository walletDonationTotalRepository = stub(WalletDonationTotalRepository.class);
+        when(walletDonationTotalRepository.increaseTotalAmount(any(), any(), any())).thenAnswer(invocation -> {
+            walletTotals.merge(invocation.getArgument(0), invocation.getArgument(1), BigDecimal::add);
+            return 1;
+        });
+        when(walletDonationTotalRepository.findTotalAmountByWalletId(any()))
+                .thenAnswer(invocation -> walletTotals.get(invocation.<UUID>getArgument(0)));
+
+        DonationLeaderboard donationLeaderboard = new DonationLeaderboard(walletDonationTotalRepository, stub(SparkRepository.class));
+        donationService = new DonationService(stub(DonationRepository.class), stub(SparkService.class), stub(WalletService.class)
+                , stub(EmailOutboxService.class), donationLeaderboard, stub(ApplicationEventPublisher.class), new DomainMetrics(new SimpleMeterRegistry()));
+
+        List<Wallet> wallets = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, donations / BenchmarkData.DONATIONS_PER_DONOR); i++) {
+            wallets.add(BenchmarkData.wallet(BenchmarkData.user(i)));
+        }
+        for (int i = 0; i < donations; i++) {
+            donationLeaderboard.recordDonation(wallets.get(i % wallets.size()), BigDecimal.valueOf(i % 100 + 1));
+        }
+    }
+
+    @Benchmark
+    public TotalDonationsInfo getTotalDonationsInfo() {
+        return donationService.getTotalDonationsInfo();
+    }
+
+    private static <T> T stub(Class<T> type) {
+        return Mockito.mock(type, Mockito.withSettings().stubOnly());
+    }
+}
@@ -0,0 +1,57 @@
+package app.benchmark;
+
+import app.spark.model.Spark;
+import app.user.model.User;
+import app.usersignal.model.UserSignal;
+import app.usersignal.model.UserSignalStatus;
+import app.web.dto.EditProfileRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.UserSignalRequest;
+import app.web.mapper.DtoMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DtoMapperBenchmark {
+
+    private User user;
+    private Spark spark;
+    private UserSignal userSignal;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(1);
+        spark = BenchmarkData.spark(user, 1);
+        userSignal = UserSignal.builder()
+                .id(UUID.randomUUID())
+                .creator(user)
+                .title("Signal")
+                .message("Signal message")
+                .userSignalStatus(UserSignalStatus.PENDING)
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public EditProfileRequest mapUserToEditProfileRequest() {
+        return DtoMapper.mapUserToEditProfileRequest(user);
+    }
+
+    @Benchmark
+    public ManageSparkRequest mapSparkToManageSparkRequest() {
+        return DtoMapper.mapSparkToManageSparkRequest(spark);
+    }
+
+    @Benchmark
+    public UserSignalRequest mapUserSignalToUserSignalRequest() {
+        return DtoMapper.mapUserSignalToUserSignalRequest(userSignal);
+    }
+}
@@ -0,0 +1,81 @@
+package app.benchmark;
+
+import app.aspect.PreventDuplicationAspect;
+import app.exceptions.DuplicateException;
+import app.idempotency.service.InMemorySubmissionStore;
+import app.idempotency.service.SubmissionStore;
+import app.metrics.DomainMetrics;
+import app.security.AuthenticationDetails;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.web.dto.DonationRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the duplicate check that runs before every donation, for many different donors and Sparks.
+ * With a window of 0 every submission is accepted, with the default window of 5 seconds most of them are replays
+ * that are rejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreventDuplicationAspectBenchmark {
+
+    private static final int KEYS = 10000;
+
+    @Param({"0", "5000"})
+    private long windowMillis;
+
+    private PreventDuplicationAspect aspect;
+    private ProceedingJoinPoint joinPoint;
+    private UUID[] sparkIds;
+    private AuthenticationDetails[] donors;
+    private final DonationRequest donationRequest = new DonationRequest();
+    private final BindingResult bindingResult = new BeanPropertyBindingResult(donationRequest, "donationRequest");
+
+    @Setup
+    public void setUp() throws Throwable {
+        SubmissionStore submissionStore = new InMemorySubmissionStore(Duration.ofMillis(windowMillis), 100000);
+        aspect = new PreventDuplicationAspect(submissionStore, new DomainMetrics(new SimpleMeterRegistry()));
+        Signature signature = Mockito.mock(Signature.class, Mockito.withSettings().stubOnly());
+        when(signature.getName()).thenReturn("addDonation");
+        joinPoint = Mockito.mock(ProceedingJoinPoint.class, Mockito.withSettings().stubOnly());
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(null);
+
+        sparkIds = new UUID[KEYS];
+        donors = new AuthenticationDetails[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            sparkIds[i] = UUID.randomUUID();
+            donors[i] = new AuthenticationDetails(UUID.randomUUID(), "benchmark-user-" + i, "12345", UserRole.USER, UserStatus.ACTIVE);
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object preventDonationDuplication() throws Throwable {
+        int index = ThreadLocalRandom.current().nextInt(KEYS);
+        try {
+            return aspect.preventDonationDuplication(joinPoint, sparkIds[index], donors[index], null, donationRequest, bindingResult);
+        } catch (DuplicateException e) {
+            // The same donor and Spark were picked within the window
+            return e;
+        }
+    }
+}
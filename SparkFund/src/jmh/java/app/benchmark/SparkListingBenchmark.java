@@ -0,0 +1,116 @@
+package app.benchmark;
+
+import app.Application;
+import app.donation.model.Donation;
+import app.spark.model.Spark;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import app.web.dto.SparkPage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the first page of the All Sparks screen for each ownership filter,
+ * against the H2 database of the test profile filled with a growing number of donations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SparkListingBenchmark {
+
+    private static final int FLUSH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int donations;
+
+    @Param({"ALL_SPARKS", "MY_SPARKS", "SPARKS_I_DONATE_TO"})
+    private String ownership;
+
+    private ConfigurableApplicationContext context;
+    private SparkService sparkService;
+    private User viewer;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        sparkService = context.getBean(SparkService.class);
+        viewer = insertDataset(context.getBean(EntityManagerFactory.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SparkPage getAllSparks() {
+        return sparkService.getAllSparks(viewer, "ACTIVE", "ALL", ownership, null, null);
+    }
+
+    /**
+     * Inserts the donors with their wallets, the Sparks and the donations, and returns a donor who also created Sparks.
+     */
+    private User insertDataset(EntityManagerFactory entityManagerFactory) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        int donorCount = Math.max(1, donations / BenchmarkData.DONATIONS_PER_DONOR);
+        List<User> donors = new ArrayList<>(donorCount);
+        List<Wallet> wallets = new ArrayList<>(donorCount);
+        for (int i = 0; i < donorCount; i++) {
+            User donor = BenchmarkData.user(i);
+            donor.setId(null);
+            entityManager.persist(donor);
+            Wallet wallet = BenchmarkData.wallet(donor);
+            wallet.setId(null);
+            entityManager.persist(wallet);
+            donors.add(donor);
+            wallets.add(wallet);
+            flushInBatches(entityManager, i);
+        }
+
+        int sparkCount = Math.max(1, donations / BenchmarkData.DONATIONS_PER_SPARK);
+        List<Spark> sparks = new ArrayList<>(sparkCount);
+        for (int i = 0; i < sparkCount; i++) {
+            Spark spark = BenchmarkData.spark(donors.get(i % donors.size()), i);
+            spark.setId(null);
+            entityManager.persist(spark);
+            sparks.add(spark);
+            flushInBatches(entityManager, i);
+        }
+
+        for (int i = 0; i < donations; i++) {
+            Donation donation = BenchmarkData.donation(wallets.get(i % wallets.size()), sparks.get(i % sparks.size()), i);
+            donation.setId(null);
+            entityManager.persist(donation);
+            flushInBatches(entityManager, i);
+        }
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        return donors.get(0);
+    }
+
+    private static void flushInBatches(EntityManager entityManager, int index) {
+        if (index % FLUSH_SIZE == FLUSH_SIZE - 1) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
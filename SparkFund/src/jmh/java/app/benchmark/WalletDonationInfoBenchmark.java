@@ -0,0 +1,108 @@
+package app.benchmark;
+
+import app.Application;
+import app.donation.model.Donation;
+import app.spark.model.Spark;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import app.wallet.service.WalletService;
+import app.web.dto.WalletDonationInfo;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the donation summary of the Profile screen for a wallet with a growing number of donations,
+ * against the H2 database of the test profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WalletDonationInfoBenchmark {
+
+    private static final int FLUSH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int donations;
+
+    private ConfigurableApplicationContext context;
+    private WalletService walletService;
+    private Wallet wallet;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                .properties("server.port=0", "logging.level.root=WARN")
+                .run();
+        walletService = context.getBean(WalletService.class);
+        wallet = insertDataset(context.getBean(EntityManagerFactory.class));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public WalletDonationInfo getWalletDonationInfo() {
+        return walletService.getWalletDonationInfo(wallet);
+    }
+
+    /**
+     * Inserts one donor whose wallet made all the donations, spread over the Sparks of another user, and returns the wallet.
+     */
+    private Wallet insertDataset(EntityManagerFactory entityManagerFactory) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+
+        User creator = BenchmarkData.user(0);
+        creator.setId(null);
+        entityManager.persist(creator);
+        User donor = BenchmarkData.user(1);
+        donor.setId(null);
+        entityManager.persist(donor);
+        Wallet donorWallet = BenchmarkData.wallet(donor);
+        donorWallet.setId(null);
+        entityManager.persist(donorWallet);
+
+        int sparkCount = Math.max(1, donations / BenchmarkData.DONATIONS_PER_SPARK);
+        List<Spark> sparks = new ArrayList<>(sparkCount);
+        for (int i = 0; i < sparkCount; i++) {
+            Spark spark = BenchmarkData.spark(creator, i);
+            spark.setId(null);
+            entityManager.persist(spark);
+            sparks.add(spark);
+            flushInBatches(entityManager, i);
+        }
+
+        for (int i = 0; i < donations; i++) {
+            Donation donation = BenchmarkData.donation(donorWallet, sparks.get(i % sparks.size()), i);
+            donation.setId(null);
+            entityManager.persist(donation);
+            flushInBatches(entityManager, i);
+        }
+
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        return donorWallet;
+    }
+
+    private static void flushInBatches(EntityManager entityManager, int index) {
+        if (index % FLUSH_SIZE == FLUSH_SIZE - 1) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
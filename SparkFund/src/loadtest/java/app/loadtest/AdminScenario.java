@@ -0,0 +1,42 @@
+package app.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Admin who works through the pending signals: lists them, opens one and closes it with a response.
+ */
+public class AdminScenario extends Scenario {
+
+    private static final Pattern SIGNAL_LINK = Pattern.compile("action=\"/([0-9a-f-]{36})/signal\"");
+
+    public AdminScenario(BrowserSession _session, String _username, Duration _thinkTime, Instant _end) {
+        super(_session, _username, _thinkTime, _end);
+    }
+
+    @Override
+    protected void iterate() {
+        BrowserSession.Page pendingSignals = session.get("GET /all-signals", "/all-signals?status=PENDING");
+        List<String> signalIds = new ArrayList<>();
+        Matcher matcher = SIGNAL_LINK.matcher(pendingSignals.body());
+        while (matcher.find()) {
+            signalIds.add(matcher.group(1));
+        }
+        if (signalIds.isEmpty()) {
+            return;
+        }
+
+        String signalId = signalIds.get(random().nextInt(signalIds.size()));
+        session.get("GET /{id}/signal", "/" + signalId + "/signal");
+        session.submit("PATCH /signals", "PATCH", "/signals", Map.of(
+                "id", signalId,
+                "title", "Load test signal",
+                "message", "Signal closed by an admin during the load test",
+                "adminResponse", "Resolved during the load test"));
+    }
+}
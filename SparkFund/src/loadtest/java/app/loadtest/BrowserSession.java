@@ -0,0 +1,101 @@
+package app.loadtest;
+
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Browser-like HTTP session of one virtual user: keeps the session cookie, picks up the CSRF token of the
+ * last rendered form and records every request in the {@link LatencyReport} under the given endpoint name.
+ * Redirects are not followed, so the latency of a form submission does not include the page it redirects to.
+ */
+public class BrowserSession {
+
+    private static final Pattern CSRF_TOKEN = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LatencyReport report;
+    private final HttpClient client;
+    private String csrfToken;
+
+    public BrowserSession(String _baseUrl, LatencyReport _report) {
+        baseUrl = _baseUrl;
+        report = _report;
+        client = HttpClient.newBuilder()
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(REQUEST_TIMEOUT)
+                .build();
+    }
+
+    public Page get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+
+    /**
+     * Submits a form as the browser would, with the CSRF token of the last page that rendered one.
+     * Non-POST methods are tunnelled through the hidden "_method" field.
+     */
+    public Page submit(String endpoint, String method, String path, Map<String, String> fields) {
+        Map<String, String> form = new LinkedHashMap<>(fields);
+        if (!"POST".equals(method)) {
+            form.put("_method", method);
+        }
+        if (csrfToken != null) {
+            form.put("_csrf", csrfToken);
+        }
+        String body = form.entrySet().stream()
+                .map(field -> encode(field.getKey()) + "=" + encode(field.getValue()))
+                .collect(Collectors.joining("&"));
+
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+    }
+
+    private Page send(String endpoint, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request.timeout(REQUEST_TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+            Page page = new Page(response.statusCode(), response.body(), response.headers().firstValue("Location").orElse(""));
+            report.record(endpoint, System.nanoTime() - start, page.isSuccessful());
+            Matcher matcher = CSRF_TOKEN.matcher(page.body());
+            if (matcher.find()) {
+                csrfToken = matcher.group(1);
+            }
+            return page;
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - start, false);
+            return new Page(0, "", "");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Page(0, "", "");
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    public record Page(int status, String body, String location) {
+
+        /**
+         * Error pages are rendered with a 4xx/5xx status, failed logins redirect back to the login page.
+         */
+        public boolean isSuccessful() {
+            return status >= 200 && status < 400 && !location.contains("error");
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package app.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Regular user who mostly browses the Sparks, regularly donates and occasionally sends a signal or logs in again.
+ */
+public class DonorScenario extends Scenario {
+
+    private static final String[] OWNERSHIPS = {"ALL_SPARKS", "MY_SPARKS", "SPARKS_I_DONATE_TO"};
+
+    private final List<UUID> sparkIds;
+
+    public DonorScenario(BrowserSession _session, String _username, List<UUID> _sparkIds, Duration _thinkTime, Instant _end) {
+        super(_session, _username, _thinkTime, _end);
+        sparkIds = _sparkIds;
+    }
+
+    @Override
+    protected void iterate() {
+        int action = random().nextInt(100);
+        if (action < 35) {
+            browseSparks();
+        } else if (action < 55) {
+            session.get("GET /{id}/spark", "/" + randomSpark() + "/spark");
+        } else if (action < 75) {
+            donate();
+        } else if (action < 90) {
+            session.get("GET /home", "/home");
+        } else if (action < 95) {
+            sendSignal();
+        } else {
+            logout();
+            login();
+        }
+    }
+
+    private void browseSparks() {
+        String ownership = OWNERSHIPS[random().nextInt(OWNERSHIPS.length)];
+        session.get("GET /all-sparks", "/all-sparks?status=ACTIVE&category=ALL&ownership=" + ownership);
+    }
+
+    private void donate() {
+        UUID sparkId = randomSpark();
+        session.get("GET /{id}/donation", "/" + sparkId + "/donation");
+        session.submit("POST /{id}/donation", "POST", "/" + sparkId + "/donation", Map.of(
+                "amount", String.valueOf(random().nextInt(1, 11)),
+                "message", "Donation from the load test"));
+    }
+
+    private void sendSignal() {
+        session.get("GET /signal", "/signal");
+        session.submit("POST /signals", "POST", "/signals", Map.of(
+                "title", "Load test signal",
+                "message", "Signal sent by a donor during the load test"));
+    }
+
+    private UUID randomSpark() {
+        return sparkIds.get(random().nextInt(sparkIds.size()));
+    }
+}
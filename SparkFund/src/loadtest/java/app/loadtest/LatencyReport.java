@@ -0,0 +1,95 @@
+package app.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the latency of every request per endpoint and reports the throughput and latency percentiles.
+ * Requests are only recorded after {@link #startRecording()}, so the warm-up does not skew the results.
+ */
+public class LatencyReport {
+
+    private static final long MAX_TRACKABLE_LATENCY = TimeUnit.MINUTES.toNanos(1);
+    private static final String HEADER = "endpoint,requests,errors,throughput_rps,p50_ms,p90_ms,p95_ms,p99_ms,max_ms";
+
+    private final Map<String, EndpointStats> statsPerEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+    private volatile long recordingStartedAt;
+
+    public void startRecording() {
+        statsPerEndpoint.clear();
+        recordingStartedAt = System.nanoTime();
+        recording = true;
+    }
+
+    public void record(String endpoint, long latencyNanos, boolean successful) {
+        if (!recording) {
+            return;
+        }
+        EndpointStats stats = statsPerEndpoint.computeIfAbsent(endpoint, ignored -> new EndpointStats());
+        stats.histogram.recordValue(Math.min(latencyNanos, MAX_TRACKABLE_LATENCY));
+        if (!successful) {
+            stats.errors.increment();
+        }
+    }
+
+    /**
+     * Stops recording and writes one CSV line per endpoint to the given file, and a table to the console.
+     */
+    public void write(Path reportFile) throws IOException {
+        recording = false;
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - recordingStartedAt);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        statsPerEndpoint.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> lines.add(toCsvLine(entry.getKey(), entry.getValue(), elapsed)));
+
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        Files.write(reportFile, lines);
+
+        PrintWriter console = new PrintWriter(System.out, true);
+        console.printf("%n%-28s %9s %7s %10s %9s %9s %9s %9s %9s%n", (Object[]) HEADER.split(","));
+        lines.stream().skip(1).forEach(line -> console.printf("%-28s %9s %7s %10s %9s %9s %9s %9s %9s%n", (Object[]) line.split(",")));
+        console.printf("%nMeasured for %d s, report written to %s%n", elapsed.toSeconds(), reportFile.toAbsolutePath());
+    }
+
+    private static String toCsvLine(String endpoint, EndpointStats stats, Duration elapsed) {
+        Histogram histogram = stats.histogram;
+        double throughput = histogram.getTotalCount() / (elapsed.toMillis() / 1000.0);
+        return String.join(","
+                , endpoint
+                , String.valueOf(histogram.getTotalCount())
+                , String.valueOf(stats.errors.sum())
+                , String.format(Locale.ROOT, "%.1f", throughput)
+                , toMillis(histogram.getValueAtPercentile(50))
+                , toMillis(histogram.getValueAtPercentile(90))
+                , toMillis(histogram.getValueAtPercentile(95))
+                , toMillis(histogram.getValueAtPercentile(99))
+                , toMillis(histogram.getMaxValue()));
+    }
+
+    private static String toMillis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+
+    private static class EndpointStats {
+
+        private final Histogram histogram = new ConcurrentHistogram(MAX_TRACKABLE_LATENCY, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
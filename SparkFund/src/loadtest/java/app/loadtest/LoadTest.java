@@ -0,0 +1,185 @@
+package app.loadtest;
+
+import app.Application;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.usersignal.service.UserSignalService;
+import app.wallet.service.WalletService;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import app.web.dto.UserSignalRequest;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * End-to-end load test: boots SparkFund on the H2 database of the test profile, with sparkmail-svc replaced by
+ * {@link MailServiceStub}, seeds users and Sparks, and lets virtual donors and admins use the application over HTTP.
+ * Prints a throughput and latency percentile report per endpoint and writes it as CSV, so it can be compared across releases.
+ * <p>
+ * Options are passed as {@code --name=value}, see {@link Options} for the names and defaults.
+ */
+public class LoadTest {
+
+    static final String PASSWORD = "loadtest123";
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        // The devtools restarter would start main again without the options
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        MailServiceStub mailService = new MailServiceStub(options.mailLatency());
+        mailService.start();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("test")
+                // Passed as arguments, so they take precedence over application.properties
+                .run("--server.port=0"
+                        , "--email.client.url=" + mailService.getUrl()
+                        , "--email.outbox.dispatcher-enabled=true"
+                        , "--logging.level.root=WARN");
+        try {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            Dataset dataset = seed(context, options);
+            run("http://localhost:" + port, dataset, options);
+            System.out.printf("sparkmail-svc stand-in received %d emails%n", mailService.getReceivedEmails());
+        } finally {
+            context.close();
+            mailService.stop();
+        }
+    }
+
+    private static void run(String baseUrl, Dataset dataset, Options options) throws Exception {
+        LatencyReport report = new LatencyReport();
+        Instant end = Instant.now().plus(options.warmup()).plus(options.duration());
+
+        ExecutorService virtualUsers = Executors.newFixedThreadPool(options.users() + options.admins());
+        for (String username : dataset.donorUsernames()) {
+            virtualUsers.submit(new DonorScenario(new BrowserSession(baseUrl, report), username, dataset.sparkIds(), options.thinkTime(), end));
+        }
+        for (String username : dataset.adminUsernames()) {
+            virtualUsers.submit(new AdminScenario(new BrowserSession(baseUrl, report), username, options.thinkTime(), end));
+        }
+
+        System.out.printf("Running %d donors and %d admins for %s after a warm-up of %s%n"
+                , options.users(), options.admins(), options.duration(), options.warmup());
+        Thread.sleep(options.warmup().toMillis());
+        report.startRecording();
+
+        virtualUsers.shutdown();
+        virtualUsers.awaitTermination(options.duration().plusMinutes(1).toMillis(), TimeUnit.MILLISECONDS);
+        report.write(options.report());
+    }
+
+    /**
+     * Registers the donors with funded wallets, the admins, the Sparks and a pending signal per donor.
+     */
+    private static Dataset seed(ConfigurableApplicationContext context, Options options) {
+        UserService userService = context.getBean(UserService.class);
+        WalletService walletService = context.getBean(WalletService.class);
+        SparkService sparkService = context.getBean(SparkService.class);
+        UserSignalService userSignalService = context.getBean(UserSignalService.class);
+
+        List<User> donors = new ArrayList<>();
+        for (int i = 0; i < options.users(); i++) {
+            User donor = register(userService, "donor" + i);
+            walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(1_000_000), UserStatus.ACTIVE);
+            userSignalService.sendSignal(donor, UserSignalRequest.builder()
+                    .title("Signal of donor" + i)
+                    .message("Pending signal created before the load test")
+                    .build());
+            donors.add(donor);
+        }
+        List<String> admins = new ArrayList<>();
+        for (int i = 0; i < options.admins(); i++) {
+            User admin = register(userService, "admin" + i);
+            userService.switchRole(admin.getId());
+            admins.add(admin.getUsername());
+        }
+
+        SparkCategory[] categories = SparkCategory.values();
+        List<UUID> sparkIds = new ArrayList<>();
+        for (int i = 0; i < options.sparks(); i++) {
+            Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                    .title("Load test Spark " + i)
+                    .description("Spark created for the load test, with a goal that is not reached during the run")
+                    .goalAmount(BigDecimal.valueOf(100_000_000))
+                    .category(categories[i % categories.length])
+                    .status(SparkStatus.ACTIVE)
+                    .firstPictureUrl("www.pic1.com")
+                    .build(), donors.get(i % donors.size()));
+            sparkIds.add(spark.getId());
+        }
+
+        return new Dataset(donors.stream().map(User::getUsername).toList(), admins, sparkIds);
+    }
+
+    private static User register(UserService userService, String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@loadtest.com")
+                .password(PASSWORD)
+                .confirmPassword(PASSWORD)
+                .build());
+        return userService.getUserById(user.getId());
+    }
+
+    private record Dataset(List<String> donorUsernames, List<String> adminUsernames, List<UUID> sparkIds) {
+    }
+
+    /**
+     * Options of a run: {@code --users}, {@code --admins}, {@code --sparks}, {@code --duration}, {@code --warmup},
+     * {@code --think-time}, {@code --mail-latency} and {@code --report}. Durations are given as 60s, 200ms or ISO-8601.
+     */
+    record Options(int users, int admins, int sparks, Duration duration, Duration warmup
+            , Duration thinkTime, Duration mailLatency, Path report) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = Arrays.stream(args)
+                    .filter(arg -> arg.startsWith("--") && arg.contains("="))
+                    .map(arg -> arg.substring(2).split("=", 2))
+                    .collect(Collectors.toMap(pair -> pair[0], pair -> pair[1]));
+
+            return new Options(
+                    Integer.parseInt(values.getOrDefault("users", "20")),
+                    Integer.parseInt(values.getOrDefault("admins", "2")),
+                    Integer.parseInt(values.getOrDefault("sparks", "50")),
+                    duration(values.get("duration"), "60s"),
+                    duration(values.get("warmup"), "15s"),
+                    duration(values.get("think-time"), "200ms"),
+                    duration(values.get("mail-latency"), "20ms"),
+                    Path.of(values.getOrDefault("report", "target/loadtest-report.csv")));
+        }
+
+        private static Duration duration(String value, String defaultValue) {
+            String text = value == null ? defaultValue : value;
+            if (text.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+            }
+            if (text.endsWith("s")) {
+                return Duration.ofSeconds(Long.parseLong(text.substring(0, text.length() - 1)));
+            }
+            return Duration.parse(text);
+        }
+    }
+}
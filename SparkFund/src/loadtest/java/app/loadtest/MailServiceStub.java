@@ -0,0 +1,88 @@
+package app.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for sparkmail-svc that answers the endpoints of {@link app.email.client.EmailClient}.
+ * Every email is accepted after the configured latency, and there are never failed emails to resend.
+ */
+public class MailServiceStub {
+
+    static final String BASE_PATH = "/api/v1/emails";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Duration latency;
+    private final AtomicLong receivedEmails = new AtomicLong();
+
+    public MailServiceStub(Duration _latency) throws IOException {
+        latency = _latency;
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext(BASE_PATH, this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + BASE_PATH;
+    }
+
+    public long getReceivedEmails() {
+        return receivedEmails.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            sleep(latency);
+            switch (exchange.getRequestMethod()) {
+                case "POST" -> {
+                    receivedEmails.incrementAndGet();
+                    exchange.sendResponseHeaders(201, -1);
+                }
+                case "GET" -> respondWithJson(exchange, "[]");
+                case "DELETE" -> exchange.sendResponseHeaders(200, -1);
+                default -> exchange.sendResponseHeaders(405, -1);
+            }
+        }
+    }
+
+    private static void respondWithJson(HttpExchange exchange, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package app.loadtest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Behaviour of one virtual user: logs in once and then repeats {@link #iterate()} with a random think time
+ * between the actions, until the end of the run.
+ */
+public abstract class Scenario implements Runnable {
+
+    protected final BrowserSession session;
+    private final String username;
+    private final Duration thinkTime;
+    private final Instant end;
+
+    protected Scenario(BrowserSession _session, String _username, Duration _thinkTime, Instant _end) {
+        session = _session;
+        username = _username;
+        thinkTime = _thinkTime;
+        end = _end;
+    }
+
+    protected abstract void iterate();
+
+    @Override
+    public void run() {
+        login();
+        while (Instant.now().isBefore(end) && !Thread.currentThread().isInterrupted()) {
+            iterate();
+            think();
+        }
+    }
+
+    protected void login() {
+        session.get("GET /login", "/login");
+        session.submit("POST /login", "POST", "/login", Map.of("username", username, "password", LoadTest.PASSWORD));
+    }
+
+    protected void logout() {
+        session.get("GET /logout", "/logout");
+    }
+
+    protected static ThreadLocalRandom random() {
+        return ThreadLocalRandom.current();
+    }
+
+    private void think() {
+        long maxPause = thinkTime.toMillis() * 2;
+        if (maxPause <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(random().nextLong(maxPause));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,43 +1,64 @@
 package app.aspect;
 
 import app.exceptions.DuplicateException;
+import app.idempotency.model.SubmissionKey;
+import app.idempotency.service.SubmissionStore;
+import app.metrics.DomainMetrics;
 import app.security.AuthenticationDetails;
+import app.web.dto.DonationRequest;
+import io.micrometer.core.instrument.Tags;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.springframework.stereotype.Component;
+import org.springframework.validation.BindingResult;
 
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Rejects a donation that the same user already submitted to the same Spark within the idempotency window,
+ * whether the first submission is still in progress or has already finished.
+ * A submission that does not go through, because it fails or the form returns with validation errors, is released,
+ * so the user can correct and retry it right away.
+ * A donation sent with an idempotency key is not checked here: its replays are recognised by the saved key
+ * and answered with the saved result instead of being rejected.
+ */
 @Aspect
 @Component
 public class PreventDuplicationAspect {
 
-    private final Map<String, Long> submissionCache = new ConcurrentHashMap<>();
+    private final SubmissionStore submissionStore;
+    private final DomainMetrics domainMetrics;
 
-    @Around(value = "@annotation(org.springframework.web.bind.annotation.PostMapping) && within(app.web.DonationController) && args(sparkId, authenticationDetails, ..)", argNames = "joinPoint,sparkId,authenticationDetails")
-    public Object preventDonationDuplication(ProceedingJoinPoint joinPoint, UUID sparkId, AuthenticationDetails authenticationDetails) throws Throwable {
-        String invokedMethodName = joinPoint.getSignature().getName();
-        String donationUniqueKey = invokedMethodName + ";" + sparkId + ";" + authenticationDetails.getUserId();
-
-        long now = System.currentTimeMillis();
-        long timeoutMillis = 5000L;
+    public PreventDuplicationAspect(SubmissionStore _submissionStore, DomainMetrics _domainMetrics) {
+        submissionStore = _submissionStore;
+        domainMetrics = _domainMetrics;
+    }
 
-        if (submissionCache.containsKey(donationUniqueKey)) {
-            long lastTime = submissionCache.get(donationUniqueKey);
-            if (now - lastTime < timeoutMillis) {
-                throw new DuplicateException("Duplicate donation attempt detected.");
-            }
+    @Around(value = "@annotation(org.springframework.web.bind.annotation.PostMapping) && within(app.web.DonationController) && args(sparkId, authenticationDetails, idempotencyKey, donationRequest, bindingResult)", argNames = "joinPoint,sparkId,authenticationDetails,idempotencyKey,donationRequest,bindingResult")
+    public Object preventDonationDuplication(ProceedingJoinPoint joinPoint, UUID sparkId, AuthenticationDetails authenticationDetails
+            , UUID idempotencyKey, DonationRequest donationRequest, BindingResult bindingResult) throws Throwable {
+        if (idempotencyKey != null || donationRequest.getIdempotencyKey() != null) {
+            return joinPoint.proceed();
         }
 
-        submissionCache.put(donationUniqueKey, now);
+        String invokedMethodName = joinPoint.getSignature().getName();
+        SubmissionKey submissionKey = new SubmissionKey(invokedMethodName, sparkId, authenticationDetails.getUserId());
+
+        if (!submissionStore.tryAcquire(submissionKey)) {
+            domainMetrics.increment("sparkfund.duplicate.rejected", Tags.of("operation", invokedMethodName));
+            throw new DuplicateException("Duplicate donation attempt detected.");
+        }
 
+        boolean donated = false;
         try {
-            return joinPoint.proceed();
+            Object result = joinPoint.proceed();
+            donated = !bindingResult.hasErrors();
+            return result;
         } finally {
-            submissionCache.remove(donationUniqueKey);
+            if (!donated) {
+                submissionStore.release(submissionKey);
+            }
         }
     }
 }
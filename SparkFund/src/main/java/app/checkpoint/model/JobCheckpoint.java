@@ -0,0 +1,30 @@
+package app.checkpoint.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Position of a scheduled job that processes rows in chunks ordered by their ID.
+ * The job saves the ID of the last processed row after every chunk, so a run that stops halfway
+ * continues after that row instead of starting over.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+public class JobCheckpoint {
+
+    @Id
+    private String jobName;
+
+    @Column(nullable = false)
+    private UUID lastProcessedId;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
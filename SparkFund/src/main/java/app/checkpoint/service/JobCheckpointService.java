@@ -0,0 +1,41 @@
+package app.checkpoint.service;
+
+import app.checkpoint.model.JobCheckpoint;
+import app.checkpoint.repository.JobCheckpointRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+public class JobCheckpointService {
+
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    public JobCheckpointService(JobCheckpointRepository _jobCheckpointRepository) {
+        jobCheckpointRepository = _jobCheckpointRepository;
+    }
+
+    /**
+     * Returns the ID of the last row processed by the unfinished run of the job, if there is one.
+     */
+    public Optional<UUID> getLastProcessedId(String jobName) {
+        return jobCheckpointRepository.findById(jobName).map(JobCheckpoint::getLastProcessedId);
+    }
+
+    public void saveLastProcessedId(String jobName, UUID lastProcessedId) {
+        jobCheckpointRepository.save(JobCheckpoint.builder()
+                .jobName(jobName)
+                .lastProcessedId(lastProcessedId)
+                .updatedOn(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Marks the run of the job as finished, so the next run starts from the beginning.
+     */
+    public void clearCheckpoint(String jobName) {
+        jobCheckpointRepository.deleteById(jobName);
+    }
+}
@@ -0,0 +1,52 @@
+package app.config;
+
+import app.user.model.User;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Configures the Hibernate second-level cache for the users, backed by Caffeine.
+ * The wallets are not cached: their balance is changed by update queries with every donation and top-up,
+ * and each of those would clear the whole region.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    private static final List<Class<?>> CACHED_ENTITIES = List.of(User.class);
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(@Value("${cache.entities.maximum-size:10000}") long _maximumSize
+            , @Value("${cache.entities.time-to-live:10m}") Duration _timeToLive) {
+        return hibernateProperties -> {
+            CaffeineConfiguration<Object, Object> regionConfiguration = new CaffeineConfiguration<>();
+            regionConfiguration.setMaximumSize(OptionalLong.of(_maximumSize));
+            regionConfiguration.setExpireAfterWrite(OptionalLong.of(_timeToLive.toNanos()));
+
+            // Hibernate closes the cache manager with the persistence unit, so every persistence unit gets its own
+            CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            CacheManager cacheManager = cachingProvider.getCacheManager(URI.create("sparkfund-" + UUID.randomUUID()), cachingProvider.getDefaultClassLoader());
+            for (Class<?> entity : CACHED_ENTITIES) {
+                cacheManager.createCache(entity.getName(), regionConfiguration);
+            }
+
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+        };
+    }
+}
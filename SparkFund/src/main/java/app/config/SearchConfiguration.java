@@ -0,0 +1,47 @@
+package app.config;
+
+import app.spark.model.Spark;
+import org.apache.lucene.util.Version;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+import org.hibernate.search.backend.lucene.cfg.LuceneBackendSettings;
+import org.hibernate.search.backend.lucene.cfg.LuceneIndexSettings;
+import org.hibernate.search.engine.cfg.BackendSettings;
+import org.hibernate.search.engine.environment.bean.BeanReference;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configures the full-text index of the Sparks, an embedded Lucene index kept up to date by Hibernate Search.
+ * The index is written to the local directory of each application node, or kept in memory with
+ * {@code search.index.directory-type=local-heap}.
+ *
+ * <p>Only the node that changes a Spark updates its own index, so the search supports a single application node.
+ * Running several nodes needs a shared backend, such as Elasticsearch with the outbox-polling coordination,
+ * instead of the embedded index.</p>
+ */
+@Configuration
+public class SearchConfiguration {
+
+    private static final String LOCAL_FILESYSTEM = "local-filesystem";
+
+    @Bean
+    public HibernatePropertiesCustomizer searchIndexCustomizer(@Value("${search.index.directory-type:" + LOCAL_FILESYSTEM + "}") String _directoryType
+            , @Value("${search.index.root:./data/search-index}") String _root) {
+        LuceneAnalysisConfigurer analysisConfigurer = context -> context.analyzer(Spark.TEXT_ANALYZER).custom()
+                .tokenizer("standard")
+                .tokenFilter("lowercase")
+                .tokenFilter("asciiFolding")
+                .tokenFilter("snowballPorter").param("language", "English");
+        return hibernateProperties -> {
+            // Pinned, so that upgrading Lucene does not change how an existing index is analyzed
+            hibernateProperties.put(BackendSettings.backendKey(LuceneBackendSettings.LUCENE_VERSION), Version.LUCENE_9_11_1);
+            hibernateProperties.put(BackendSettings.backendKey(LuceneIndexSettings.DIRECTORY_TYPE), _directoryType);
+            if (LOCAL_FILESYSTEM.equals(_directoryType)) {
+                hibernateProperties.put(BackendSettings.backendKey(LuceneIndexSettings.DIRECTORY_ROOT), _root);
+            }
+            hibernateProperties.put(BackendSettings.backendKey(LuceneBackendSettings.ANALYSIS_CONFIGURER), BeanReference.ofInstance(analysisConfigurer));
+        };
+    }
+}
@@ -15,6 +15,11 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_donation_idempotency_key", columnNames = {"wallet_id", "idempotency_key"}),
+        indexes = {
+                @Index(name = "idx_donation_wallet_created_on_id", columnList = "wallet_id, created_on, id"),
+                @Index(name = "idx_donation_spark_created_on_id", columnList = "spark_id, created_on, id"),
+                @Index(name = "idx_donation_wallet_spark_amount", columnList = "wallet_id, spark_id, amount")})
 public class Donation {
 
     @Id
@@ -27,12 +32,17 @@ public class Donation {
     @Column(nullable = false, length = 1000)
     private String message;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Spark spark;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     private Wallet wallet;
 
+    /**
+     * Key sent by the client with the donation; unique per wallet, so a replayed request is not donated twice.
+     */
+    private UUID idempotencyKey;
+
     @Column(nullable = false)
     private LocalDateTime createdOn;
 }
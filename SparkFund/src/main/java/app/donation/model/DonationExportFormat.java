@@ -0,0 +1,17 @@
+package app.donation.model;
+
+import lombok.Getter;
+
+@Getter
+public enum DonationExportFormat {
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    DonationExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+}
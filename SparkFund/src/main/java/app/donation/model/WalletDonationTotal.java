@@ -0,0 +1,38 @@
+package app.donation.model;
+
+import app.wallet.model.Wallet;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running total of the donations made from one wallet.
+ * The row is updated together with every donation and refund, so the donation statistics
+ * never have to sum up the donation rows.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_wallet_donation_total_amount", columnList = "total_amount"))
+public class WalletDonationTotal {
+
+    @Id
+    @Column(name = "wallet_id")
+    private UUID walletId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "wallet_id", insertable = false, updatable = false)
+    private Wallet wallet;
+
+    @Column(name = "total_amount", nullable = false)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedOn;
+}
@@ -1,11 +1,105 @@
 package app.donation.repository;
 
 import app.donation.model.Donation;
+import app.web.dto.DonationExportRow;
+import app.web.dto.DonationFeedItem;
+import app.web.dto.WalletDonationItem;
+import app.web.dto.WalletDonationSummary;
+import app.web.dto.WalletRefund;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface DonationRepository extends JpaRepository<Donation, UUID> {
+
+    /**
+     * Sums the donations made to the Spark per donor wallet, together with the email of the wallet owner.
+     */
+    @Query("SELECT new app.web.dto.WalletRefund(w.id, o.email, SUM(d.amount)) FROM Donation d JOIN d.wallet w JOIN w.owner o " +
+            "WHERE d.spark.id = :sparkId GROUP BY w.id, o.email")
+    List<WalletRefund> findRefundsPerWalletBySparkId(@Param("sparkId") UUID sparkId);
+
+    boolean existsByWalletIdAndIdempotencyKey(UUID walletId, UUID idempotencyKey);
+
+    /**
+     * Reads the newest donations to the Spark with the name and picture of their donor, in the order of the
+     * (spark_id, created_on, id) index, so only the rows of the page are read.
+     */
+    @Query("SELECT new app.web.dto.DonationFeedItem(d.id, d.createdOn, d.message, o.username, o.profilePicture) " +
+            "FROM Donation d JOIN d.wallet w JOIN w.owner o " +
+            "WHERE d.spark.id = :sparkId ORDER BY d.createdOn DESC, d.id DESC")
+    List<DonationFeedItem> findFeedBySparkId(@Param("sparkId") UUID sparkId, Limit limit);
+
+    /**
+     * Reads the donations to the Spark that come after the given (createdOn, id) cursor in the order of {@link #findFeedBySparkId}.
+     */
+    @Query("SELECT new app.web.dto.DonationFeedItem(d.id, d.createdOn, d.message, o.username, o.profilePicture) " +
+            "FROM Donation d JOIN d.wallet w JOIN w.owner o " +
+            "WHERE d.spark.id = :sparkId AND (d.createdOn < :afterCreatedOn OR (d.createdOn = :afterCreatedOn AND d.id < :afterId)) " +
+            "ORDER BY d.createdOn DESC, d.id DESC")
+    List<DonationFeedItem> findFeedBySparkIdAfter(@Param("sparkId") UUID sparkId
+            , @Param("afterCreatedOn") LocalDateTime afterCreatedOn
+            , @Param("afterId") UUID afterId
+            , Limit limit);
+
+    /**
+     * Reads the newest donations of the wallet with the title of their Spark, in the order of the
+     * (wallet_id, created_on, id) index, so only the rows of the page are read.
+     */
+    @Query("SELECT new app.web.dto.WalletDonationItem(d.id, d.createdOn, d.amount, s.title) " +
+            "FROM Donation d JOIN d.spark s " +
+            "WHERE d.wallet.id = :walletId ORDER BY d.createdOn DESC, d.id DESC")
+    List<WalletDonationItem> findHistoryByWalletId(@Param("walletId") UUID walletId, Limit limit);
+
+    /**
+     * Reads the donations of the wallet that come after the given (createdOn, id) cursor in the order of {@link #findHistoryByWalletId}.
+     */
+    @Query("SELECT new app.web.dto.WalletDonationItem(d.id, d.createdOn, d.amount, s.title) " +
+            "FROM Donation d JOIN d.spark s " +
+            "WHERE d.wallet.id = :walletId AND (d.createdOn < :afterCreatedOn OR (d.createdOn = :afterCreatedOn AND d.id < :afterId)) " +
+            "ORDER BY d.createdOn DESC, d.id DESC")
+    List<WalletDonationItem> findHistoryByWalletIdAfter(@Param("walletId") UUID walletId
+            , @Param("afterCreatedOn") LocalDateTime afterCreatedOn
+            , @Param("afterId") UUID afterId
+            , Limit limit);
+
+    /**
+     * Sums the donations of the wallet and counts the Sparks they went to, in one aggregate statement
+     * that reads only the (wallet_id, spark_id, amount) index.
+     */
+    @Query("SELECT new app.web.dto.WalletDonationSummary(SUM(d.amount), COUNT(DISTINCT d.spark.id)) " +
+            "FROM Donation d WHERE d.wallet.id = :walletId")
+    WalletDonationSummary findSummaryByWalletId(@Param("walletId") UUID walletId);
+
+    /**
+     * Returns which of the given Sparks received a donation from the wallet.
+     */
+    @Query("SELECT DISTINCT d.spark.id FROM Donation d WHERE d.wallet.id = :walletId AND d.spark.id IN :sparkIds")
+    List<UUID> findDonatedSparkIds(@Param("walletId") UUID walletId, @Param("sparkIds") Collection<UUID> sparkIds);
+
+    /**
+     * Streams all donations with the title of their Spark and the username of their donor, for the export.
+     * The rows are read through a forward-only cursor in chunks of the fetch size and are not added to the
+     * persistence context, so the heap does not grow with the number of donations. They are not sorted,
+     * so the first rows are sent before the database has read the last ones.
+     * On MySQL the fetch size only takes effect with a server-side cursor, which the export turns on for its connection.
+     */
+    @Query("SELECT new app.web.dto.DonationExportRow(d.id, d.createdOn, d.amount, d.message, s.id, s.title, o.username) " +
+            "FROM Donation d JOIN d.spark s JOIN d.wallet w JOIN w.owner o")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    Stream<DonationExportRow> streamAllForExport();
 }
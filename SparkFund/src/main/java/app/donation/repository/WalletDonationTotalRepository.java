@@ -0,0 +1,53 @@
+package app.donation.repository;
+
+import app.donation.model.WalletDonationTotal;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface WalletDonationTotalRepository extends JpaRepository<WalletDonationTotal, UUID> {
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WalletDonationTotal t SET t.totalAmount = t.totalAmount + :amount, t.updatedOn = :updatedOn WHERE t.walletId = :walletId")
+    int increaseTotalAmount(@Param("walletId") UUID walletId, @Param("amount") BigDecimal amount, @Param("updatedOn") LocalDateTime updatedOn);
+
+    /**
+     * Subtracts the donations made to the Spark from the running totals of their donors, with one statement for all wallets.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WalletDonationTotal t SET t.totalAmount = t.totalAmount - " +
+            "(SELECT SUM(d.amount) FROM Donation d WHERE d.wallet.id = t.walletId AND d.spark.id = :sparkId), t.updatedOn = :updatedOn " +
+            "WHERE t.walletId IN (SELECT d.wallet.id FROM Donation d WHERE d.spark.id = :sparkId)")
+    int decreaseTotalAmountsByDonationsOfSpark(@Param("sparkId") UUID sparkId, @Param("updatedOn") LocalDateTime updatedOn);
+
+    @Query("SELECT t.totalAmount FROM WalletDonationTotal t WHERE t.walletId = :walletId")
+    BigDecimal findTotalAmountByWalletId(@Param("walletId") UUID walletId);
+
+    @Query("SELECT COALESCE(SUM(t.totalAmount), 0) FROM WalletDonationTotal t")
+    BigDecimal sumTotalAmount();
+
+    @EntityGraph(attributePaths = {"wallet", "wallet.owner", "wallet.owner.wallet"})
+    List<WalletDonationTotal> findByTotalAmountGreaterThanEqualOrderByTotalAmountDesc(BigDecimal minAmount, Limit limit);
+
+    /**
+     * Creates the missing running totals from the donations that were made before the totals were introduced.
+     * Donations to cancelled Sparks are not counted, because they were refunded.
+     */
+    @Modifying
+    @Query("INSERT INTO WalletDonationTotal (walletId, totalAmount, updatedOn) " +
+            "SELECT d.wallet.id, SUM(d.amount), LOCAL DATETIME FROM Donation d " +
+            "WHERE d.spark.status <> app.spark.model.SparkStatus.CANCELLED " +
+            "AND NOT EXISTS (SELECT t.walletId FROM WalletDonationTotal t WHERE t.walletId = d.wallet.id) " +
+            "GROUP BY d.wallet.id")
+    int insertMissingTotals();
+}
@@ -0,0 +1,157 @@
+package app.donation.service;
+
+import app.donation.model.DonationExportFormat;
+import app.donation.repository.DonationRepository;
+import app.web.dto.DonationExportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.conf.PropertySet;
+import com.mysql.cj.conf.RuntimeProperty;
+import com.mysql.cj.jdbc.JdbcConnection;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Writes all donations to the response while they are read from the database, one row at a time,
+ * so an export of any size needs the same memory and the first rows are sent right away.
+ */
+@Slf4j
+@Service
+public class DonationExportService {
+
+    private static final String CSV_HEADER = "donation_id,created_on,amount,message,spark_id,spark_title,donor_username";
+    /**
+     * Number of rows after which the written rows are sent to the client.
+     */
+    private static final int FLUSH_INTERVAL = 1000;
+
+    /**
+     * Connection properties of MySQL that make the driver read the export through a server-side cursor.
+     */
+    private static final List<PropertyKey> CURSOR_FETCH_PROPERTIES = List.of(PropertyKey.useServerPrepStmts, PropertyKey.useCursorFetch);
+
+    private final DonationRepository donationRepository;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+
+    public DonationExportService(DonationRepository _donationRepository, ObjectMapper _objectMapper, EntityManager _entityManager) {
+        donationRepository = _donationRepository;
+        objectMapper = _objectMapper;
+        entityManager = _entityManager;
+    }
+
+    /**
+     * @return The number of exported donations.
+     */
+    @Transactional
+    public long exportDonations(DonationExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == DonationExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+        long rows = 0;
+        // The cursor is only used by the export, the other queries keep reading their results at once
+        Session session = entityManager.unwrap(Session.class);
+        Map<PropertyKey, Boolean> connectionProperties = session.doReturningWork(DonationExportService::enableCursorFetch);
+        try (Stream<DonationExportRow> donations = donationRepository.streamAllForExport()) {
+            Iterator<DonationExportRow> iterator = donations.iterator();
+            while (iterator.hasNext()) {
+                writeRow(format, iterator.next(), writer);
+                rows++;
+                // The first row is sent immediately, the next ones in chunks
+                if (rows == 1 || rows % FLUSH_INTERVAL == 0) {
+                    writer.flush();
+                }
+            }
+        } finally {
+            session.doWork(connection -> restoreProperties(connection, connectionProperties));
+        }
+        writer.flush();
+        log.info("Exported {} donations as {}", rows, format);
+        return rows;
+    }
+
+    private void writeRow(DonationExportFormat format, DonationExportRow row, Writer writer) throws IOException {
+        if (format == DonationExportFormat.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(row));
+        } else {
+            writer.write(row.getDonationId().toString());
+            writer.write(',');
+            writer.write(row.getCreatedOn().toString());
+            writer.write(',');
+            writer.write(row.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(csvText(row.getMessage()));
+            writer.write(',');
+            writer.write(row.getSparkId().toString());
+            writer.write(',');
+            writer.write(csvText(row.getSparkTitle()));
+            writer.write(',');
+            writer.write(csvText(row.getDonorUsername()));
+        }
+        writer.write('\n');
+    }
+
+    /**
+     * Turns on the server-side cursor of MySQL on the connection of the transaction, so the driver honours the fetch size
+     * of the export query instead of reading all rows into memory.
+     *
+     * @return The previous values of the changed properties, empty if the database is not MySQL.
+     */
+    private static Map<PropertyKey, Boolean> enableCursorFetch(Connection connection) throws SQLException {
+        Map<PropertyKey, Boolean> previousProperties = new EnumMap<>(PropertyKey.class);
+        if (!connection.isWrapperFor(JdbcConnection.class)) {
+            return previousProperties;
+        }
+        PropertySet propertySet = connection.unwrap(JdbcConnection.class).getPropertySet();
+        for (PropertyKey key : CURSOR_FETCH_PROPERTIES) {
+            RuntimeProperty<Boolean> property = propertySet.getBooleanProperty(key);
+            previousProperties.put(key, property.getValue());
+            property.setValue(true);
+        }
+        return previousProperties;
+    }
+
+    /**
+     * Restores the properties before the connection goes back to the pool.
+     */
+    private static void restoreProperties(Connection connection, Map<PropertyKey, Boolean> properties) throws SQLException {
+        if (properties.isEmpty()) {
+            return;
+        }
+        PropertySet propertySet = connection.unwrap(JdbcConnection.class).getPropertySet();
+        properties.forEach((key, value) -> propertySet.getBooleanProperty(key).setValue(value));
+    }
+
+    /**
+     * Quotes the text if needed, and prefixes text that a spreadsheet would run as a formula.
+     */
+    private static String csvText(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String value = "=+-@\t\r".indexOf(text.charAt(0)) >= 0 ? "'" + text : text;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
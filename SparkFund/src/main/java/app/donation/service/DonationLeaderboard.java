@@ -0,0 +1,198 @@
+package app.donation.service;
+
+import app.donation.model.WalletDonationTotal;
+import app.donation.repository.WalletDonationTotalRepository;
+import app.spark.repostiroty.SparkRepository;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import app.web.dto.TotalDonationsInfo;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the donation statistics shown on the Home screen.
+ *
+ * <p>Every donation and refund updates the running total of the donor's wallet in the database,
+ * and after the transaction commits, the in-memory totals and the top donors are updated as well.
+ * Reading the statistics therefore does not execute any query.</p>
+ *
+ * <p>The in-memory statistics of a node only follow the donations and refunds made through that node,
+ * so {@link #reload()} replaces them with the totals in the database periodically. The number of funded Sparks
+ * is only counted there, because the database counts a Spark once even if its first donations were made in parallel.</p>
+ */
+@Slf4j
+@Component
+public class DonationLeaderboard {
+
+    private static final int TOP_DONORS_SIZE = 3;
+
+    private final WalletDonationTotalRepository walletDonationTotalRepository;
+    private final SparkRepository sparkRepository;
+
+    private BigDecimal totalMoneyRaised = BigDecimal.ZERO;
+    private int totalSparksFunded;
+    private List<TopDonor> topDonors = List.of();
+
+    public DonationLeaderboard(WalletDonationTotalRepository _walletDonationTotalRepository, SparkRepository _sparkRepository) {
+        walletDonationTotalRepository = _walletDonationTotalRepository;
+        sparkRepository = _sparkRepository;
+    }
+
+    /**
+     * Creates the running totals that are missing and loads the statistics before the application starts serving requests.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int createdTotals = walletDonationTotalRepository.insertMissingTotals();
+        if (createdTotals > 0) {
+            log.info("Created donation totals for {} wallets", createdTotals);
+        }
+        reload();
+    }
+
+    /**
+     * Replaces the statistics with the totals of all nodes in the database.
+     * A donation of this node that commits while they are read may be missed or counted twice until the next reload.
+     */
+    @Transactional
+    public void reload() {
+        BigDecimal moneyRaised = walletDonationTotalRepository.sumTotalAmount();
+        int sparksFunded = (int) sparkRepository.countByCurrentAmountGreaterThan(BigDecimal.ZERO);
+        List<TopDonor> donors = findTopDonors();
+        synchronized (this) {
+            totalMoneyRaised = moneyRaised;
+            totalSparksFunded = sparksFunded;
+            topDonors = donors;
+        }
+    }
+
+    public synchronized TotalDonationsInfo getTotalDonationsInfo() {
+        TotalDonationsInfo donationsInfo = TotalDonationsInfo.builder()
+                .totalMoneyRaised(totalMoneyRaised.setScale(0, RoundingMode.HALF_UP))
+                .totalSparksFunded(totalSparksFunded)
+                .firstDonorDonations(BigDecimal.ZERO)
+                .secondDonorDonations(BigDecimal.ZERO)
+                .thirdDonorDonations(BigDecimal.ZERO)
+                .build();
+        if (!topDonors.isEmpty()) {
+            TopDonor donor = topDonors.get(0);
+            donationsInfo.setFirstDonorImage(donor.profilePicture());
+            donationsInfo.setFirstDonorName(donor.username());
+            donationsInfo.setFirstDonorDonations(donor.totalDonations());
+        }
+        if (topDonors.size() > 1) {
+            TopDonor donor = topDonors.get(1);
+            donationsInfo.setSecondDonorImage(donor.profilePicture());
+            donationsInfo.setSecondDonorName(donor.username());
+            donationsInfo.setSecondDonorDonations(donor.totalDonations());
+        }
+        if (topDonors.size() > 2) {
+            TopDonor donor = topDonors.get(2);
+            donationsInfo.setThirdDonorImage(donor.profilePicture());
+            donationsInfo.setThirdDonorName(donor.username());
+            donationsInfo.setThirdDonorDonations(donor.totalDonations());
+        }
+        return donationsInfo;
+    }
+
+    /**
+     * Adds the donation to the running total of the donor's wallet.
+     *
+     * @param wallet The wallet from which the donation was made.
+     * @param amount The donated amount.
+     */
+    @Transactional
+    public void recordDonation(Wallet wallet, BigDecimal amount) {
+        LocalDateTime now = LocalDateTime.now();
+        // The donation has already debited the wallet, and that row lock serializes the donations of one wallet,
+        // so two transactions cannot both find the running total missing
+        if (walletDonationTotalRepository.increaseTotalAmount(wallet.getId(), amount, now) == 0) {
+            walletDonationTotalRepository.save(WalletDonationTotal.builder()
+                    .walletId(wallet.getId())
+                    .totalAmount(amount)
+                    .updatedOn(now)
+                    .build());
+        }
+        BigDecimal walletTotal = walletDonationTotalRepository.findTotalAmountByWalletId(wallet.getId());
+        TopDonor donor = new TopDonor(wallet.getId(), wallet.getOwner().getUsername(), wallet.getOwner().getProfilePicture(), walletTotal);
+
+        afterCommit(() -> applyDonation(donor, amount));
+    }
+
+    /**
+     * Subtracts the refunded donations of the Spark from the running totals of the donors' wallets.
+     *
+     * @param sparkId The ID of the Spark whose donations were refunded.
+     * @param refundedAmount The sum of all refunded donations.
+     */
+    @Transactional
+    public void recordRefunds(UUID sparkId, BigDecimal refundedAmount) {
+        walletDonationTotalRepository.decreaseTotalAmountsByDonationsOfSpark(sparkId, LocalDateTime.now());
+
+        afterCommit(() -> applyRefunds(refundedAmount));
+    }
+
+    private synchronized void applyDonation(TopDonor donor, BigDecimal amount) {
+        totalMoneyRaised = totalMoneyRaised.add(amount);
+
+        // Totals only grow with donations, so the new total of the donor decides alone if they enter the top donors
+        List<TopDonor> donors = new ArrayList<>(topDonors);
+        donors.removeIf(topDonor -> topDonor.walletId().equals(donor.walletId()));
+        if (donor.totalDonations().compareTo(BigDecimal.ONE) >= 0) {
+            donors.add(donor);
+        }
+        donors.sort(Comparator.comparing(TopDonor::totalDonations, Comparator.reverseOrder()));
+        topDonors = List.copyOf(donors.subList(0, Math.min(TOP_DONORS_SIZE, donors.size())));
+    }
+
+    private void applyRefunds(BigDecimal refundedAmount) {
+        // A refund can move a donor below someone outside the top donors, so they are loaded again from the indexed totals
+        List<TopDonor> donors = findTopDonors();
+        synchronized (this) {
+            totalMoneyRaised = totalMoneyRaised.subtract(refundedAmount);
+            topDonors = donors;
+        }
+    }
+
+    private List<TopDonor> findTopDonors() {
+        return walletDonationTotalRepository
+                .findByTotalAmountGreaterThanEqualOrderByTotalAmountDesc(BigDecimal.ONE, Limit.of(TOP_DONORS_SIZE))
+                .stream()
+                .map(total -> {
+                    User owner = total.getWallet().getOwner();
+                    return new TopDonor(total.getWalletId(), owner.getUsername(), owner.getProfilePicture(), total.getTotalAmount());
+                })
+                .toList();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record TopDonor(UUID walletId, String username, String profilePicture, BigDecimal totalDonations) {
+    }
+}
@@ -2,133 +2,135 @@ package app.donation.service;
 
 import app.donation.model.Donation;
 import app.donation.repository.DonationRepository;
-import app.email.service.EmailService;
+import app.email.service.EmailOutboxService;
+import app.metrics.DomainMetrics;
 import app.spark.model.Spark;
 import app.spark.model.SparkStatus;
 import app.spark.service.SparkService;
 import app.user.model.User;
 import app.user.model.UserStatus;
 import app.util.CommonUtils;
-import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
+import app.web.dto.DonationFeedItem;
+import app.web.dto.DonationFeedPage;
 import app.web.dto.DonationRequest;
+import app.web.dto.SparkGoalReachedEvent;
 import app.web.dto.TotalDonationsInfo;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
-import java.util.Comparator;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class DonationService {
 
+    private static final String REPLAYED = "replayed";
+    private static final int DONATION_FEED_PAGE_SIZE = 10;
+
     private final DonationRepository donationRepository;
     private final SparkService sparkService;
     private final WalletService walletService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final DonationLeaderboard donationLeaderboard;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DomainMetrics domainMetrics;
 
-    public DonationService(DonationRepository _donationRepository, SparkService _sparkService, WalletService walletService, EmailService _emailService) {
+    public DonationService(DonationRepository _donationRepository, SparkService _sparkService, WalletService walletService, EmailOutboxService _emailOutboxService, DonationLeaderboard _donationLeaderboard, ApplicationEventPublisher _eventPublisher, DomainMetrics _domainMetrics) {
         donationRepository = _donationRepository;
         sparkService = _sparkService;
         this.walletService = walletService;
-        emailService = _emailService;
+        emailOutboxService = _emailOutboxService;
+        donationLeaderboard = _donationLeaderboard;
+        eventPublisher = _eventPublisher;
+        domainMetrics = _domainMetrics;
     }
 
+    /**
+     * Donates to the Spark from the wallet of the user. A donation whose idempotency key was already used
+     * by this wallet is a replay of a saved donation, so nothing is executed again.
+     */
     @Transactional
     public void addDonationToSpark(User user, Spark spark, DonationRequest donationRequest) {
+        domainMetrics.record("sparkfund.donation.add", DomainMetrics.category(spark.getCategory())
+                , () -> donate(user, spark, donationRequest), donated -> donated ? DomainMetrics.SUCCESS : REPLAYED);
+    }
+
+    /**
+     * Checks whether the wallet of the user already donated with the given idempotency key.
+     */
+    public boolean isDonationSaved(User user, UUID idempotencyKey) {
+        return idempotencyKey != null
+                && donationRepository.existsByWalletIdAndIdempotencyKey(user.getWallet().getId(), idempotencyKey);
+    }
+
+    private boolean donate(User user, Spark spark, DonationRequest donationRequest) {
+        if (isDonationSaved(user, donationRequest.getIdempotencyKey())) {
+            return false;
+        }
+
         // Validate that the donation can be done
         validateDonation(user, spark);
 
-        walletService.reduceAmount(user, donationRequest.getAmount());
+        walletService.reduceAmount(user, donationRequest.getAmount(), spark.getId());
         Donation donation = Donation.builder()
                 .amount(donationRequest.getAmount())
                 .message(donationRequest.getMessage())
                 .wallet(user.getWallet())
                 .spark(spark)
+                .idempotencyKey(donationRequest.getIdempotencyKey())
                 .createdOn(LocalDateTime.now())
                 .build();
+        BigDecimal currentAmount = sparkService.getCurrentAmount(spark);
         sparkService.increaseCurrentAmount(spark, donationRequest.getAmount());
         donationRepository.save(donation);
+        donationLeaderboard.recordDonation(user.getWallet(), donationRequest.getAmount());
+        sendEmailForDonation(spark, user.getUsername(), donationRequest.getMessage(), donationRequest.getAmount());
+        publishEventIfGoalReached(spark, currentAmount.add(donationRequest.getAmount()));
+        return true;
     }
 
     /**
-     * Computes and returns donation-related statistics, including total donations, total funded sparks,
-     * and the top 3 donors based on donation amounts.
+     * Retrieves a page of the donations to the Spark, newest first, with the name and picture of their donors.
+     * The page is read with a keyset condition on (createdOn, id), so its cost does not depend on
+     * how many donations the Spark has or how many pages were already shown.
      *
-     * <p>The method performs the following operations:</p>
-     * <ul>
-     *     <li>Retrieves all wallets and calculates the total donations per wallet owner.</li>
-     *     <li>Determines the total sum of all donations.</li>
-     *     <li>Filters and ranks wallets with at least 1 in total donations, selecting the top 3.</li>
-     *     <li>Retrieves the number of sparks that have received donations.</li>
-     *     <li>Extracts details (profile picture, username, and total donation amount) for the top 3 donors.</li>
-     * </ul>
+     * @param sparkId The ID of the Spark.
+     * @param afterCreatedOn The creation date of the last donation from the previous page, or null for the first page.
+     * @param afterId The ID of the last donation from the previous page, or null for the first page.
+     * @return A page of donations and the cursor for the next page.
      */
-    public TotalDonationsInfo getTotalDonationsInfo() {
-        List<Wallet> wallets = walletService.findAllWallets();
-
-        Map<String, BigDecimal> walletDonationsMap = new HashMap<>();
-        BigDecimal totalDonations = BigDecimal.ZERO;
-
-        // Calculate total donation per wallet owner and overall total
-        for (Wallet wallet : wallets) {
-            String ownerUsername = wallet.getOwner().getUsername();
-            BigDecimal walletTotal = getSumOfWalletDonations(wallet);
-
-            walletDonationsMap.merge(ownerUsername, walletTotal, BigDecimal::add);
-            totalDonations = totalDonations.add(walletTotal);
+    public DonationFeedPage getDonationFeed(UUID sparkId, LocalDateTime afterCreatedOn, UUID afterId) {
+        // Fetch one extra row to find out whether there is a next page without running a count query
+        Limit limit = Limit.of(DONATION_FEED_PAGE_SIZE + 1);
+        List<DonationFeedItem> donations = afterCreatedOn != null && afterId != null
+                ? donationRepository.findFeedBySparkIdAfter(sparkId, afterCreatedOn, afterId, limit)
+                : donationRepository.findFeedBySparkId(sparkId, limit);
+        if (donations.size() <= DONATION_FEED_PAGE_SIZE) {
+            return DonationFeedPage.builder().donations(donations).build();
         }
-
-        // Get the top 3 wallets with the highest donation sum and filter out wallets without donations
-        List<Wallet> topWallets = wallets.stream()
-                .filter(wallet ->
-                        walletDonationsMap.getOrDefault(wallet.getOwner().getUsername(), BigDecimal.ZERO)
-                        .compareTo(BigDecimal.ONE) >= 0)
-                .sorted(Comparator.comparing(wallet ->
-                        walletDonationsMap.getOrDefault(wallet.getOwner().getUsername(), BigDecimal.ZERO), Comparator.reverseOrder()))
-                .limit(3)
-                .toList();
-
-        int totalSparksFunded = sparkService.findAllSparksWithDonations().size();
-
-        String firstDonorImage = !topWallets.isEmpty() ? topWallets.get(0).getOwner().getProfilePicture() : null;
-        String firstDonorName = !topWallets.isEmpty() ? topWallets.get(0).getOwner().getUsername() : null;
-        BigDecimal firstDonorDonations = !topWallets.isEmpty() ? getSumOfWalletDonations(topWallets.get(0)) : BigDecimal.ZERO;
-
-        String secondDonorImage = topWallets.size() > 1 ? topWallets.get(1).getOwner().getProfilePicture() : null;
-        String secondDonorName = topWallets.size() > 1 ? topWallets.get(1).getOwner().getUsername() : null;
-        BigDecimal secondDonorDonations = topWallets.size() > 1 ? getSumOfWalletDonations(topWallets.get(1)) : BigDecimal.ZERO;
-
-        String thirdDonorImage = topWallets.size() > 2 ? topWallets.get(2).getOwner().getProfilePicture() : null;
-        String thirdDonorName = topWallets.size() > 2 ? topWallets.get(2).getOwner().getUsername() : null;
-        BigDecimal thirdDonorDonations = topWallets.size() > 2 ? getSumOfWalletDonations(topWallets.get(2)) : BigDecimal.ZERO;
-
-
-        return TotalDonationsInfo.builder()
-                .totalMoneyRaised(totalDonations.setScale(0, RoundingMode.HALF_UP))
-                .totalSparksFunded(totalSparksFunded)
-                .firstDonorImage(firstDonorImage)
-                .firstDonorName(firstDonorName)
-                .firstDonorDonations(firstDonorDonations)
-                .secondDonorImage(secondDonorImage)
-                .secondDonorName(secondDonorName)
-                .secondDonorDonations(secondDonorDonations)
-                .thirdDonorImage(thirdDonorImage)
-                .thirdDonorName(thirdDonorName)
-                .thirdDonorDonations(thirdDonorDonations)
+        List<DonationFeedItem> pageDonations = donations.subList(0, DONATION_FEED_PAGE_SIZE);
+        DonationFeedItem lastDonation = pageDonations.get(pageDonations.size() - 1);
+        return DonationFeedPage.builder()
+                .donations(pageDonations)
+                .hasNextPage(true)
+                .nextCreatedOn(lastDonation.getCreatedOn())
+                .nextId(lastDonation.getId())
                 .build();
     }
 
-    private static BigDecimal getSumOfWalletDonations(Wallet wallet) {
-        return wallet.getDonations().stream()
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Returns the donation statistics, including total donations, total funded sparks,
+     * and the top 3 donors based on donation amounts.
+     * The statistics are maintained by {@link DonationLeaderboard} with every donation and refund.
+     */
+    public TotalDonationsInfo getTotalDonationsInfo() {
+        return donationLeaderboard.getTotalDonationsInfo();
     }
 
     private void validateDonation(User user, Spark spark) {
@@ -139,12 +141,28 @@ public class DonationService {
         }
     }
 
-    public void sendEmailForDonation(Spark spark, String donorName, String message, BigDecimal amount) {
+    /**
+     * Lets {@link app.spark.service.SparkCompletionListener} complete the Spark once the donation is committed.
+     * The event is published for every donation that leaves the Spark at or above its goal, not only the one that crosses it,
+     * because parallel donations may each see the amount below the goal. Completing a Spark twice has no effect.
+     */
+    private void publishEventIfGoalReached(Spark spark, BigDecimal newCurrentAmount) {
+        if (spark.getGoalAmount() != null && newCurrentAmount.compareTo(spark.getGoalAmount()) >= 0) {
+            eventPublisher.publishEvent(SparkGoalReachedEvent.builder()
+                    .sparkId(spark.getId())
+                    .build());
+        }
+    }
+
+    /**
+     * Adds the email for the Spark creator to the outbox, so it is sent only if the donation is committed.
+     */
+    private void sendEmailForDonation(Spark spark, String donorName, String message, BigDecimal amount) {
         String emailSubject = "Your Spark received donation";
         String emailBody = String.format("Your Spark [%s] received donation for %s euro from donor with username: %s", spark.getTitle(), amount.toString(), donorName);
         if (CommonUtils.isNotEmpty(message)) {
             emailBody += String.format("%n%n They sent you the following message: %s", message);
         }
-        emailService.sendEmail(spark.getCreator().getEmail(), emailSubject, emailBody);
+        emailOutboxService.enqueueEmail(spark.getCreator().getEmail(), emailSubject, emailBody);
     }
 }
@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 import java.util.UUID;
 
-@FeignClient(name = "sparkmail-svc", url = "http://localhost:8081/api/v1/emails")
+@FeignClient(name = "sparkmail-svc", url = "${email.client.url:http://localhost:8081/api/v1/emails}")
 public interface EmailClient {
 
     @PostMapping()
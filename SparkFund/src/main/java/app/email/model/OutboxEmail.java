@@ -0,0 +1,48 @@
+package app.email.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Email that waits in the outbox until it is sent to sparkmail-svc.
+ * It is saved in the same transaction as the change it reports, and deleted once it is sent.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_outbox_email_status_next_attempt", columnList = "status, next_attempt_on"))
+public class OutboxEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    private String userEmail;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, length = 2000)
+    private String body;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private OutboxEmailStatus status;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_on", nullable = false)
+    private LocalDateTime nextAttemptOn;
+
+    @Column(length = 500)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,5 @@
+package app.email.model;
+
+public enum OutboxEmailStatus {
+    PENDING, FAILED
+}
@@ -0,0 +1,22 @@
+package app.email.repository;
+
+import app.email.model.OutboxEmail;
+import app.email.model.OutboxEmailStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEmailRepository extends JpaRepository<OutboxEmail, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxEmail> findAllByStatusAndNextAttemptOnLessThanEqualOrderByNextAttemptOn(OutboxEmailStatus status, LocalDateTime now, Limit limit);
+
+    long countByStatus(OutboxEmailStatus status);
+}
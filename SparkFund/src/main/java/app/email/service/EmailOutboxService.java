@@ -0,0 +1,139 @@
+package app.email.service;
+
+import app.email.client.dto.EmailRequest;
+import app.email.model.OutboxEmail;
+import app.email.model.OutboxEmailStatus;
+import app.email.repository.OutboxEmailRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Transactional outbox for the emails sent through sparkmail-svc.
+ * Emails are only saved here, in the transaction of the caller, and are sent later by
+ * {@link app.scheduler.EmailOutboxScheduler}, so the response time of a request never depends on the mail service.
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    // Claimed emails become due again after this time, in case the application stops before it records the results
+    private static final Duration CLAIM_DURATION = Duration.ofMinutes(5);
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEmailRepository outboxEmailRepository;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public EmailOutboxService(OutboxEmailRepository _outboxEmailRepository
+            , @Value("${email.outbox.max-attempts:10}") int _maxAttempts
+            , @Value("${email.outbox.initial-backoff:10s}") Duration _initialBackoff
+            , @Value("${email.outbox.max-backoff:30m}") Duration _maxBackoff) {
+        outboxEmailRepository = _outboxEmailRepository;
+        maxAttempts = _maxAttempts;
+        initialBackoff = _initialBackoff;
+        maxBackoff = _maxBackoff;
+    }
+
+    public void enqueueEmail(String userEmail, String emailSubject, String emailBody) {
+        outboxEmailRepository.save(createOutboxEmail(userEmail, emailSubject, emailBody, LocalDateTime.now()));
+    }
+
+    /**
+     * Saves many emails at once, for example the refund notifications of a cancelled Spark.
+     */
+    public void enqueueEmails(List<EmailRequest> emailRequests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> emails = emailRequests.stream()
+                .map(request -> createOutboxEmail(request.getUserEmail(), request.getSubject(), request.getBody(), now))
+                .toList();
+        outboxEmailRepository.saveAll(emails);
+    }
+
+    /**
+     * Locks the oldest due emails and postpones them for the time needed to send them,
+     * so that no other dispatcher sends them at the same time.
+     *
+     * @param batchSize The maximum number of emails to claim.
+     * @return The claimed emails.
+     */
+    @Transactional
+    public List<OutboxEmail> claimDueEmails(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEmail> emails = outboxEmailRepository.findAllByStatusAndNextAttemptOnLessThanEqualOrderByNextAttemptOn(
+                OutboxEmailStatus.PENDING, now, Limit.of(batchSize));
+        emails.forEach(email -> email.setNextAttemptOn(now.plus(CLAIM_DURATION)));
+        return emails;
+    }
+
+    /**
+     * Deletes the sent emails and schedules the next attempt of the failed ones with exponential backoff.
+     * Emails that were rejected by the mail service, or failed too many times, are kept with status FAILED.
+     *
+     * @param sentEmails The emails that were accepted by the mail service.
+     * @param retryableEmails The emails that failed and can be sent again, with the reason of the failure.
+     * @param rejectedEmails The emails that cannot be sent, with the reason of the rejection.
+     */
+    @Transactional
+    public void recordResults(List<OutboxEmail> sentEmails, Map<OutboxEmail, String> retryableEmails, Map<OutboxEmail, String> rejectedEmails) {
+        if (!sentEmails.isEmpty()) {
+            outboxEmailRepository.deleteAllInBatch(sentEmails);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        retryableEmails.forEach((email, error) -> {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(abbreviate(error));
+            if (email.getAttempts() >= maxAttempts) {
+                email.setStatus(OutboxEmailStatus.FAILED);
+                log.error("Email to {} failed {} times and will not be sent again: {}", email.getUserEmail(), email.getAttempts(), error);
+            } else {
+                email.setNextAttemptOn(now.plus(getBackoff(email.getAttempts())));
+            }
+        });
+        rejectedEmails.forEach((email, error) -> {
+            email.setAttempts(email.getAttempts() + 1);
+            email.setLastError(abbreviate(error));
+            email.setStatus(OutboxEmailStatus.FAILED);
+            log.error("Email to {} was rejected and will not be sent again: {}", email.getUserEmail(), error);
+        });
+        if (!retryableEmails.isEmpty() || !rejectedEmails.isEmpty()) {
+            outboxEmailRepository.saveAll(retryableEmails.keySet());
+            outboxEmailRepository.saveAll(rejectedEmails.keySet());
+        }
+    }
+
+    public long countPendingEmails() {
+        return outboxEmailRepository.countByStatus(OutboxEmailStatus.PENDING);
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private static OutboxEmail createOutboxEmail(String userEmail, String emailSubject, String emailBody, LocalDateTime now) {
+        return OutboxEmail.builder()
+                .userEmail(userEmail)
+                .subject(emailSubject)
+                .body(emailBody)
+                .status(OutboxEmailStatus.PENDING)
+                .nextAttemptOn(now)
+                .createdOn(now)
+                .build();
+    }
+
+    private static String abbreviate(String error) {
+        if (error == null || error.length() <= MAX_ERROR_LENGTH) {
+            return error;
+        }
+        return error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -3,7 +3,10 @@ package app.email.service;
 import app.email.client.EmailClient;
 import app.email.client.dto.EmailRequest;
 import app.email.client.dto.EmailResponse;
+import app.metrics.DomainMetrics;
 import app.web.dto.EmailEvent;
+import feign.FeignException;
+import io.micrometer.core.instrument.Tags;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpStatus;
@@ -20,10 +23,14 @@ import java.util.UUID;
 @Service
 public class EmailService {
 
+    private static final String CLIENT_METRIC = "sparkfund.email.client";
+
     private final EmailClient emailClient;
+    private final DomainMetrics domainMetrics;
 
-    public EmailService(EmailClient _emailClient) {
+    public EmailService(EmailClient _emailClient, DomainMetrics _domainMetrics) {
         emailClient = _emailClient;
+        domainMetrics = _domainMetrics;
     }
 
     public HttpStatusCode sendEmail(String userEmail, String emailSubject, String emailBody) {
@@ -36,7 +43,19 @@ public class EmailService {
                 .subject(emailSubject)
                 .body(emailBody)
                 .build();
-        ResponseEntity<Void> httpResponse = emailClient.sendEmail(emailRequest);
+        ResponseEntity<Void> httpResponse;
+        try {
+            httpResponse = domainMetrics.record(CLIENT_METRIC, Tags.of("operation", "send")
+                    , () -> emailClient.sendEmail(emailRequest)
+                    , response -> response != null && response.getStatusCode().is2xxSuccessful() ? DomainMetrics.SUCCESS : DomainMetrics.FAILURE);
+        } catch (FeignException e) {
+            // Feign throws for every non-2xx reply, the ones without a status (connection errors) are rethrown
+            if (e.status() <= 0) {
+                throw e;
+            }
+            log.error("[Feign call to sparkmail-svc failed with code: {}] Can`t send email to {}", e.status(), userEmail);
+            return HttpStatusCode.valueOf(e.status());
+        }
         if (httpResponse == null) {
             log.error("[Feign call to sparkmail-svc failed] Response is null");
             return HttpStatus.INTERNAL_SERVER_ERROR;
@@ -48,7 +67,8 @@ public class EmailService {
     }
     
     public List<EmailResponse> getFailedEmails() {
-        ResponseEntity<List<EmailResponse>> responseResult = emailClient.getFailedEmails();
+        ResponseEntity<List<EmailResponse>> responseResult = domainMetrics.record(CLIENT_METRIC, Tags.of("operation", "get-failed")
+                , emailClient::getFailedEmails);
         if (responseResult == null) {
             return new ArrayList<>();
         }
@@ -56,7 +76,7 @@ public class EmailService {
     }
 
     public void deletedFailedEmail(UUID emailId) {
-        emailClient.deletedFailedEmail(emailId);
+        domainMetrics.record(CLIENT_METRIC, Tags.of("operation", "delete-failed"), () -> emailClient.deletedFailedEmail(emailId));
     }
 
     @Async
@@ -0,0 +1,124 @@
+package app.home.service;
+
+import app.donation.service.DonationService;
+import app.spark.service.SparkService;
+import app.web.dto.HomeSnapshot;
+import app.web.dto.SparkCard;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the part of the Home screen that is the same for every user: the latest Sparks and the donation statistics.
+ *
+ * <p>The snapshot is served with stale-while-revalidate semantics. A snapshot older than the configured maximum age
+ * is still returned, and a rebuild is started in the background, so no request waits for the Sparks to be loaded
+ * except the very first ones. Only one rebuild runs at a time: the first requests all wait for the same rebuild.</p>
+ */
+@Slf4j
+@Service
+public class HomeSnapshotService {
+
+    private final SparkService sparkService;
+    private final DonationService donationService;
+    private final Duration maxAge;
+    private final int latestSparksCount;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AtomicReference<HomeSnapshot> snapshot = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<HomeSnapshot>> pendingRefresh = new AtomicReference<>();
+
+    public HomeSnapshotService(SparkService _sparkService
+            , DonationService _donationService
+            , @Value("${home.snapshot.max-age:5s}") Duration _maxAge
+            , @Value("${home.snapshot.latest-sparks:10}") int _latestSparksCount) {
+        sparkService = _sparkService;
+        donationService = _donationService;
+        maxAge = _maxAge;
+        latestSparksCount = _latestSparksCount;
+    }
+
+    public HomeSnapshot getSnapshot() {
+        HomeSnapshot currentSnapshot = snapshot.get();
+        if (currentSnapshot == null) {
+            return awaitRefresh();
+        }
+        if (currentSnapshot.getCreatedOn().plus(maxAge).isBefore(Instant.now())) {
+            refreshInBackground();
+        }
+        return currentSnapshot;
+    }
+
+    /**
+     * Builds a new snapshot and serves it from now on.
+     */
+    public HomeSnapshot refresh() {
+        List<SparkCard> latestSparks = sparkService.getLatestActiveSparkCards(latestSparksCount);
+        HomeSnapshot newSnapshot = HomeSnapshot.builder()
+                .latestSparks(latestSparks)
+                .donationsInfo(donationService.getTotalDonationsInfo())
+                .createdOn(Instant.now())
+                .build();
+        snapshot.set(newSnapshot);
+        return newSnapshot;
+    }
+
+    private HomeSnapshot awaitRefresh() {
+        try {
+            return startRefresh(Runnable::run).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void refreshInBackground() {
+        startRefresh(executor);
+    }
+
+    /**
+     * Starts a rebuild on the executor, or returns the one that is already running.
+     */
+    private CompletableFuture<HomeSnapshot> startRefresh(Executor refreshExecutor) {
+        CompletableFuture<HomeSnapshot> newRefresh = new CompletableFuture<>();
+        CompletableFuture<HomeSnapshot> runningRefresh = pendingRefresh.compareAndExchange(null, newRefresh);
+        if (runningRefresh != null) {
+            return runningRefresh;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    HomeSnapshot newSnapshot = refresh();
+                    pendingRefresh.set(null);
+                    newRefresh.complete(newSnapshot);
+                } catch (RuntimeException e) {
+                    log.error("Refreshing the Home snapshot failed", e);
+                    pendingRefresh.set(null);
+                    newRefresh.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pendingRefresh.set(null);
+            newRefresh.completeExceptionally(e);
+        }
+        return newRefresh;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,18 @@
+package app.idempotency.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Identifies a form submission: the operation, the resource it targets and the user who submitted it.
+ * Used as the key of the in-memory store as is, without building a string per request.
+ */
+public record SubmissionKey(String operation, UUID targetId, UUID userId) {
+
+    /**
+     * Fixed-length form of the key for {@link app.idempotency.service.JdbcSubmissionStore}.
+     */
+    public UUID toUuid() {
+        return UUID.nameUUIDFromBytes((operation + ";" + targetId + ";" + userId).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,27 @@
+package app.idempotency.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Submission accepted by one of the application nodes, shared through the database by
+ * {@link app.idempotency.service.JdbcSubmissionStore}. Until it expires, the same submission is rejected on every node.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_submission_token_expires_on", columnList = "expiresOn"))
+public class SubmissionToken {
+
+    @Id
+    private UUID tokenKey;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresOn;
+}
@@ -0,0 +1,43 @@
+package app.idempotency.repository;
+
+import app.idempotency.model.SubmissionToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface SubmissionTokenRepository extends JpaRepository<SubmissionToken, UUID> {
+
+    /**
+     * Inserts the token without reading it first, so two nodes inserting the same key
+     * cannot both succeed: the second one fails on the primary key.
+     */
+    @Transactional
+    @Modifying
+    @Query("INSERT INTO SubmissionToken (tokenKey, expiresOn) VALUES (:tokenKey, :expiresOn)")
+    int insertToken(@Param("tokenKey") UUID tokenKey, @Param("expiresOn") LocalDateTime expiresOn);
+
+    /**
+     * Takes over the token if it has already expired.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE SubmissionToken t SET t.expiresOn = :expiresOn WHERE t.tokenKey = :tokenKey AND t.expiresOn <= :now")
+    int renewExpiredToken(@Param("tokenKey") UUID tokenKey, @Param("expiresOn") LocalDateTime expiresOn, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SubmissionToken t WHERE t.tokenKey = :tokenKey")
+    int deleteToken(@Param("tokenKey") UUID tokenKey);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM SubmissionToken t WHERE t.expiresOn <= :now")
+    int deleteExpiredTokens(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,47 @@
+package app.idempotency.service;
+
+import app.idempotency.model.SubmissionKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Keeps the accepted submissions of this node in a Caffeine cache. The entries expire after the window
+ * and the cache is bounded, so the store cannot grow with the number of users and Sparks.
+ */
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySubmissionStore implements SubmissionStore {
+
+    private final Cache<SubmissionKey, Boolean> submissions;
+
+    @Autowired
+    public InMemorySubmissionStore(@Value("${idempotency.window:5s}") Duration _window
+            , @Value("${idempotency.maximum-size:100000}") long _maximumSize) {
+        this(_window, _maximumSize, Ticker.systemTicker());
+    }
+
+    public InMemorySubmissionStore(Duration _window, long _maximumSize, Ticker _ticker) {
+        submissions = Caffeine.newBuilder()
+                .expireAfterWrite(_window)
+                .maximumSize(_maximumSize)
+                .ticker(_ticker)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(SubmissionKey key) {
+        return submissions.asMap().putIfAbsent(key, Boolean.TRUE) == null;
+    }
+
+    @Override
+    public void release(SubmissionKey key) {
+        submissions.invalidate(key);
+    }
+}
@@ -0,0 +1,63 @@
+package app.idempotency.service;
+
+import app.idempotency.model.SubmissionKey;
+import app.idempotency.repository.SubmissionTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Shares the accepted submissions between the application nodes through the submission_token table.
+ * A submission is accepted by inserting its token or by taking over an expired one; both are single statements,
+ * so the database decides which of two parallel submissions wins. Expired tokens are deleted periodically.
+ * The expiry is computed from the clock of each node, so the clocks of the nodes should be synchronized.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "idempotency.store", havingValue = "jdbc")
+public class JdbcSubmissionStore implements SubmissionStore {
+
+    private final SubmissionTokenRepository submissionTokenRepository;
+    private final Duration window;
+
+    public JdbcSubmissionStore(SubmissionTokenRepository _submissionTokenRepository
+            , @Value("${idempotency.window:5s}") Duration _window) {
+        submissionTokenRepository = _submissionTokenRepository;
+        window = _window;
+    }
+
+    @Override
+    public boolean tryAcquire(SubmissionKey key) {
+        UUID tokenKey = key.toUuid();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresOn = now.plus(window);
+        if (submissionTokenRepository.renewExpiredToken(tokenKey, expiresOn, now) == 1) {
+            return true;
+        }
+        try {
+            return submissionTokenRepository.insertToken(tokenKey, expiresOn) == 1;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(SubmissionKey key) {
+        submissionTokenRepository.deleteToken(key.toUuid());
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void deleteExpiredTokens() {
+        int deletedTokens = submissionTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+        if (deletedTokens > 0) {
+            log.debug("Deleted {} expired submission tokens", deletedTokens);
+        }
+    }
+}
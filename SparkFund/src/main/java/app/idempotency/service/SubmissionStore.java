@@ -0,0 +1,24 @@
+package app.idempotency.service;
+
+import app.idempotency.model.SubmissionKey;
+
+/**
+ * Remembers the accepted submissions for a configured window, so that a replay of the same submission,
+ * either in parallel or shortly after, can be rejected.
+ * The in-memory store is used by default; with {@code idempotency.store=jdbc} the submissions are shared
+ * through the database, so they are rejected across all application nodes.
+ */
+public interface SubmissionStore {
+
+    /**
+     * Atomically accepts the submission if no submission with the same key was accepted within the window.
+     *
+     * @return false if the submission is a duplicate.
+     */
+    boolean tryAcquire(SubmissionKey key);
+
+    /**
+     * Forgets the submission, so it can be submitted again right away, e.g. after it failed.
+     */
+    void release(SubmissionKey key);
+}
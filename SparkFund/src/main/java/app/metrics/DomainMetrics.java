@@ -0,0 +1,71 @@
+package app.metrics;
+
+import app.spark.model.SparkCategory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Records the latency and the outcome of the domain operations.
+ * Every timer carries an "outcome" tag and an "exception" tag with the simple name of the exception that ended
+ * the operation, next to the tags given by the caller. The percentile histograms of all SparkFund meters are
+ * enabled in application.properties, so they can be aggregated across instances in Prometheus.
+ */
+@Component
+public class DomainMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+    private static final String NO_EXCEPTION = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public DomainMetrics(MeterRegistry _meterRegistry) {
+        meterRegistry = _meterRegistry;
+    }
+
+    public void record(String name, Tags tags, Runnable operation) {
+        record(name, tags, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    public <T> T record(String name, Tags tags, Supplier<T> operation) {
+        return record(name, tags, operation, result -> SUCCESS);
+    }
+
+    /**
+     * Times the operation and tags it with the outcome derived from its result, or with {@link #FAILURE} if it throws.
+     */
+    public <T> T record(String name, Tags tags, Supplier<T> operation, Function<T, String> outcome) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = operation.get();
+            sample.stop(meterRegistry.timer(name, tags.and("outcome", outcome.apply(result), "exception", NO_EXCEPTION)));
+            return result;
+        } catch (RuntimeException e) {
+            sample.stop(meterRegistry.timer(name, tags.and("outcome", FAILURE, "exception", e.getClass().getSimpleName())));
+            throw e;
+        }
+    }
+
+    /**
+     * Tags of the operations on a Spark, which are split by its category.
+     */
+    public static Tags category(SparkCategory category) {
+        return Tags.of("category", String.valueOf(category));
+    }
+
+    public void increment(String name, Tags tags) {
+        Counter.builder(name)
+                .tags(tags)
+                .register(meterRegistry)
+                .increment();
+    }
+}
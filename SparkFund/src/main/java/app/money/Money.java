@@ -0,0 +1,121 @@
+package app.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Exact amount of money held as a long number of minor units, e.g. cents, of its currency.
+ * Sums of amounts are plain long additions, so aggregating many amounts does not allocate, and formatting
+ * does not need a {@link java.text.DecimalFormat}. An overflow throws instead of silently wrapping around.
+ */
+public record Money(long minorUnits, Currency currency) implements Comparable<Money> {
+
+    public static final Currency EUR = Currency.getInstance("EUR");
+    public static final Money ZERO = new Money(0, EUR);
+
+    private static final Map<Locale, Character> DECIMAL_SEPARATORS = new ConcurrentHashMap<>();
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money euros(BigDecimal amount) {
+        return of(amount, EUR);
+    }
+
+    public static Money euroCents(long minorUnits) {
+        return new Money(minorUnits, EUR);
+    }
+
+    /**
+     * @throws ArithmeticException if the amount has more fraction digits than the currency, or does not fit in a long.
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        return new Money(toMinorUnits(amount, currency), currency);
+    }
+
+    /**
+     * Converts the amount to the minor units of the currency, e.g. 12.30 euro to 1230 cents.
+     *
+     * @throws ArithmeticException if the amount has more fraction digits than the currency, or does not fit in a long.
+     */
+    public static long toMinorUnits(BigDecimal amount, Currency currency) {
+        return amount.movePointRight(currency.getDefaultFractionDigits()).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(minorUnits, minorUnitsOf(other)), currency);
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(minorUnits, minorUnitsOf(other)), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public boolean isZero() {
+        return minorUnits == 0;
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, minorUnitsOf(other));
+    }
+
+    /**
+     * Formats the amount with all fraction digits of the currency and the decimal separator of the locale, e.g. 1230.50.
+     */
+    public String format(Locale locale) {
+        int fractionDigits = currency.getDefaultFractionDigits();
+        long units = Math.abs(minorUnits);
+        StringBuilder text = new StringBuilder(24);
+        if (minorUnits < 0) {
+            text.append('-');
+        }
+        if (fractionDigits <= 0) {
+            return text.append(units).toString();
+        }
+        long scale = 1;
+        for (int i = 0; i < fractionDigits; i++) {
+            scale *= 10;
+        }
+        String fraction = Long.toString(units % scale);
+        text.append(units / scale).append(decimalSeparator(locale));
+        for (int i = fraction.length(); i < fractionDigits; i++) {
+            text.append('0');
+        }
+        return text.append(fraction).toString();
+    }
+
+    @Override
+    public String toString() {
+        return format(Locale.ROOT) + " " + currency.getCurrencyCode();
+    }
+
+    private long minorUnitsOf(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine %s with %s".formatted(currency, other.currency));
+        }
+        return other.minorUnits;
+    }
+
+    private static char decimalSeparator(Locale locale) {
+        return DECIMAL_SEPARATORS.computeIfAbsent(locale, l -> DecimalFormatSymbols.getInstance(l).getDecimalSeparator());
+    }
+}
@@ -0,0 +1,27 @@
+package app.money;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores euro amounts as an exact number of cents in an integer column.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, Long> {
+
+    @Override
+    public Long convertToDatabaseColumn(Money money) {
+        if (money == null) {
+            return null;
+        }
+        if (!Money.EUR.equals(money.currency())) {
+            throw new IllegalArgumentException("Only euro amounts can be stored, got " + money.currency());
+        }
+        return money.minorUnits();
+    }
+
+    @Override
+    public Money convertToEntityAttribute(Long cents) {
+        return cents == null ? null : Money.euroCents(cents);
+    }
+}
@@ -0,0 +1,44 @@
+package app.money;
+
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.IExpressionContext;
+import org.thymeleaf.dialect.AbstractDialect;
+import org.thymeleaf.dialect.IExpressionObjectDialect;
+import org.thymeleaf.expression.IExpressionObjectFactory;
+
+import java.util.Set;
+
+/**
+ * Adds the {@code #money} expression object to the templates, e.g. {@code ${#money.format(wallet.amount)}}.
+ */
+@Component
+public class MoneyDialect extends AbstractDialect implements IExpressionObjectDialect {
+
+    private static final String MONEY = "money";
+    private static final MoneyFormat MONEY_FORMAT = new MoneyFormat();
+
+    public MoneyDialect() {
+        super("Money");
+    }
+
+    @Override
+    public IExpressionObjectFactory getExpressionObjectFactory() {
+        return new IExpressionObjectFactory() {
+
+            @Override
+            public Set<String> getAllExpressionObjectNames() {
+                return Set.of(MONEY);
+            }
+
+            @Override
+            public Object buildObject(IExpressionContext context, String expressionObjectName) {
+                return MONEY.equals(expressionObjectName) ? MONEY_FORMAT : null;
+            }
+
+            @Override
+            public boolean isCacheable(String expressionObjectName) {
+                return true;
+            }
+        };
+    }
+}
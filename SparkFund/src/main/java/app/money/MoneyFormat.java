@@ -0,0 +1,25 @@
+package app.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+
+/**
+ * Formats amounts for the templates, e.g. €1230.50, with the cents always shown.
+ * Available in the templates as {@code #money} through {@link MoneyDialect}.
+ */
+public class MoneyFormat {
+
+    public String format(Money money) {
+        Money amount = money == null ? Money.ZERO : money;
+        String symbol = Money.EUR.equals(amount.currency()) ? "€" : amount.currency().getCurrencyCode() + " ";
+        return symbol + amount.format(Locale.ROOT);
+    }
+
+    /**
+     * Amounts entered with more fraction digits than cents are rounded for display.
+     */
+    public String format(BigDecimal amount) {
+        return format(amount == null ? Money.ZERO : Money.euros(amount.setScale(2, RoundingMode.HALF_UP)));
+    }
+}
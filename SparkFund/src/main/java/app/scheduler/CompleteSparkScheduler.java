@@ -1,32 +1,74 @@
 package app.scheduler;
 
+import app.checkpoint.service.JobCheckpointService;
 import app.spark.model.Spark;
 import app.spark.service.SparkService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.UUID;
 
+/**
+ * Completes the active Sparks that reached their goal amount but were not completed by
+ * {@link app.spark.service.SparkCompletionListener}, for example because the application stopped before the event was handled.
+ * The Sparks are read in chunks ordered by ID and each Spark is completed in its own transaction,
+ * with the completion email saved to the outbox. After every chunk the ID of its last Spark is saved
+ * as a checkpoint, so a run that stops halfway is resumed from there by the next run.
+ */
 @Slf4j
 @Component
 public class CompleteSparkScheduler {
 
+    static final String JOB_NAME = "complete-sparks";
+
     private final SparkService sparkService;
+    private final JobCheckpointService jobCheckpointService;
+    private final int chunkSize;
 
-    public CompleteSparkScheduler(SparkService _sparkService) {
+    public CompleteSparkScheduler(SparkService _sparkService
+            , JobCheckpointService _jobCheckpointService
+            , @Value("${spark.completion.chunk-size:100}") int _chunkSize) {
         sparkService = _sparkService;
+        jobCheckpointService = _jobCheckpointService;
+        chunkSize = _chunkSize;
     }
 
 //    @Scheduled(fixedRate = 10000)
     @Scheduled(fixedRate = 180000)
     public void completeSparks(){
-        List<Spark> sparksToBeCompleted = sparkService.findSparksForCompletion();
-        if (sparksToBeCompleted.isEmpty()) {
-            log.info("No Sparks found for completion");
+        UUID lastProcessedId = jobCheckpointService.getLastProcessedId(JOB_NAME).orElse(null);
+        if (lastProcessedId != null) {
+            log.info("Resuming completion of Sparks after Spark {}", lastProcessedId);
         }
-        for (Spark spark : sparksToBeCompleted) {
-            sparkService.completeSpark(spark);
+
+        int completedSparks = 0;
+        List<Spark> sparksToBeCompleted;
+        do {
+            sparksToBeCompleted = sparkService.findSparksForCompletion(lastProcessedId, chunkSize);
+            for (Spark spark : sparksToBeCompleted) {
+                // One failing Spark must not hold back the others, it is retried by the next run
+                try {
+                    if (sparkService.completeSpark(spark)) {
+                        completedSparks++;
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Completing Spark {} failed", spark.getId(), e);
+                }
+            }
+            if (!sparksToBeCompleted.isEmpty()) {
+                lastProcessedId = sparksToBeCompleted.get(sparksToBeCompleted.size() - 1).getId();
+                jobCheckpointService.saveLastProcessedId(JOB_NAME, lastProcessedId);
+            }
+        } while (sparksToBeCompleted.size() == chunkSize);
+
+        jobCheckpointService.clearCheckpoint(JOB_NAME);
+        if (completedSparks == 0) {
+            log.info("No Sparks found for completion");
+        } else {
+            log.info("Completed {} Sparks", completedSparks);
         }
     }
 }
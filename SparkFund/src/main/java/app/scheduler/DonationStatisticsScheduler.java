@@ -0,0 +1,24 @@
+package app.scheduler;
+
+import app.donation.service.DonationLeaderboard;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class DonationStatisticsScheduler {
+
+    private final DonationLeaderboard donationLeaderboard;
+
+    public DonationStatisticsScheduler(DonationLeaderboard _donationLeaderboard) {
+        donationLeaderboard = _donationLeaderboard;
+    }
+
+    /**
+     * Reconciles the donation statistics of this node with the donations and refunds made through the other nodes,
+     * and counts the Sparks that were funded since the last run.
+     */
+    @Scheduled(fixedDelayString = "${donation.statistics.reload-interval:30s}", initialDelayString = "${donation.statistics.reload-interval:30s}")
+    public void reloadDonationStatistics() {
+        donationLeaderboard.reload();
+    }
+}
@@ -0,0 +1,127 @@
+package app.scheduler;
+
+import app.email.model.OutboxEmail;
+import app.email.service.EmailOutboxService;
+import app.email.service.EmailService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Sends the emails from the outbox to sparkmail-svc.
+ * Each run claims batches of due emails and sends them with a limited number of parallel requests.
+ * When a whole batch fails, the mail service is considered unavailable and the runs are paused with exponential backoff.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "email.outbox.dispatcher-enabled", havingValue = "true", matchIfMissing = true)
+public class EmailOutboxScheduler {
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final Duration initialPause;
+    private final Duration maxPause;
+
+    private int failedBatches;
+    private LocalDateTime pausedUntil = LocalDateTime.MIN;
+
+    public EmailOutboxScheduler(EmailOutboxService _emailOutboxService
+            , EmailService _emailService
+            , @Value("${email.outbox.batch-size:50}") int _batchSize
+            , @Value("${email.outbox.max-concurrency:4}") int _maxConcurrency
+            , @Value("${email.outbox.initial-backoff:10s}") Duration _initialPause
+            , @Value("${email.outbox.max-backoff:30m}") Duration _maxPause) {
+        emailOutboxService = _emailOutboxService;
+        emailService = _emailService;
+        batchSize = _batchSize;
+        executor = Executors.newFixedThreadPool(_maxConcurrency);
+        initialPause = _initialPause;
+        maxPause = _maxPause;
+    }
+
+    @Scheduled(fixedDelay = 1000)
+    public void dispatchEmails() {
+        if (LocalDateTime.now().isBefore(pausedUntil)) {
+            return;
+        }
+        List<OutboxEmail> emails;
+        do {
+            emails = emailOutboxService.claimDueEmails(batchSize);
+            if (!emails.isEmpty() && !dispatchBatch(emails)) {
+                pauseDispatching();
+                return;
+            }
+        } while (emails.size() == batchSize);
+    }
+
+    /**
+     * Sends the batch and records the results.
+     *
+     * @return false if no email of the batch could be sent.
+     */
+    private boolean dispatchBatch(List<OutboxEmail> emails) {
+        Map<OutboxEmail, Future<HttpStatusCode>> responses = new LinkedHashMap<>();
+        for (OutboxEmail email : emails) {
+            responses.put(email, executor.submit(() -> emailService.sendEmail(email.getUserEmail(), email.getSubject(), email.getBody())));
+        }
+
+        List<OutboxEmail> sentEmails = new ArrayList<>();
+        Map<OutboxEmail, String> retryableEmails = new HashMap<>();
+        Map<OutboxEmail, String> rejectedEmails = new HashMap<>();
+        responses.forEach((email, response) -> {
+            try {
+                HttpStatusCode statusCode = response.get();
+                if (statusCode.is2xxSuccessful()) {
+                    sentEmails.add(email);
+                } else if (statusCode.is4xxClientError()) {
+                    rejectedEmails.put(email, "Rejected with status " + statusCode.value());
+                } else {
+                    retryableEmails.put(email, "Failed with status " + statusCode.value());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                retryableEmails.put(email, "Interrupted");
+            } catch (Exception e) {
+                retryableEmails.put(email, String.valueOf(e.getCause() != null ? e.getCause().getMessage() : e.getMessage()));
+            }
+        });
+        emailOutboxService.recordResults(sentEmails, retryableEmails, rejectedEmails);
+        if (!sentEmails.isEmpty()) {
+            failedBatches = 0;
+            log.info("Sent {} emails from the outbox", sentEmails.size());
+        }
+        return !sentEmails.isEmpty() || !rejectedEmails.isEmpty();
+    }
+
+    private void pauseDispatching() {
+        failedBatches++;
+        Duration pause = initialPause.multipliedBy(1L << Math.min(failedBatches - 1, 20));
+        if (pause.compareTo(maxPause) > 0) {
+            pause = maxPause;
+        }
+        pausedUntil = LocalDateTime.now().plus(pause);
+        log.warn("Sending emails failed for a whole batch, the outbox is paused for {} seconds", pause.toSeconds());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,22 +2,55 @@ package app.scheduler;
 
 import app.email.client.dto.EmailResponse;
 import app.email.service.EmailService;
+import app.metrics.DomainMetrics;
+import io.micrometer.core.instrument.Tags;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+/**
+ * Resends the emails that sparkmail-svc failed to deliver.
+ * The emails are resent in parallel, up to a configured number at a time, and each run stops starting new
+ * sends when its time budget is used up. If a run leaves emails behind because of the budget,
+ * the next run is started right away (catch-up mode) instead of waiting for the regular schedule.
+ */
 @Slf4j
 @Component
 public class ResendEmailScheduler {
 
+    private static final DateTimeFormatter CREATED_ON_FORMATTER = DateTimeFormatter.ofPattern("dd MM yyyy");
+    private static final String RESEND_METRIC = "sparkfund.email.resend";
+
     private final EmailService emailService;
+    private final TaskScheduler taskScheduler;
+    private final ExecutorService executor;
+    private final Duration timeBudget;
+    private final DomainMetrics domainMetrics;
 
-    public ResendEmailScheduler(EmailService _emailService) {
+    public ResendEmailScheduler(EmailService _emailService
+            , TaskScheduler _taskScheduler
+            , DomainMetrics _domainMetrics
+            , @Value("${email.resend.max-concurrency:8}") int _maxConcurrency
+            , @Value("${email.resend.time-budget:60s}") Duration _timeBudget) {
         emailService = _emailService;
+        taskScheduler = _taskScheduler;
+        executor = Executors.newFixedThreadPool(_maxConcurrency);
+        timeBudget = _timeBudget;
+        domainMetrics = _domainMetrics;
     }
 
 //    @Scheduled(fixedRate = 10000)
@@ -26,15 +59,61 @@ public class ResendEmailScheduler {
         List<EmailResponse> failedEmails = emailService.getFailedEmails();
         if (failedEmails.isEmpty()) {
             log.info("No emails found for resending");
+            return;
         }
+        Instant deadline = Instant.now().plus(timeBudget);
+        List<Future<ResendResult>> results = new ArrayList<>();
         for (EmailResponse failedEmail : failedEmails) {
-            HttpStatusCode statusCode = emailService.sendEmail(failedEmail.getUserEmail(), failedEmail.getSubject(), failedEmail.getBody());
-            if (statusCode.is2xxSuccessful()) {
-                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("dd MM yyyy");
-                String formattedDate = failedEmail.getCreatedOn().format(formatter);
-                log.info("Email to {}, created on {}, was sent successfully from scheduler", failedEmail.getUserEmail(), formattedDate);
-                emailService.deletedFailedEmail(failedEmail.getEmailId());
+            results.add(executor.submit(() -> Instant.now().isBefore(deadline) ? resendEmail(failedEmail) : ResendResult.SKIPPED));
+        }
+
+        int drainedEmails = 0;
+        int skippedEmails = 0;
+        for (Future<ResendResult> result : results) {
+            try {
+                ResendResult resendResult = result.get();
+                if (resendResult == ResendResult.DRAINED) {
+                    drainedEmails++;
+                } else if (resendResult == ResendResult.SKIPPED) {
+                    skippedEmails++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("Resending email failed", e.getCause());
             }
         }
+        log.info("Resent {} of {} failed emails", drainedEmails, failedEmails.size());
+
+        // The time budget ran out while the mail service was accepting emails, so continue with the rest right away
+        if (skippedEmails > 0 && drainedEmails > 0) {
+            log.info("Backlog of failed emails remains, starting the next run immediately");
+            taskScheduler.schedule(this::resendEmails, Instant.now());
+        }
+    }
+
+    private ResendResult resendEmail(EmailResponse failedEmail) {
+        HttpStatusCode statusCode = domainMetrics.record(RESEND_METRIC, Tags.empty()
+                , () -> emailService.sendEmail(failedEmail.getUserEmail(), failedEmail.getSubject(), failedEmail.getBody())
+                , status -> status.is2xxSuccessful() ? DomainMetrics.SUCCESS : DomainMetrics.FAILURE);
+        if (!statusCode.is2xxSuccessful()) {
+            return ResendResult.FAILED;
+        }
+        String formattedDate = failedEmail.getCreatedOn().format(CREATED_ON_FORMATTER);
+        log.info("Email to {}, created on {}, was sent successfully from scheduler", failedEmail.getUserEmail(), formattedDate);
+        emailService.deletedFailedEmail(failedEmail.getEmailId());
+        // Failed emails that were resent and deleted from sparkmail-svc
+        domainMetrics.increment(RESEND_METRIC + ".drained", Tags.empty());
+        return ResendResult.DRAINED;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private enum ResendResult {
+        DRAINED, FAILED, SKIPPED
     }
 }
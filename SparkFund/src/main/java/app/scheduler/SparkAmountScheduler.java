@@ -0,0 +1,33 @@
+package app.scheduler;
+
+import app.spark.service.SparkService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+public class SparkAmountScheduler {
+
+    private final SparkService sparkService;
+
+    public SparkAmountScheduler(SparkService _sparkService) {
+        sparkService = _sparkService;
+    }
+
+    /**
+     * Applies the donated amounts to the current amount of their Sparks, batch by batch, until none are pending.
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void applyDonatedAmounts() {
+        int appliedIncrements;
+        int totalAppliedIncrements = 0;
+        do {
+            appliedIncrements = sparkService.applyPendingAmountIncrements();
+            totalAppliedIncrements += appliedIncrements;
+        } while (appliedIncrements > 0);
+        if (totalAppliedIncrements > 0) {
+            log.debug("Applied {} donated amounts to their Sparks", totalAppliedIncrements);
+        }
+    }
+}
@@ -4,6 +4,9 @@ import app.donation.model.Donation;
 import app.user.model.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.search.engine.backend.types.Sortable;
+import org.hibernate.search.mapper.pojo.automaticindexing.ReindexOnUpdate;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,24 +19,59 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_spark_status_created_on", columnList = "status, created_on, id"),
+        @Index(name = "idx_spark_status_category_created_on", columnList = "status, category, created_on, id"),
+        @Index(name = "idx_spark_status_id", columnList = "status, id"),
+        @Index(name = "idx_spark_current_amount", columnList = "current_amount"),
+        @Index(name = "idx_spark_creator_created_on", columnList = "creator_id, created_on")})
+@Indexed
+@NamedEntityGraph(name = Spark.SHOW_SPARK_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "creator", subgraph = "creator")},
+        subgraphs = @NamedSubgraph(name = "creator", attributeNodes = @NamedAttributeNode("wallet")))
 public class Spark {
 
+    /**
+     * Fetch plan for the Show Spark screen. The donations are not part of it, they are read page by page
+     * by {@link app.donation.service.DonationService#getDonationFeed}.
+     */
+    public static final String SHOW_SPARK_GRAPH = "Spark.showSpark";
+
+    /**
+     * Analyzer of the searchable texts, defined by {@link app.config.SearchConfiguration}.
+     */
+    public static final String TEXT_ANALYZER = "sparkText";
+
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
+    /**
+     * Only the ID of the creator is indexed, and it never changes, so updates of the user do not reindex their Sparks.
+     */
     @ManyToOne
+    @IndexedEmbedded(includeEmbeddedObjectId = true, includeDepth = 1)
+    @IndexingDependency(reindexOnUpdate = ReindexOnUpdate.SHALLOW)
     private User creator;
 
     @Column(nullable = false)
+    @FullTextField(analyzer = TEXT_ANALYZER)
     private String title;
 
     @Column(nullable = false, length = 1000)
+    @FullTextField(analyzer = TEXT_ANALYZER)
     private String description;
 
     @Column(nullable = false)
     private BigDecimal goalAmount;
 
+    /**
+     * Written only by {@link app.spark.repostiroty.SparkRepository} update queries, so saving a Spark
+     * that was loaded earlier cannot overwrite the donations added since then.
+     */
+    @Column(updatable = false)
     private BigDecimal currentAmount;
 
     @Column(nullable = false)
@@ -45,17 +83,23 @@ public class Spark {
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
+    @KeywordField
     private SparkStatus status;
 
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
+    @KeywordField
     private SparkCategory category;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "spark")
+    /**
+     * Never read on a hot path, the Show Spark screen pages through the donations with keyset queries instead.
+     */
+    @OneToMany(mappedBy = "spark")
     @OrderBy("createdOn DESC")
     private List<Donation> donations;
 
     @Column(nullable = false)
+    @GenericField(sortable = Sortable.YES)
     private LocalDateTime createdOn;
 
     private LocalDateTime updatedOn;
@@ -0,0 +1,38 @@
+package app.spark.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Amount donated to a Spark that is not yet added to {@link Spark#getCurrentAmount()}.
+ * Donations only insert these rows, so they never wait on the lock of a popular Spark's row.
+ * The rows are added to the current amount of their Spark in batches and then deleted.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_spark_amount_increment_spark", columnList = "spark_id"),
+        @Index(name = "idx_spark_amount_increment_created_on", columnList = "created_on")})
+public class SparkAmountIncrement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "spark_id", nullable = false)
+    private UUID sparkId;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,28 @@
+package app.spark.repostiroty;
+
+import app.spark.model.SparkAmountIncrement;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface SparkAmountIncrementRepository extends JpaRepository<SparkAmountIncrement, UUID> {
+
+    /**
+     * Locks the oldest increments, so that two instances of the application cannot add them to their Spark twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<SparkAmountIncrement> findAllByOrderByCreatedOn(Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM SparkAmountIncrement i WHERE i.sparkId = :sparkId")
+    int deleteAllBySparkId(@Param("sparkId") UUID sparkId);
+}
@@ -0,0 +1,18 @@
+package app.spark.repostiroty;
+
+import app.spark.model.Spark;
+import app.web.dto.SparkCard;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Reads the Spark cards of the listing screens as DTO projections, newest first.
+ * Only the columns shown on a card are selected and the description is truncated by the database,
+ * so neither the Spark entities nor their creators and donations are loaded.
+ */
+public interface SparkCardRepository {
+
+    List<SparkCard> findCards(Specification<Spark> specification, Limit limit);
+}
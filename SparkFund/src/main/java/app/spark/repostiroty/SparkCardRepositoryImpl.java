@@ -0,0 +1,46 @@
+package app.spark.repostiroty;
+
+import app.spark.model.Spark;
+import app.web.dto.SparkCard;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public class SparkCardRepositoryImpl implements SparkCardRepository {
+
+    private final EntityManager entityManager;
+
+    public SparkCardRepositoryImpl(EntityManager _entityManager) {
+        entityManager = _entityManager;
+    }
+
+    @Override
+    public List<SparkCard> findCards(Specification<Spark> specification, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SparkCard> query = cb.createQuery(SparkCard.class);
+        Root<Spark> spark = query.from(Spark.class);
+        query.select(cb.construct(SparkCard.class
+                        , spark.get("id")
+                        , spark.get("title")
+                        , cb.substring(spark.get("description"), 1, SparkCard.DESCRIPTION_LENGTH)
+                        , spark.get("firstPictureUrl")
+                        , spark.get("category")
+                        , spark.get("status")
+                        , spark.get("currentAmount")
+                        , spark.get("goalAmount")
+                        , spark.get("createdOn")))
+                .where(specification.toPredicate(spark, query, cb))
+                .orderBy(cb.desc(spark.get("createdOn")), cb.desc(spark.get("id")));
+        TypedQuery<SparkCard> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+}
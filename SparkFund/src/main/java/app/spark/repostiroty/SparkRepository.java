@@ -1,24 +1,59 @@
 package app.spark.repostiroty;
 
 import app.spark.model.Spark;
-import app.spark.model.SparkStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface SparkRepository extends JpaRepository<Spark, UUID> {
+public interface SparkRepository extends JpaRepository<Spark, UUID>, JpaSpecificationExecutor<Spark>, SparkCardRepository {
 
-    List<Spark> findAllByStatusOrderByCreatedOnDesc(SparkStatus status);
+    @EntityGraph(Spark.SHOW_SPARK_GRAPH)
+    Optional<Spark> findWithCreatorById(UUID id);
 
-    List<Spark> findAllByOrderByCreatedOnDesc();
+    /**
+     * Reads the next chunk of active Sparks that reached their goal, ordered by ID and starting after the given ID.
+     */
+    @Query("SELECT s FROM Spark s JOIN FETCH s.creator " +
+            "WHERE s.currentAmount >= s.goalAmount AND s.status = 'ACTIVE' AND s.id > :afterId ORDER BY s.id")
+    List<Spark> findSparksForCompletionAfter(@Param("afterId") UUID afterId, Limit limit);
 
-    @Query("SELECT s FROM Spark s WHERE s.currentAmount >= s.goalAmount AND s.status = 'ACTIVE'")
-    List<Spark> findAllWhereStatusActiveAndCurrentAmountIsGreaterThanOrEqualToGoalAmount();
+    @Query("SELECT s FROM Spark s JOIN FETCH s.creator " +
+            "WHERE s.currentAmount >= s.goalAmount AND s.status = 'ACTIVE' ORDER BY s.id")
+    List<Spark> findSparksForCompletion(Limit limit);
 
-    List<Spark> findAllByCurrentAmountGreaterThan(BigDecimal _amount);
+    /**
+     * Completes the Spark only if it is still active, so a Spark that was completed or cancelled in the meantime is left as it is.
+     */
+    @Modifying
+    @Query("UPDATE Spark s SET s.status = 'COMPLETED', s.updatedOn = :updatedOn WHERE s.id = :id AND s.status = 'ACTIVE'")
+    int completeActiveSpark(@Param("id") UUID id, @Param("updatedOn") LocalDateTime updatedOn);
+
+    long countByCurrentAmountGreaterThan(BigDecimal _amount);
+
+    /**
+     * Reads the current amount together with the increments that are not yet applied, in one consistent statement.
+     */
+    @Query("SELECT COALESCE(s.currentAmount, 0) + (SELECT COALESCE(SUM(i.amount), 0) FROM SparkAmountIncrement i WHERE i.sparkId = s.id) " +
+            "FROM Spark s WHERE s.id = :id")
+    BigDecimal findCurrentAmountWithIncrementsById(@Param("id") UUID id);
+
+    @Modifying
+    @Query("UPDATE Spark s SET s.currentAmount = COALESCE(s.currentAmount, 0) + :amount, s.updatedOn = :updatedOn WHERE s.id = :id")
+    int increaseCurrentAmount(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("updatedOn") LocalDateTime updatedOn);
+
+    @Modifying
+    @Query("UPDATE Spark s SET s.currentAmount = 0 WHERE s.id = :id")
+    int resetCurrentAmount(@Param("id") UUID id);
 }
@@ -0,0 +1,61 @@
+package app.spark.repostiroty;
+
+import app.donation.model.Donation;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+@UtilityClass
+public class SparkSpecifications {
+
+    public static Specification<Spark> hasStatus(SparkStatus status) {
+        return (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Spark> hasCategory(SparkCategory category) {
+        return (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Spark> hasIdIn(Collection<UUID> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Spark> createdBy(User creator) {
+        return (root, query, cb) -> cb.equal(root.get("creator").get("id"), creator.getId());
+    }
+
+    /**
+     * Matches Sparks that received at least one donation from the given wallet.
+     * Uses a correlated EXISTS sub query, so the Spark rows are not multiplied by their donations.
+     */
+    public static Specification<Spark> donatedFrom(Wallet wallet) {
+        return (root, query, cb) -> {
+            Subquery<UUID> donationQuery = query.subquery(UUID.class);
+            Root<Donation> donation = donationQuery.from(Donation.class);
+            donationQuery.select(donation.get("id"))
+                    .where(cb.equal(donation.get("spark"), root),
+                            cb.equal(donation.get("wallet").get("id"), wallet.getId()));
+            return cb.exists(donationQuery);
+        };
+    }
+
+    /**
+     * Keyset (seek) predicate for Sparks ordered by createdOn DESC, id DESC.
+     * Matches all Sparks that come after the given cursor in that order.
+     */
+    public static Specification<Spark> createdBefore(LocalDateTime createdOn, UUID id) {
+        return (root, query, cb) -> cb.or(
+                cb.lessThan(root.get("createdOn"), createdOn),
+                cb.and(cb.equal(root.get("createdOn"), createdOn), cb.lessThan(root.get("id"), id)));
+    }
+}
@@ -0,0 +1,38 @@
+package app.spark.service;
+
+import app.spark.model.Spark;
+import app.spark.model.SparkStatus;
+import app.web.dto.SparkGoalReachedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Completes a Spark as soon as a donation makes it reach its goal amount.
+ * The event is handled after the donation is committed, so a rolled back donation never completes a Spark.
+ * Sparks that are missed here, for example because the application stopped, are completed by
+ * {@link app.scheduler.CompleteSparkScheduler}.
+ */
+@Slf4j
+@Component
+public class SparkCompletionListener {
+
+    private final SparkService sparkService;
+
+    public SparkCompletionListener(SparkService _sparkService) {
+        sparkService = _sparkService;
+    }
+
+    @Async
+    @TransactionalEventListener
+    public void completeSparkOnGoalReached(SparkGoalReachedEvent event) {
+        Spark spark = sparkService.getSparkById(event.getSparkId());
+        if (spark.getStatus() != SparkStatus.ACTIVE) {
+            return;
+        }
+        if (sparkService.completeSpark(spark)) {
+            log.info("Spark {} reached its goal amount and was completed", spark.getId());
+        }
+    }
+}
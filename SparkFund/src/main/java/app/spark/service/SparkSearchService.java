@@ -0,0 +1,180 @@
+package app.spark.service;
+
+import app.donation.repository.DonationRepository;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.repostiroty.SparkRepository;
+import app.spark.repostiroty.SparkSpecifications;
+import app.user.model.User;
+import app.util.CommonUtils;
+import app.web.dto.SparkCard;
+import app.web.dto.SparkPage;
+import jakarta.persistence.EntityManager;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.search.engine.search.query.SearchQuery;
+import org.hibernate.search.engine.search.query.SearchScroll;
+import org.hibernate.search.engine.search.query.SearchScrollResult;
+import org.hibernate.search.mapper.orm.Search;
+import org.hibernate.search.mapper.orm.session.SearchSession;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Searches the title and description of the Sparks in the full-text index.
+ * The index returns only the IDs of the ranked hits, and their cards are read with the same projection as the listing.
+ * Hibernate Search updates the index when a created or updated Spark is committed, so only the changed
+ * Spark is reindexed. Changes made by update queries are not seen by Hibernate Search and are reindexed
+ * with {@link #reindexSpark(Spark)}.
+ */
+@Slf4j
+@Service
+public class SparkSearchService {
+
+    private static final int SEARCH_PAGE_SIZE = 10;
+    private static final float TITLE_BOOST = 2.0f;
+    private static final int DONATED_HITS_CHUNK_SIZE = 100;
+
+    private final EntityManager entityManager;
+    private final SparkRepository sparkRepository;
+    private final DonationRepository donationRepository;
+
+    public SparkSearchService(EntityManager _entityManager, SparkRepository _sparkRepository, DonationRepository _donationRepository) {
+        entityManager = _entityManager;
+        sparkRepository = _sparkRepository;
+        donationRepository = _donationRepository;
+    }
+
+    /**
+     * Retrieves one page of the Sparks that match the search text, ranked by relevance, with the newest first
+     * among equally relevant Sparks. A match in the title ranks higher than a match in the description.
+     * The status, category, and creator filters are applied by the index as well, without affecting the ranking,
+     * while the Sparks the user donated to are filtered in the database.
+     * An unknown status or category falls back to the default filter.
+     *
+     * @param user The User who is searching.
+     * @param query The search text.
+     * @param status The status of the Sparks to filter by.
+     * @param category The category of the Sparks to filter by.
+     * @param ownership The ownership filter (e.g., "ALL_SPARKS", "MY_SPARKS", "SPARKS_I_DONATE_TO").
+     * @param page The number of the page, starting from 0.
+     * @return A page of matching Spark cards and the number of the next page.
+     */
+    @Transactional
+    public SparkPage searchSparks(User user, String query, String status, String category, String ownership, int page) {
+        SparkStatus sparkStatus = CommonUtils.toEnumOrDefault(SparkStatus.class, status, SparkStatus.ACTIVE);
+        SparkCategory sparkCategory = CommonUtils.toEnumOrDefault(SparkCategory.class, category, null);
+
+        SearchQuery<UUID> searchQuery = Search.session(entityManager).search(Spark.class)
+                .select(f -> f.id(UUID.class))
+                .where(f -> f.bool().with(b -> {
+                    b.must(f.match().field("title").boost(TITLE_BOOST).field("description").matching(query));
+                    b.filter(f.match().field("status").matching(sparkStatus));
+                    if (sparkCategory != null) {
+                        b.filter(f.match().field("category").matching(sparkCategory));
+                    }
+                    if ("MY_SPARKS".equals(ownership)) {
+                        b.filter(f.match().field("creator.id").matching(user.getId()));
+                    }
+                }))
+                .sort(f -> f.score().then().field("createdOn").desc())
+                .toQuery();
+
+        // Fetch one extra hit to find out whether there is a next page without counting all hits
+        int currentPage = Math.max(page, 0);
+        List<UUID> sparkIds = "SPARKS_I_DONATE_TO".equals(ownership)
+                ? fetchDonatedHits(searchQuery, user, currentPage * SEARCH_PAGE_SIZE, SEARCH_PAGE_SIZE + 1)
+                : searchQuery.fetchHits(currentPage * SEARCH_PAGE_SIZE, SEARCH_PAGE_SIZE + 1);
+        List<UUID> pageSparkIds = sparkIds.size() > SEARCH_PAGE_SIZE ? sparkIds.subList(0, SEARCH_PAGE_SIZE) : sparkIds;
+        List<SparkCard> sparks = findCardsInOrder(pageSparkIds);
+        if (sparkIds.size() <= SEARCH_PAGE_SIZE) {
+            return SparkPage.builder().sparks(sparks).build();
+        }
+        return SparkPage.builder()
+                .sparks(sparks)
+                .hasNextPage(true)
+                .nextPage(currentPage + 1)
+                .build();
+    }
+
+    /**
+     * Walks through the ranked hits in chunks and keeps the Sparks the user donated to, which are looked up in the
+     * database with one query per chunk. The donations are not in the index, and passing the IDs of every Spark
+     * the user donated to as an index filter could exceed the number of clauses a query may have.
+     */
+    private List<UUID> fetchDonatedHits(SearchQuery<UUID> searchQuery, User user, int offset, int limit) {
+        if (user.getWallet() == null) {
+            return List.of();
+        }
+        UUID walletId = user.getWallet().getId();
+        List<UUID> donatedHits = new ArrayList<>();
+        try (SearchScroll<UUID> scroll = searchQuery.scroll(DONATED_HITS_CHUNK_SIZE)) {
+            for (SearchScrollResult<UUID> chunk = scroll.next(); chunk.hasHits() && donatedHits.size() < offset + limit; chunk = scroll.next()) {
+                Set<UUID> donatedSparkIds = new HashSet<>(donationRepository.findDonatedSparkIds(walletId, chunk.hits()));
+                chunk.hits().stream()
+                        .filter(donatedSparkIds::contains)
+                        .forEach(donatedHits::add);
+            }
+        }
+        return donatedHits.subList(Math.min(offset, donatedHits.size()), Math.min(offset + limit, donatedHits.size()));
+    }
+
+    /**
+     * Reindexes the Spark when the transaction is committed.
+     */
+    public void reindexSpark(Spark spark) {
+        Search.session(entityManager).indexingPlan().addOrUpdate(spark);
+    }
+
+    /**
+     * Reads the cards of the hits from the database, in the order of their rank.
+     * A Spark that was deleted after it was found is left out.
+     */
+    private List<SparkCard> findCardsInOrder(List<UUID> sparkIds) {
+        if (sparkIds.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, SparkCard> cards = sparkRepository.findCards(SparkSpecifications.hasIdIn(sparkIds), Limit.unlimited()).stream()
+                .collect(Collectors.toMap(SparkCard::getId, Function.identity()));
+        return sparkIds.stream()
+                .map(cards::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Rebuilds the index in the background when it does not hold every Spark, e.g. when the index directory
+     * of this node is new or the index was not updated while the application was stopped.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void indexExistingSparks() {
+        SearchSession searchSession = Search.session(entityManager);
+        long indexedSparks = searchSession.search(Spark.class).where(f -> f.matchAll()).fetchTotalHitCount();
+        long sparks = sparkRepository.count();
+        if (indexedSparks == sparks) {
+            return;
+        }
+        log.info("Search index holds {} of {} Sparks, rebuilding it", indexedSparks, sparks);
+        searchSession.massIndexer(Spark.class).start().whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Rebuilding the search index failed", e);
+            } else {
+                log.info("Rebuilt the search index of {} Sparks", sparks);
+            }
+        });
+    }
+}
@@ -1,38 +1,67 @@
 package app.spark.service;
 
-import app.donation.model.Donation;
-import app.email.service.EmailService;
+import app.donation.repository.DonationRepository;
+import app.donation.service.DonationLeaderboard;
+import app.email.client.dto.EmailRequest;
+import app.email.service.EmailOutboxService;
 import app.exceptions.ResourceNotFoundException;
+import app.metrics.DomainMetrics;
 import app.spark.model.Spark;
+import app.spark.model.SparkAmountIncrement;
+import app.spark.model.SparkCategory;
 import app.spark.model.SparkStatus;
+import app.spark.repostiroty.SparkAmountIncrementRepository;
 import app.spark.repostiroty.SparkRepository;
+import app.spark.repostiroty.SparkSpecifications;
 import app.user.model.User;
 import app.user.model.UserStatus;
 import app.util.CommonUtils;
-import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
 import app.web.dto.ManageSparkRequest;
+import app.web.dto.SparkCard;
+import app.web.dto.SparkPage;
+import app.web.dto.WalletRefund;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
+@Slf4j
 @Service
 public class SparkService {
 
+    private static final int ALL_SPARKS_PAGE_SIZE = 10;
+    private static final int AMOUNT_INCREMENTS_BATCH_SIZE = 1000;
+    private static final int REFUND_EMAILS_BATCH_SIZE = 1000;
+    private static final String SKIPPED = "skipped";
+
     private final SparkRepository sparkRepository;
+    private final SparkAmountIncrementRepository sparkAmountIncrementRepository;
+    private final DonationRepository donationRepository;
     private final WalletService walletService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final DonationLeaderboard donationLeaderboard;
+    private final SparkSearchService sparkSearchService;
+    private final DomainMetrics domainMetrics;
 
-    public SparkService(SparkRepository _sparkRepository, WalletService _walletService, EmailService _emailService) {
+    public SparkService(SparkRepository _sparkRepository, SparkAmountIncrementRepository _sparkAmountIncrementRepository, DonationRepository _donationRepository, WalletService _walletService, EmailOutboxService _emailOutboxService, DonationLeaderboard _donationLeaderboard, SparkSearchService _sparkSearchService, DomainMetrics _domainMetrics) {
         sparkRepository = _sparkRepository;
+        sparkAmountIncrementRepository = _sparkAmountIncrementRepository;
+        donationRepository = _donationRepository;
         walletService = _walletService;
-        emailService = _emailService;
+        emailOutboxService = _emailOutboxService;
+        donationLeaderboard = _donationLeaderboard;
+        sparkSearchService = _sparkSearchService;
+        domainMetrics = _domainMetrics;
     }
 
     @Transactional
@@ -76,58 +105,99 @@ public class SparkService {
     }
 
     /**
-     * Retrieves a list of Sparks that match the provided filtering criteria (status, category, and ownership).
-     * If the screen for All Sparks is loaded for the first time, all active Sparks will be returned.
+     * Retrieves one page of Spark cards that match the provided filtering criteria (status, category, and ownership).
+     * All filters are applied by the database, and the page is located with a keyset cursor on
+     * (createdOn, id), so the cost of a page does not depend on how deep the user has scrolled.
+     * Only the card columns are read, in the order of the (status, category, createdOn, id) indexes.
+     * If the screen for All Sparks is loaded for the first time, the first page of active Sparks will be returned.
      *
      * @param user The User who is viewing the All Sparks screen.
      * @param status The status of the Sparks to filter by.
      * @param category The category of the Sparks to filter by.
      * @param ownership The ownership filter (e.g., "ALL_SPARKS", "MY_SPARKS", "SPARKS_I_DONATE_TO").
-     * @return A list of filtered Sparks based on the provided criteria.
+     * @param afterCreatedOn The creation date of the last Spark from the previous page, or null for the first page.
+     * @param afterId The ID of the last Spark from the previous page, or null for the first page.
+     * @return A page of filtered Spark cards and the cursor for the next page.
      */
-    public List<Spark> getAllSparks(User user, String status, String category, String ownership) {
-        if (CommonUtils.areAllNull(status, category, ownership)) {
-            return getAllActiveSparks();
+    public SparkPage getAllSparks(User user, String status, String category, String ownership, LocalDateTime afterCreatedOn, UUID afterId) {
+        SparkStatus sparkStatus = CommonUtils.toEnumOrDefault(SparkStatus.class, status, SparkStatus.ACTIVE);
+        SparkCategory sparkCategory = CommonUtils.toEnumOrDefault(SparkCategory.class, category, null);
+        Specification<Spark> specification = SparkSpecifications.hasStatus(sparkStatus);
+        if (sparkCategory != null) {
+            specification = specification.and(SparkSpecifications.hasCategory(sparkCategory));
         }
-        List<Spark> filteredSparksByStatus = new ArrayList<>(sparkRepository.findAllByOrderByCreatedOnDesc().stream()
-                .filter(spark -> spark.getStatus().name().equals(status))
-                .toList());
-        if (!"ALL".equals(category)) {
-            filteredSparksByStatus.removeIf(spark -> !spark.getCategory().name().equals(category));
+        if ("MY_SPARKS".equals(ownership)) {
+            specification = specification.and(SparkSpecifications.createdBy(user));
+        } else if ("SPARKS_I_DONATE_TO".equals(ownership)) {
+            if (user.getWallet() == null) {
+                return SparkPage.builder().sparks(List.of()).build();
+            }
+            specification = specification.and(SparkSpecifications.donatedFrom(user.getWallet()));
         }
-        if (!"ALL_SPARKS".equals(ownership)) {
-            filterSparksByOwner(user, filteredSparksByStatus, ownership);
+        if (afterCreatedOn != null && afterId != null) {
+            specification = specification.and(SparkSpecifications.createdBefore(afterCreatedOn, afterId));
         }
-        return filteredSparksByStatus;
+
+        // Fetch one extra row to find out whether there is a next page without running a count query
+        List<SparkCard> sparks = sparkRepository.findCards(specification, Limit.of(ALL_SPARKS_PAGE_SIZE + 1));
+        if (sparks.size() <= ALL_SPARKS_PAGE_SIZE) {
+            return SparkPage.builder().sparks(sparks).build();
+        }
+        List<SparkCard> pageSparks = sparks.subList(0, ALL_SPARKS_PAGE_SIZE);
+        SparkCard lastSpark = pageSparks.get(pageSparks.size() - 1);
+        return SparkPage.builder()
+                .sparks(pageSparks)
+                .hasNextPage(true)
+                .nextCreatedOn(lastSpark.getCreatedOn())
+                .nextId(lastSpark.getId())
+                .build();
     }
 
     /**
-     * Filters the provided list of Sparks based on the ownership criteria.
-     * The Sparks are filtered depending on whether the user is the creator of the Spark
-     * or if the user has made donations to the Spark's associated wallet.
+     * Records the donated amount as a pending increment of the Spark's current amount.
+     * Only a new row is inserted, so parallel donations to the same Spark do not wait for each other.
+     * The increments are added to the Spark itself in batches by {@link #applyPendingAmountIncrements()}.
      *
-     * @param user The User whose ownership or donations will be used for filtering.
-     * @param filteredSparks The list of Sparks to filter based on ownership.
-     * @param ownership The ownership filter criteria ("MY_SPARKS" or "SPARKS_I_DONATE_TO").
+     * @param spark The Spark that received the donation.
+     * @param amount The donated amount.
      */
-    public void filterSparksByOwner(User user, List<Spark> filteredSparks, String ownership) {
-        if ("MY_SPARKS".equals(ownership)) {
-            filteredSparks.removeIf(spark -> !spark.getCreator().equals(user));
-        } else if ("SPARKS_I_DONATE_TO".equals(ownership)) {
-            filteredSparks.removeIf(spark ->
-                    spark.getDonations().stream()
-                            .noneMatch(donation -> donation.getWallet() == null
-                                    || donation.getWallet().equals(user.getWallet()))
-            );
-        }
-
-    }
-
     public void increaseCurrentAmount(Spark spark, BigDecimal amount) {
+        sparkAmountIncrementRepository.save(SparkAmountIncrement.builder()
+                .sparkId(spark.getId())
+                .amount(amount)
+                .createdOn(LocalDateTime.now())
+                .build());
         BigDecimal currentAmount = spark.getCurrentAmount() != null ? spark.getCurrentAmount() : BigDecimal.ZERO;
         spark.setCurrentAmount(currentAmount.add(amount));
-        spark.setUpdatedOn(LocalDateTime.now());
-        sparkRepository.save(spark);
+    }
+
+    /**
+     * Returns the current amount of the Spark, including the increments that are not yet applied to it.
+     */
+    public BigDecimal getCurrentAmount(Spark spark) {
+        return sparkRepository.findCurrentAmountWithIncrementsById(spark.getId());
+    }
+
+    /**
+     * Adds one batch of the oldest pending increments to the current amount of their Sparks,
+     * with one update per Spark, and deletes the applied increments.
+     *
+     * @return The number of applied increments.
+     */
+    @Transactional
+    public int applyPendingAmountIncrements() {
+        List<SparkAmountIncrement> increments = sparkAmountIncrementRepository.findAllByOrderByCreatedOn(Limit.of(AMOUNT_INCREMENTS_BATCH_SIZE));
+        if (increments.isEmpty()) {
+            return 0;
+        }
+        Map<UUID, BigDecimal> amountPerSpark = new HashMap<>();
+        for (SparkAmountIncrement increment : increments) {
+            amountPerSpark.merge(increment.getSparkId(), increment.getAmount(), BigDecimal::add);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        amountPerSpark.forEach((sparkId, amount) -> sparkRepository.increaseCurrentAmount(sparkId, amount, now));
+        sparkAmountIncrementRepository.deleteAllInBatch(increments);
+        return increments.size();
     }
 
     public Spark getSparkById(UUID id) {
@@ -135,20 +205,45 @@ public class SparkService {
                 .orElseThrow(() -> new ResourceNotFoundException("No spark found with ID: " + id));
     }
 
+    /**
+     * Retrieves the Spark together with its creator, as shown on the Show Spark screen.
+     * The donations are not loaded, the screen reads them through {@link app.donation.service.DonationService#getDonationFeed}.
+     */
+    public Spark getSparkWithCreatorById(UUID id) {
+        Spark spark = sparkRepository.findWithCreatorById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("No spark found with ID: " + id));
+        // Show the donations that are not yet applied as well, the column is not updatable so this is never written back
+        spark.setCurrentAmount(getCurrentAmount(spark));
+        return spark;
+    }
+
     /**
      * Cancels the specified Spark by returning all donations to the donors' wallets,
      * nullifying the current amount of the Spark, and setting its status to CANCELLED.
+     * The donations are refunded per wallet with set-based statements, and one refund email per donor is saved
+     * to the outbox in batches, all in one transaction, so a cancellation is never left half done.
      *
      * @param spark The Spark to be cancelled.
      */
+    @Transactional
     public void cancelSparkAndReturnDonations(Spark spark) {
-        if (!CommonUtils.isZeroAmount(spark.getCurrentAmount()) && !spark.getDonations().isEmpty()) {
-            List<Donation> donations = spark.getDonations();
-            for (Donation donation : donations) {
-                Wallet donatorWallet = donation.getWallet();
-                walletService.addFundsWithoutUserValidation(donatorWallet, donation.getAmount());
-                sendEmailForSparkCancellation(donatorWallet.getOwner().getEmail(), spark.getTitle(), donation.getAmount());
-            }
+        domainMetrics.record("sparkfund.spark.cancel", DomainMetrics.category(spark.getCategory()), () -> cancelSpark(spark));
+    }
+
+    private void cancelSpark(Spark spark) {
+        List<WalletRefund> refunds = CommonUtils.isZeroAmount(getCurrentAmount(spark))
+                ? List.of()
+                : donationRepository.findRefundsPerWalletBySparkId(spark.getId());
+        if (!refunds.isEmpty()) {
+            int creditedWallets = walletService.refundDonationsOfSpark(spark.getId());
+            BigDecimal refundedAmount = refunds.stream()
+                    .map(WalletRefund::getAmount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            log.info("Refunded {} euro of Spark {} to {} wallets", refundedAmount, spark.getId(), creditedWallets);
+            donationLeaderboard.recordRefunds(spark.getId(), refundedAmount);
+            sendEmailsForSparkCancellation(spark, refunds);
+            sparkAmountIncrementRepository.deleteAllBySparkId(spark.getId());
+            sparkRepository.resetCurrentAmount(spark.getId());
             spark.setCurrentAmount(BigDecimal.ZERO);
         }
         spark.setStatus(SparkStatus.CANCELLED);
@@ -156,37 +251,71 @@ public class SparkService {
         sparkRepository.save(spark);
     }
 
-    public List<Spark> findSparksForCompletion() {
-        return sparkRepository.findAllWhereStatusActiveAndCurrentAmountIsGreaterThanOrEqualToGoalAmount();
+    /**
+     * Retrieves the next chunk of active Sparks that reached their goal amount, ordered by ID.
+     *
+     * @param afterId The ID of the last Spark from the previous chunk, or null for the first chunk.
+     * @param chunkSize The maximum number of Sparks to return.
+     * @return The Sparks to be completed, with their creators.
+     */
+    public List<Spark> findSparksForCompletion(UUID afterId, int chunkSize) {
+        if (afterId == null) {
+            return sparkRepository.findSparksForCompletion(Limit.of(chunkSize));
+        }
+        return sparkRepository.findSparksForCompletionAfter(afterId, Limit.of(chunkSize));
     }
 
-    public void completeSpark(Spark spark) {
+    /**
+     * Completes the Spark and saves the completion email to the outbox, in one transaction.
+     * A Spark that is no longer active is skipped, so completing the same Spark twice sends only one email.
+     *
+     * @return true if the Spark was completed by this call.
+     */
+    @Transactional
+    public boolean completeSpark(Spark spark) {
+        return domainMetrics.record("sparkfund.spark.complete", DomainMetrics.category(spark.getCategory())
+                , () -> completeActiveSpark(spark), completed -> completed ? DomainMetrics.SUCCESS : SKIPPED);
+    }
+
+    private boolean completeActiveSpark(Spark spark) {
+        LocalDateTime now = LocalDateTime.now();
+        if (sparkRepository.completeActiveSpark(spark.getId(), now) == 0) {
+            return false;
+        }
         spark.setStatus(SparkStatus.COMPLETED);
-        spark.setUpdatedOn(LocalDateTime.now());
-        sparkRepository.save(spark);
+        spark.setUpdatedOn(now);
+        sparkSearchService.reindexSpark(spark);
         sendEmailForSparkCompletion(spark);
+        return true;
     }
 
     private void sendEmailForSparkCompletion(Spark spark) {
         String emailSubject = "Your Spark is completed";
         String emailBody = String.format("Your Spark [%s] is completed after the goal amount of %s was raised!", spark.getTitle(), spark.getGoalAmount().toString());
-        emailService.sendEmail(spark.getCreator().getEmail(), emailSubject, emailBody);
+        emailOutboxService.enqueueEmail(spark.getCreator().getEmail(), emailSubject, emailBody);
     }
 
-    private void sendEmailForSparkCancellation(String donatorEmail, String sparkTitle, BigDecimal donationAmount) {
+    private void sendEmailsForSparkCancellation(Spark spark, List<WalletRefund> refunds) {
         String emailSubject = "Refund from SparkFund";
-        String emailBody = String.format("Spark [%s] was cancelled and your donation for %s euro is refunded", sparkTitle, donationAmount.toString());
-        emailService.sendEmail(donatorEmail, emailSubject, emailBody);
-    }
-
-    public List<Spark> findAllSparksWithDonations() {
-        return sparkRepository.findAllByCurrentAmountGreaterThan(BigDecimal.ZERO);
+        for (int from = 0; from < refunds.size(); from += REFUND_EMAILS_BATCH_SIZE) {
+            List<EmailRequest> emailRequests = refunds.subList(from, Math.min(from + REFUND_EMAILS_BATCH_SIZE, refunds.size())).stream()
+                    .map(refund -> EmailRequest.builder()
+                            .userEmail(refund.getOwnerEmail())
+                            .subject(emailSubject)
+                            .body(String.format("Spark [%s] was cancelled and your donation for %s euro is refunded", spark.getTitle(), refund.getAmount().toString()))
+                            .build())
+                    .toList();
+            emailOutboxService.enqueueEmails(emailRequests);
+            if (refunds.size() > REFUND_EMAILS_BATCH_SIZE) {
+                log.info("Saved {} of {} refund emails of Spark {}", from + emailRequests.size(), refunds.size(), spark.getId());
+            }
+        }
     }
 
     /**
-     * Retrieves all Sparks in status ACTIVE ordered by date of creation in descending order.
+     * Retrieves the cards of the latest Sparks in status ACTIVE ordered by date of creation in descending order.
      */
-    public List<Spark> getAllActiveSparks() {
-        return sparkRepository.findAllByStatusOrderByCreatedOnDesc(SparkStatus.ACTIVE);
+    public List<SparkCard> getLatestActiveSparkCards(int count) {
+        return sparkRepository.findCards(SparkSpecifications.hasStatus(SparkStatus.ACTIVE), Limit.of(count));
     }
 }
@@ -5,6 +5,8 @@ import app.spark.model.Spark;
 import app.wallet.model.Wallet;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,8 +18,25 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedEntityGraph(name = User.WALLET_GRAPH, attributeNodes = @NamedAttributeNode("wallet"))
+@NamedEntityGraph(name = User.USER_SIGNALS_GRAPH, attributeNodes = {
+        @NamedAttributeNode("wallet"),
+        @NamedAttributeNode("userSignals")})
 public class User {
 
+    /**
+     * Fetch plan for the Users screen, which lists the users with their wallet balance.
+     */
+    public static final String WALLET_GRAPH = "User.wallet";
+
+    /**
+     * Fetch plan for the My Signals screen.
+     */
+    public static final String USER_SIGNALS_GRAPH = "User.userSignals";
+
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -45,14 +64,14 @@ public class User {
     @Enumerated(EnumType.STRING)
     private UserStatus userStatus;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "creator")
+    @OneToMany(mappedBy = "creator")
     @OrderBy("createdOn DESC")
     private List<Spark> createdSparks;
 
-    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "owner")
+    @OneToOne(cascade = CascadeType.ALL, fetch = FetchType.LAZY, mappedBy = "owner")
     private Wallet wallet;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "creator")
+    @OneToMany(mappedBy = "creator")
     @OrderBy("createdOn DESC")
     private List<UserSignal> userSignals;
 
@@ -1,6 +1,7 @@
 package app.user.repository;
 
 import app.user.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -19,4 +20,10 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     List<User> findByEmailAndIdNot(String email, UUID id);
 
+    @EntityGraph(User.USER_SIGNALS_GRAPH)
+    Optional<User> findWithUserSignalsById(UUID id);
+
+    @EntityGraph(User.WALLET_GRAPH)
+    List<User> findAllBy();
+
 }
@@ -0,0 +1,73 @@
+package app.user.service;
+
+import app.user.model.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Caches the users on two levels.
+ * The users loaded during a web request are kept as attributes of the request, so a page that needs the authenticated
+ * user several times loads it only once. Users are also kept in the Hibernate second-level cache
+ * (see {@link app.config.CacheConfiguration}), and both levels are invalidated here when a user is changed.
+ */
+@Component
+public class UserCache {
+
+    private static final String ATTRIBUTE_PREFIX = UserCache.class.getName() + ".";
+
+    private final Cache secondLevelCache;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public UserCache(EntityManagerFactory _entityManagerFactory, MeterRegistry _meterRegistry) {
+        secondLevelCache = _entityManagerFactory.getCache();
+        hitCounter = Counter.builder("sparkfund.user.request.cache")
+                .description("Lookups of users that were already loaded during the same request")
+                .tag("result", "hit")
+                .register(_meterRegistry);
+        missCounter = Counter.builder("sparkfund.user.request.cache")
+                .description("Lookups of users that were already loaded during the same request")
+                .tag("result", "miss")
+                .register(_meterRegistry);
+    }
+
+    /**
+     * Returns the user already loaded during the current request, or loads and remembers it.
+     * Outside of a web request the user is always loaded.
+     */
+    public User getUser(UUID userId, Supplier<User> loader) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return loader.get();
+        }
+        String attributeName = ATTRIBUTE_PREFIX + userId;
+        User user = (User) requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+        if (user != null) {
+            hitCounter.increment();
+            return user;
+        }
+        missCounter.increment();
+        user = loader.get();
+        requestAttributes.setAttribute(attributeName, user, RequestAttributes.SCOPE_REQUEST);
+        return user;
+    }
+
+    /**
+     * Removes the user from both cache levels, after the user was changed.
+     */
+    public void evict(User user) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.removeAttribute(ATTRIBUTE_PREFIX + user.getId(), RequestAttributes.SCOPE_REQUEST);
+        }
+        secondLevelCache.evict(User.class, user.getId());
+    }
+}
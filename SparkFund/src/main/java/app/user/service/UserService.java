@@ -8,12 +8,15 @@ import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.model.UserStatus;
 import app.user.repository.UserRepository;
+import app.wallet.model.WalletTransaction;
 import app.wallet.service.WalletService;
 import app.web.dto.EditProfileRequest;
 import app.web.dto.RegisterRequest;
 import app.web.dto.WalletDonationInfo;
+import app.web.dto.WalletDonationPage;
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -32,11 +35,13 @@ public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final WalletService walletService;
+    private final UserCache userCache;
 
-    public UserService(UserRepository _userRepository, PasswordEncoder _passwordEncoder, WalletService _walletService) {
+    public UserService(UserRepository _userRepository, PasswordEncoder _passwordEncoder, WalletService _walletService, UserCache _userCache) {
         userRepository = _userRepository;
         passwordEncoder = _passwordEncoder;
         walletService = _walletService;
+        userCache = _userCache;
     }
 
     @Transactional
@@ -92,6 +97,7 @@ public class UserService implements UserDetailsService {
         user.setEmail(editProfileRequest.getEmail());
         user.setUpdatedOn(LocalDateTime.now());
         userRepository.save(user);
+        userCache.evict(user);
     }
 
     public void switchStatus(UUID _id) {
@@ -102,6 +108,7 @@ public class UserService implements UserDetailsService {
             user.setUserStatus(UserStatus.ACTIVE);
         }
         userRepository.save(user);
+        userCache.evict(user);
     }
 
     public void switchRole(UUID _id) {
@@ -112,12 +119,21 @@ public class UserService implements UserDetailsService {
             user.setUserRole(UserRole.USER);
         }
         userRepository.save(user);
+        userCache.evict(user);
     }
 
     public WalletDonationInfo getWalletDonationInfo(User user) {
         return walletService.getWalletDonationInfo(user.getWallet());
     }
 
+    public WalletDonationPage getWalletDonations(User user, LocalDateTime afterCreatedOn, UUID afterId) {
+        return walletService.getDonationHistory(user.getWallet(), afterCreatedOn, afterId);
+    }
+
+    public Slice<WalletTransaction> getWalletStatement(User user, int page) {
+        return walletService.getStatement(user.getWallet(), page);
+    }
+
     public boolean isUsernameTaken(String username, UUID currentUserId) {
         List<User> result = userRepository.findByUsernameAndIdNot(username, currentUserId);
         return !result.isEmpty();
@@ -133,11 +149,27 @@ public class UserService implements UserDetailsService {
                 .orElseThrow(() -> new ResourceNotFoundException("No user with id [%s] found".formatted(_id)));
     }
 
+    /**
+     * Retrieves the authenticated user together with the wallet, which is everything the common screens need.
+     * The user is loaded only once per request, however many times it is requested. It is loaded by ID,
+     * so it is served by the second-level cache, and only the wallet with its current balance is read from the database.
+     */
     public User getAuthenticatedUser(AuthenticationDetails authenticationDetails) {
-        return getUserById(UUID.fromString(authenticationDetails.getUserId().toString()));
+        UUID userId = authenticationDetails.getUserId();
+        return userCache.getUser(userId, () -> userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("No user with id [%s] found".formatted(userId))));
+    }
+
+    /**
+     * Retrieves the authenticated user together with the signals they sent, as shown on the My Signals screen.
+     */
+    public User getAuthenticatedUserWithSignals(AuthenticationDetails authenticationDetails) {
+        UUID userId = authenticationDetails.getUserId();
+        return userRepository.findWithUserSignalsById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("No user with id [%s] found".formatted(userId)));
     }
 
     public List<User> getAllUsers() {
-        return userRepository.findAll();
+        return userRepository.findAllBy();
     }
 }
@@ -13,6 +13,7 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_user_signal_creator_created_on", columnList = "creator_id, created_on"))
 public class UserSignal {
 
     @Id
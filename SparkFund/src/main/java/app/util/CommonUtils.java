@@ -24,4 +24,18 @@ public class CommonUtils {
     public static boolean isNotEmpty(String text) {
         return text != null && !text.isEmpty();
     }
+
+    /**
+     * Returns the constant of the enum with the given name, or the default value if the name is empty or unknown,
+     * so a misspelled request parameter falls back to the default instead of failing the request.
+     */
+    public static <E extends Enum<E>> E toEnumOrDefault(Class<E> enumType, String name, E defaultValue) {
+        if (isEmpty(name)) {
+            return defaultValue;
+        }
+        return Arrays.stream(enumType.getEnumConstants())
+                .filter(constant -> constant.name().equals(name))
+                .findFirst()
+                .orElse(defaultValue);
+    }
 }
@@ -34,7 +34,7 @@ public class Wallet {
     @Column(nullable = false)
     private Currency currency;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "wallet")
+    @OneToMany(mappedBy = "wallet")
     @OrderBy("createdOn DESC")
     private List<Donation> donations = new ArrayList<>();
 
@@ -0,0 +1,61 @@
+package app.wallet.model;
+
+import app.money.Money;
+import app.money.MoneyConverter;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Entry of the append-only wallet ledger. Every top-up, donation and refund inserts one entry, and entries are never
+ * updated or deleted. Each entry keeps the balance of the wallet right after it, so the balance at any point of the
+ * statement is read from a single entry instead of being summed up from the history.
+ * The ID grows with every insert, so new entries are appended to the end of the index of their wallet.
+ */
+@Builder
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_wallet_transaction_wallet", columnList = "wallet_id, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_wallet_transaction_idempotency_key", columnNames = {"wallet_id", "idempotency_key"}))
+public class WalletTransaction {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "wallet_id", nullable = false)
+    private UUID walletId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WalletTransactionType type;
+
+    /**
+     * Positive for the funds added to the wallet, negative for the funds taken from it. Stored in cents.
+     */
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money amount;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false)
+    private Money balance;
+
+    /**
+     * The Spark that was donated to or that refunded the donations.
+     */
+    private UUID sparkId;
+
+    /**
+     * Key sent by the client with a top-up; unique per wallet, so a replayed top-up is not added twice.
+     */
+    private UUID idempotencyKey;
+
+    @Column(nullable = false)
+    private LocalDateTime createdOn;
+}
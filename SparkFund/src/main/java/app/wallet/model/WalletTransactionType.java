@@ -0,0 +1,5 @@
+package app.wallet.model;
+
+public enum WalletTransactionType {
+    TOP_UP, DONATION, REFUND
+}
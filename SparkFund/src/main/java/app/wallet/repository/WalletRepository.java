@@ -2,10 +2,42 @@ package app.wallet.repository;
 
 import app.wallet.model.Wallet;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, UUID> {
+
+    /**
+     * Subtracts the amount from the wallet balance in a single statement, but only if the balance covers it.
+     *
+     * @return 1 if the wallet was debited, or 0 if the balance is insufficient.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.amount = w.amount - :amount, w.updatedOn = :updatedOn WHERE w.id = :id AND w.amount >= :amount")
+    int debitAmount(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("updatedOn") LocalDateTime updatedOn);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.amount = w.amount + :amount, w.updatedOn = :updatedOn WHERE w.id = :id")
+    int creditAmount(@Param("id") UUID id, @Param("amount") BigDecimal amount, @Param("updatedOn") LocalDateTime updatedOn);
+
+    /**
+     * Returns the donations made to the Spark to the wallets of their donors, with one statement for all wallets.
+     *
+     * @return The number of credited wallets.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Wallet w SET w.amount = w.amount + " +
+            "(SELECT SUM(d.amount) FROM Donation d WHERE d.wallet.id = w.id AND d.spark.id = :sparkId), w.updatedOn = :updatedOn " +
+            "WHERE w.id IN (SELECT d.wallet.id FROM Donation d WHERE d.spark.id = :sparkId)")
+    int creditDonationsOfSpark(@Param("sparkId") UUID sparkId, @Param("updatedOn") LocalDateTime updatedOn);
+
+    @Query("SELECT w.amount FROM Wallet w WHERE w.id = :id")
+    BigDecimal findAmountById(@Param("id") UUID id);
 }
@@ -0,0 +1,36 @@
+package app.wallet.repository;
+
+import app.wallet.model.WalletTransaction;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface WalletTransactionRepository extends JpaRepository<WalletTransaction, Long> {
+
+    /**
+     * Reads one page of the statement, newest entries first. A slice does not count all entries of the wallet,
+     * so the cost of a page does not grow with the history.
+     */
+    Slice<WalletTransaction> findByWalletIdOrderByIdDesc(UUID walletId, Pageable pageable);
+
+    boolean existsByWalletIdAndIdempotencyKey(UUID walletId, UUID idempotencyKey);
+
+    /**
+     * Records the refunds of the Spark with one entry per donor wallet, with one statement for all wallets.
+     * It has to run after the wallets are credited, so the entries keep the balances that include the refunds.
+     * The amounts are converted to the cents of the ledger by the database.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("INSERT INTO WalletTransaction (walletId, type, amount, balance, sparkId, createdOn) " +
+            "SELECT w.id, app.wallet.model.WalletTransactionType.REFUND, CAST(SUM(d.amount) * 100 AS Long), CAST(w.amount * 100 AS Long), :sparkId, :createdOn " +
+            "FROM Donation d JOIN d.wallet w WHERE d.spark.id = :sparkId GROUP BY w.id, w.amount")
+    int insertRefundsOfSpark(@Param("sparkId") UUID sparkId, @Param("createdOn") LocalDateTime createdOn);
+}
@@ -1,32 +1,51 @@
 package app.wallet.service;
 
-import app.donation.model.Donation;
+import app.donation.repository.DonationRepository;
 import app.exceptions.DomainException;
 import app.exceptions.ResourceNotFoundException;
+import app.metrics.DomainMetrics;
+import app.money.Money;
 import app.user.model.User;
 import app.user.model.UserStatus;
 import app.wallet.model.Wallet;
+import app.wallet.model.WalletTransaction;
+import app.wallet.model.WalletTransactionType;
 import app.wallet.repository.WalletRepository;
+import app.wallet.repository.WalletTransactionRepository;
 import app.web.dto.WalletDonationInfo;
+import app.web.dto.WalletDonationItem;
+import app.web.dto.WalletDonationPage;
+import app.web.dto.WalletDonationSummary;
+import io.micrometer.core.instrument.Tags;
 import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
 import java.time.LocalDateTime;
 import java.util.Currency;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Service
 public class WalletService {
 
+    public static final int STATEMENT_PAGE_SIZE = 10;
+    private static final int DONATION_HISTORY_PAGE_SIZE = 10;
+
     private final WalletRepository walletRepository;
+    private final WalletTransactionRepository walletTransactionRepository;
+    private final DonationRepository donationRepository;
+    private final DomainMetrics domainMetrics;
 
-    public WalletService(WalletRepository _walletRepository) {
+    public WalletService(WalletRepository _walletRepository, WalletTransactionRepository _walletTransactionRepository, DonationRepository _donationRepository, DomainMetrics _domainMetrics) {
         walletRepository = _walletRepository;
+        walletTransactionRepository = _walletTransactionRepository;
+        donationRepository = _donationRepository;
+        domainMetrics = _domainMetrics;
     }
 
     @Transactional
@@ -40,91 +59,187 @@ public class WalletService {
         walletRepository.save(wallet);
     }
 
+    /**
+     * Returns the total amount donated from the wallet and the number of unique Sparks it donated to.
+     * Both are computed by one aggregate query, so the wallet's donations are not loaded.
+     * If there are no donations, the total is zero and the count is 0.
+     *
+     * @param wallet The wallet whose donations are summarized.
+     * @return the total donation amount and the number of supported Sparks.
+     */
     public WalletDonationInfo getWalletDonationInfo(Wallet wallet) {
+        WalletDonationSummary summary = donationRepository.findSummaryByWalletId(wallet.getId());
+        if (summary.getTotalAmount() == null) {
+            return WalletDonationInfo.builder()
+                    .totalDonations(Money.ZERO)
+                    .totalSparks(0)
+                    .build();
+        }
         return WalletDonationInfo.builder()
-                .totalDonations(getTotalDonations(wallet))
-                .totalSparks(getTotalSparkCount(wallet))
+                .totalDonations(Money.euros(summary.getTotalAmount()))
+                .totalSparks(Math.toIntExact(summary.getSparkCount()))
                 .build();
     }
 
     /**
-     * Calculates the total amount of donations associated with the given wallet.
-     * If there are no donations, returns "0.00".
+     * Subtracts the specified amount from the user's wallet balance and records the donation in the ledger.
+     * The balance is checked and reduced by a single conditional update, so concurrent donations
+     * from the same wallet can neither lose an update nor overdraw the wallet.
+     *
+     * @param user The user whose wallet balance is to be reduced.
+     * @param amount The amount to be withdrawn from the wallet.
+     * @param sparkId The ID of the Spark the amount is donated to.
+     * @throws DomainException if the wallet balance is insufficient or the amount has a fraction of a cent.
+     */
+    @Transactional
+    public void reduceAmount(User user, BigDecimal amount, UUID sparkId) {
+        requireWholeCents(amount);
+        domainMetrics.record("sparkfund.wallet.debit", Tags.empty(), () -> {
+            Wallet wallet = user.getWallet();
+            LocalDateTime now = LocalDateTime.now();
+            if (walletRepository.debitAmount(wallet.getId(), amount, now) == 0) {
+                throw new DomainException("There is not enough balance in your Wallet for this donation");
+            }
+            refreshAmount(wallet, now);
+            recordTransaction(wallet, WalletTransactionType.DONATION, amount.negate(), sparkId, null);
+        });
+    }
+
+    @Transactional
+    public void addFunds(Wallet wallet, BigDecimal amount, UserStatus userStatus) {
+        addFunds(wallet, amount, userStatus, null);
+    }
+
+    /**
+     * Adds the funds to the wallet and records the top-up. A top-up whose idempotency key was already used
+     * for this wallet is a replay of a saved top-up, so the funds are not added again.
      *
-     * @param wallet The wallet whose total donation amount is to be calculated.
-     * @return the total donation amount formatted as a string with two decimal places.
+     * @param idempotencyKey The key sent by the client with the top-up, or null if it sent none.
      */
-    private String getTotalDonations(Wallet wallet) {
-        List<Donation> walletDonations = wallet.getDonations();
-        if (walletDonations.isEmpty()) {
-            return "0.00";
+    @Transactional
+    public void addFunds(Wallet wallet, BigDecimal amount, UserStatus userStatus, UUID idempotencyKey) {
+        if (userStatus != UserStatus.ACTIVE) {
+            throw new AccessDeniedException("Action denied: Funds cannot be added to the wallet of an inactive user.");
+        }
+        if (isTopUpSaved(wallet, idempotencyKey)) {
+            return;
         }
-        BigDecimal result = walletDonations.stream()
-                .map(Donation::getAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-        DecimalFormat df = new DecimalFormat("#.00");
-        return df.format(result);
+        topUp(wallet, amount, idempotencyKey);
     }
 
     /**
-     * Determines the total number of unique Sparks that have received donations
-     * from the given wallet. If there are no donations, returns 0.
+     * Checks whether the wallet was already topped up with the given idempotency key.
+     */
+    public boolean isTopUpSaved(Wallet wallet, UUID idempotencyKey) {
+        return idempotencyKey != null
+                && walletTransactionRepository.existsByWalletIdAndIdempotencyKey(wallet.getId(), idempotencyKey);
+    }
+
+    @Transactional
+    public void addFundsWithoutUserValidation(Wallet wallet, BigDecimal amount) {
+        topUp(wallet, amount, null);
+    }
+
+    private void topUp(Wallet wallet, BigDecimal amount, UUID idempotencyKey) {
+        requireWholeCents(amount);
+        LocalDateTime now = LocalDateTime.now();
+        if (walletRepository.creditAmount(wallet.getId(), amount, now) == 0) {
+            throw new ResourceNotFoundException("No wallet with ID [%s] found".formatted(wallet.getId()));
+        }
+        refreshAmount(wallet, now);
+        recordTransaction(wallet, WalletTransactionType.TOP_UP, amount, null, idempotencyKey);
+    }
+
+    /**
+     * Returns all donations made to the Spark to the wallets of their donors.
+     * All wallets are credited and all refunds are recorded in the ledger by two statements,
+     * however many donations the Spark received.
      *
-     * @param wallet The wallet whose donated Sparks are to be counted.
-     * @return the number of unique Sparks supported by donations from this wallet.
+     * @param sparkId The ID of the cancelled Spark.
+     * @return The number of credited wallets.
      */
-    private int getTotalSparkCount(Wallet wallet) {
-        List<Donation> walletDonations = wallet.getDonations();
-        if (walletDonations.isEmpty()) {
-            return 0;
+    @Transactional
+    public int refundDonationsOfSpark(UUID sparkId) {
+        LocalDateTime now = LocalDateTime.now();
+        int creditedWallets = walletRepository.creditDonationsOfSpark(sparkId, now);
+        if (creditedWallets > 0) {
+            walletTransactionRepository.insertRefundsOfSpark(sparkId, now);
         }
-        return walletDonations.stream()
-                .map(Donation::getSpark)
-                .collect(Collectors.toSet())
-                .size();
+        return creditedWallets;
     }
 
     /**
-     * Subtracts the specified amount from the user's wallet balance.
-     * If the wallet has sufficient funds, the amount is subtracted,
-     * and the wallet balance is updated.
+     * Retrieves a page of the donations made from the wallet, newest first, with the title of the Spark each went to.
+     * The page is read with a keyset condition on (createdOn, id), so its cost does not depend on
+     * how many donations the wallet made or how many pages were already shown.
      *
-     * @param user The user whose wallet balance is to be reduced.
-     * @param amount The amount to be withdrawn from the wallet.
-     * @throws DomainException if the wallet balance is insufficient.
+     * @param wallet The wallet whose donations are shown.
+     * @param afterCreatedOn The creation date of the last donation from the previous page, or null for the first page.
+     * @param afterId The ID of the last donation from the previous page, or null for the first page.
+     * @return A page of donations and the cursor for the next page.
      */
-    public void reduceAmount(User user, BigDecimal amount) {
-        Wallet wallet = user.getWallet();
-        BigDecimal walletBalance = wallet.getAmount().subtract(amount);
-        if (walletBalance.compareTo(BigDecimal.ZERO) >= 0) {
-            wallet.setAmount(walletBalance);
-            walletRepository.save(wallet);
-        } else {
-            throw new DomainException("There is not enough balance in your Wallet for this donation");
+    public WalletDonationPage getDonationHistory(Wallet wallet, LocalDateTime afterCreatedOn, UUID afterId) {
+        // Fetch one extra row to find out whether there is a next page without running a count query
+        Limit limit = Limit.of(DONATION_HISTORY_PAGE_SIZE + 1);
+        List<WalletDonationItem> donations = afterCreatedOn != null && afterId != null
+                ? donationRepository.findHistoryByWalletIdAfter(wallet.getId(), afterCreatedOn, afterId, limit)
+                : donationRepository.findHistoryByWalletId(wallet.getId(), limit);
+        if (donations.size() <= DONATION_HISTORY_PAGE_SIZE) {
+            return WalletDonationPage.builder().donations(donations).build();
         }
+        List<WalletDonationItem> pageDonations = donations.subList(0, DONATION_HISTORY_PAGE_SIZE);
+        WalletDonationItem lastDonation = pageDonations.get(pageDonations.size() - 1);
+        return WalletDonationPage.builder()
+                .donations(pageDonations)
+                .hasNextPage(true)
+                .nextCreatedOn(lastDonation.getCreatedOn())
+                .nextId(lastDonation.getId())
+                .build();
     }
-    
-    public void addFunds(Wallet wallet, BigDecimal amount, UserStatus userStatus) {
-        if(userStatus == UserStatus.ACTIVE) {
-            addFundsWithoutUserValidation(wallet, amount);
-        } else {
-            throw new AccessDeniedException("Action denied: Funds cannot be added to the wallet of an inactive user.");
+
+    /**
+     * Returns one page of the wallet statement, newest entries first.
+     */
+    public Slice<WalletTransaction> getStatement(Wallet wallet, int page) {
+        return walletTransactionRepository.findByWalletIdOrderByIdDesc(wallet.getId(), PageRequest.of(Math.max(page, 0), STATEMENT_PAGE_SIZE));
+    }
+
+    /**
+     * Appends the entry to the ledger with the balance that the wallet was just refreshed to.
+     */
+    private void recordTransaction(Wallet wallet, WalletTransactionType type, BigDecimal amount, UUID sparkId, UUID idempotencyKey) {
+        walletTransactionRepository.save(WalletTransaction.builder()
+                .walletId(wallet.getId())
+                .type(type)
+                .amount(Money.euros(amount))
+                .balance(Money.euros(wallet.getAmount()))
+                .sparkId(sparkId)
+                .idempotencyKey(idempotencyKey)
+                .createdOn(wallet.getUpdatedOn())
+                .build());
+    }
+
+    /**
+     * The ledger keeps whole cents, so an amount with a fraction of a cent is rejected before the wallet is changed,
+     * otherwise the balance of the ledger would drift from the balance of the wallet.
+     */
+    private static void requireWholeCents(BigDecimal amount) {
+        if (amount.stripTrailingZeros().scale() > 2) {
+            throw new DomainException("The amount cannot have more than 2 decimal places");
         }
     }
 
-    public void addFundsWithoutUserValidation(Wallet wallet, BigDecimal amount) {
-        BigDecimal currentAmount = wallet.getAmount() != null ? wallet.getAmount() : new BigDecimal(0);
-        wallet.setAmount(currentAmount.add(amount));
-        walletRepository.save(wallet);
+    /**
+     * Copies the balance written by the database to the given wallet instance.
+     * The updated row stays locked until the transaction ends, so the balance cannot change in between.
+     */
+    private void refreshAmount(Wallet wallet, LocalDateTime updatedOn) {
+        wallet.setAmount(walletRepository.findAmountById(wallet.getId()));
+        wallet.setUpdatedOn(updatedOn);
     }
 
     public Wallet findWalletById(UUID _id) {
         return walletRepository.findById(_id)
                 .orElseThrow(() -> new ResourceNotFoundException("No wallet with ID [%s] found".formatted(_id)));
     }
-
-
-    public  List<Wallet> findAllWallets() {
-        return walletRepository.findAll();
-    }
 }
@@ -1,5 +1,7 @@
 package app.web;
 
+import app.donation.model.DonationExportFormat;
+import app.donation.service.DonationExportService;
 import app.donation.service.DonationService;
 import app.security.AuthenticationDetails;
 import app.spark.model.Spark;
@@ -7,16 +9,29 @@ import app.spark.service.SparkService;
 import app.user.model.User;
 import app.user.service.UserService;
 import app.web.dto.DonationRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.async.WebAsyncUtils;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.Duration;
 import java.util.UUID;
 
 @Controller
@@ -24,13 +39,18 @@ import java.util.UUID;
 public class DonationController {
 
     private final DonationService donationService;
+    private final DonationExportService donationExportService;
     private final UserService userService;
     private final SparkService sparkService;
+    private final Duration exportTimeout;
 
-    public DonationController(DonationService _donationService, UserService _userService, SparkService _sparkService) {
+    public DonationController(DonationService _donationService, DonationExportService _donationExportService, UserService _userService, SparkService _sparkService
+            , @Value("${donation.export.timeout:30m}") Duration _exportTimeout) {
         donationService = _donationService;
+        donationExportService = _donationExportService;
         userService = _userService;
         sparkService = _sparkService;
+        exportTimeout = _exportTimeout;
     }
 
     @GetMapping("/{id}/donation")
@@ -41,7 +61,9 @@ public class DonationController {
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.addObject("user", user);
         modelAndView.addObject("spark", spark);
-        modelAndView.addObject("donationRequest", new DonationRequest());
+        modelAndView.addObject("donationRequest", DonationRequest.builder()
+                .idempotencyKey(UUID.randomUUID())
+                .build());
         modelAndView.setViewName("donation");
 
         return modelAndView;
@@ -50,8 +72,12 @@ public class DonationController {
     @PostMapping("/{id}/donation")
     public ModelAndView donateToSpark(@PathVariable UUID id
             , @AuthenticationPrincipal AuthenticationDetails authenticationDetails
+            , @RequestHeader(name = "Idempotency-Key", required = false) UUID idempotencyKey
             , @Valid DonationRequest donationRequest
             , BindingResult bindingResult) {
+        if (idempotencyKey != null) {
+            donationRequest.setIdempotencyKey(idempotencyKey);
+        }
         User user = userService.getAuthenticatedUser(authenticationDetails);
         Spark spark = sparkService.getSparkById(id);
 
@@ -64,8 +90,14 @@ public class DonationController {
             return modelAndView;
         }
 
-        donationService.addDonationToSpark(user, spark, donationRequest);
-        donationService.sendEmailForDonation(spark, user.getUsername(), donationRequest.getMessage(), donationRequest.getAmount());
+        try {
+            donationService.addDonationToSpark(user, spark, donationRequest);
+        } catch (DataIntegrityViolationException e) {
+            // A parallel replay with the same idempotency key saved the donation first
+            if (!donationService.isDonationSaved(user, donationRequest.getIdempotencyKey())) {
+                throw e;
+            }
+        }
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.addObject("user", user);
@@ -73,4 +105,24 @@ public class DonationController {
         modelAndView.setViewName("redirect:/" + spark.getId() + "/spark");
         return modelAndView;
     }
+
+    /**
+     * Streams all donations as CSV or as JSON lines. The response is written by another thread while the rows are read,
+     * so the export starts right away and does not hold the donations in memory.
+     * Only this request may outlive the default asynchronous timeout, as writing all donations can take long.
+     */
+    @GetMapping("/donations/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDonations(@RequestParam(name = "format", defaultValue = "CSV") DonationExportFormat format
+            , HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        StreamingResponseBody body = outputStream -> donationExportService.exportDonations(format, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("donations." + format.getFileExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
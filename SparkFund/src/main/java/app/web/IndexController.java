@@ -1,14 +1,12 @@
 package app.web;
 
-import app.donation.service.DonationService;
+import app.home.service.HomeSnapshotService;
 import app.security.AuthenticationDetails;
-import app.spark.model.Spark;
-import app.spark.service.SparkService;
 import app.user.model.User;
 import app.user.service.UserService;
+import app.web.dto.HomeSnapshot;
 import app.web.dto.LoginRequest;
 import app.web.dto.RegisterRequest;
-import app.web.dto.TotalDonationsInfo;
 import jakarta.validation.Valid;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -19,7 +17,6 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
-import java.util.List;
 import java.util.Objects;
 
 @Controller
@@ -27,13 +24,11 @@ import java.util.Objects;
 public class IndexController {
 
     private final UserService userService;
-    private final SparkService sparkService;
-    private final DonationService donationService;
+    private final HomeSnapshotService homeSnapshotService;
 
-    public IndexController(UserService _userService, SparkService _sparkService, DonationService _donationService) {
+    public IndexController(UserService _userService, HomeSnapshotService _homeSnapshotService) {
         userService = _userService;
-        sparkService = _sparkService;
-        donationService = _donationService;
+        homeSnapshotService = _homeSnapshotService;
     }
 
     @GetMapping
@@ -82,13 +77,13 @@ public class IndexController {
     public ModelAndView getHomePage(@AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
         User registeredUser = userService.getAuthenticatedUser(authenticationDetails);
 
-        List<Spark> allActiveSparks = sparkService.getAllActiveSparks();
-        TotalDonationsInfo donationsInfo = donationService.getTotalDonationsInfo();
+        // The Sparks and the statistics are the same for every user, so they come from a shared snapshot
+        HomeSnapshot homeSnapshot = homeSnapshotService.getSnapshot();
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.addObject("user", registeredUser);
-        modelAndView.addObject("allSparks", allActiveSparks);
-        modelAndView.addObject("donationsInfo", donationsInfo);
+        modelAndView.addObject("allSparks", homeSnapshot.getLatestSparks());
+        modelAndView.addObject("donationsInfo", homeSnapshot.getDonationsInfo());
         modelAndView.setViewName("home");
         return modelAndView;
     }
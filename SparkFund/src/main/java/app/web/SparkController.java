@@ -1,14 +1,19 @@
 package app.web;
 
+import app.donation.service.DonationService;
 import app.security.AuthenticationDetails;
 import app.spark.model.Spark;
+import app.spark.service.SparkSearchService;
 import app.spark.service.SparkService;
 import app.user.model.User;
 import app.user.service.UserService;
+import app.web.dto.DonationFeedPage;
 import app.web.dto.FilterData;
 import app.web.dto.ManageSparkRequest;
+import app.web.dto.SparkPage;
 import app.web.mapper.DtoMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
@@ -16,7 +21,7 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Controller
@@ -25,25 +30,49 @@ public class SparkController {
 
     private final UserService userService;
     private final SparkService sparkService;
+    private final SparkSearchService sparkSearchService;
+    private final DonationService donationService;
 
-    public SparkController(UserService _userService, SparkService _sparkService) {
+    public SparkController(UserService _userService, SparkService _sparkService, SparkSearchService _sparkSearchService, DonationService _donationService) {
         userService = _userService;
         sparkService = _sparkService;
+        sparkSearchService = _sparkSearchService;
+        donationService = _donationService;
     }
 
     @GetMapping("/{id}/spark")
     public ModelAndView getSparkPage(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
         User user = userService.getAuthenticatedUser(authenticationDetails);
-        Spark spark = sparkService.getSparkById(id);
+        Spark spark = sparkService.getSparkWithCreatorById(id);
+        DonationFeedPage donationFeed = donationService.getDonationFeed(id, null, null);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.addObject("user", user);
         modelAndView.addObject("spark", spark);
+        modelAndView.addObject("sparkId", id);
+        modelAndView.addObject("donationFeed", donationFeed);
         modelAndView.setViewName("show-spark");
 
         return modelAndView;
     }
 
+    /**
+     * Renders the next page of the donation feed of the Show Spark screen, which the screen appends to the feed.
+     */
+    @GetMapping("/{id}/spark/donations")
+    public ModelAndView getSparkDonations(@PathVariable UUID id
+            , @RequestParam(name = "afterCreatedOn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedOn
+            , @RequestParam(name = "afterId", required = false) UUID afterId) {
+        DonationFeedPage donationFeed = donationService.getDonationFeed(id, afterCreatedOn, afterId);
+
+        ModelAndView modelAndView = new ModelAndView();
+        modelAndView.addObject("sparkId", id);
+        modelAndView.addObject("donationFeed", donationFeed);
+        modelAndView.setViewName("fragments/donation-feed :: donation-feed");
+
+        return modelAndView;
+    }
+
     @GetMapping("/spark/new")
     public ModelAndView getCreateSparkPage(@AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
         User user = userService.getAuthenticatedUser(authenticationDetails);
@@ -127,15 +156,23 @@ public class SparkController {
     public ModelAndView getAllSparks(@AuthenticationPrincipal AuthenticationDetails authenticationDetails
             , @RequestParam(name = "status", required = false) String status
             , @RequestParam(name = "category", required = false) String category
-            , @RequestParam(name = "ownership", required = false) String ownership) {
+            , @RequestParam(name = "ownership", required = false) String ownership
+            , @RequestParam(name = "afterCreatedOn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedOn
+            , @RequestParam(name = "afterId", required = false) UUID afterId
+            , @RequestParam(name = "query", required = false) String query
+            , @RequestParam(name = "page", defaultValue = "0") int page) {
         User user = userService.getAuthenticatedUser(authenticationDetails);
         FilterData filterData = new FilterData(status, category, ownership, "all-sparks");
-        List<Spark> allSparks = sparkService.getAllSparks(user, status, category, ownership);
+        SparkPage sparkPage = query == null || query.isBlank()
+                ? sparkService.getAllSparks(user, status, category, ownership, afterCreatedOn, afterId)
+                : sparkSearchService.searchSparks(user, query.strip(), status, category, ownership, page);
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.addObject("user", user);
-        modelAndView.addObject("allSparks", allSparks);
+        modelAndView.addObject("allSparks", sparkPage.getSparks());
+        modelAndView.addObject("sparkPage", sparkPage);
         modelAndView.addObject("filterData", filterData);
+        modelAndView.addObject("query", query);
         modelAndView.setViewName("all-sparks");
 
         return modelAndView;
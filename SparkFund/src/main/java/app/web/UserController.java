@@ -7,6 +7,7 @@ import app.web.dto.EditProfileRequest;
 import app.web.dto.WalletDonationInfo;
 import app.web.mapper.DtoMapper;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,8 +17,10 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,7 +35,9 @@ public class UserController {
     }
 
     @GetMapping("/{id}/profile")
-    public ModelAndView getUserProfilePage(@PathVariable UUID id, @AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
+    public ModelAndView getUserProfilePage(@PathVariable UUID id
+            , @RequestParam(name = "statementPage", defaultValue = "0") int statementPage
+            , @AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
         if (!authenticationDetails.getUserId().equals(id)) {
             throw new AuthorizationDeniedException("You are not authorized to view or edit this profile.");
         }
@@ -45,6 +50,31 @@ public class UserController {
         modelAndView.addObject("editProfileRequest", DtoMapper.mapUserToEditProfileRequest(user));
         modelAndView.addObject("wallet", user.getWallet());
         modelAndView.addObject("walletDonationInfo", walletDonationInfo);
+        modelAndView.addObject("userId", id);
+        modelAndView.addObject("walletDonations", userService.getWalletDonations(user, null, null));
+        modelAndView.addObject("statement", userService.getWalletStatement(user, statementPage));
+        modelAndView.addObject("topUpIdempotencyKey", UUID.randomUUID());
+
+        return modelAndView;
+    }
+
+    /**
+     * Renders the next page of the donation history of the Profile screen, which the screen appends to the history.
+     */
+    @GetMapping("/{id}/profile/donations")
+    public ModelAndView getProfileDonations(@PathVariable UUID id
+            , @RequestParam(name = "afterCreatedOn", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterCreatedOn
+            , @RequestParam(name = "afterId", required = false) UUID afterId
+            , @AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
+        if (!authenticationDetails.getUserId().equals(id)) {
+            throw new AuthorizationDeniedException("You are not authorized to view or edit this profile.");
+        }
+        User user = userService.getAuthenticatedUser(authenticationDetails);
+
+        ModelAndView modelAndView = new ModelAndView();
+        modelAndView.addObject("userId", id);
+        modelAndView.addObject("walletDonations", userService.getWalletDonations(user, afterCreatedOn, afterId));
+        modelAndView.setViewName("fragments/wallet-donations :: wallet-donations");
 
         return modelAndView;
     }
@@ -67,6 +97,10 @@ public class UserController {
             modelAndView.addObject("editProfileRequest", editProfileRequest);
             modelAndView.addObject("wallet", user.getWallet());
             modelAndView.addObject("walletDonationInfo", walletDonationInfo);
+            modelAndView.addObject("userId", id);
+            modelAndView.addObject("walletDonations", userService.getWalletDonations(user, null, null));
+            modelAndView.addObject("statement", userService.getWalletStatement(user, 0));
+            modelAndView.addObject("topUpIdempotencyKey", UUID.randomUUID());
 
             return modelAndView;
         }
@@ -59,7 +59,7 @@ public class UserSignalController {
 
     @GetMapping("/user-signals")
     public ModelAndView getMySignalsPage(@AuthenticationPrincipal AuthenticationDetails authenticationDetails, @RequestParam(name = "status", required = false, defaultValue = "ALL") String status) {
-        User user = userService.getAuthenticatedUser(authenticationDetails);
+        User user = userService.getAuthenticatedUserWithSignals(authenticationDetails);
         FilterData filterData = new FilterData(status, null, null, "user-signals");
 
         List<UserSignal> userSignals = userSignalService.getUserSignals(user.getUserSignals(), status);
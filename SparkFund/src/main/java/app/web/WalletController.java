@@ -7,10 +7,12 @@ import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
 import app.web.dto.WalletDonationInfo;
 import app.web.mapper.DtoMapper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.ModelAndView;
@@ -33,13 +35,23 @@ public class WalletController {
     @PutMapping("/{id}/funds")
     public ModelAndView addFundsToWallet(@PathVariable UUID id
             , @RequestParam(name = "amount") BigDecimal amount
+            , @RequestParam(name = "idempotencyKey", required = false) UUID idempotencyKeyParam
+            , @RequestHeader(name = "Idempotency-Key", required = false) UUID idempotencyKeyHeader
             , @AuthenticationPrincipal AuthenticationDetails authenticationDetails) {
 
         Wallet wallet = walletService.findWalletById(id);
         WalletDonationInfo walletDonationInfo = walletService.getWalletDonationInfo(wallet);
         User user = userService.getAuthenticatedUser(authenticationDetails);
 
-        walletService.addFunds(wallet, amount, user.getUserStatus());
+        UUID idempotencyKey = idempotencyKeyHeader != null ? idempotencyKeyHeader : idempotencyKeyParam;
+        try {
+            walletService.addFunds(wallet, amount, user.getUserStatus(), idempotencyKey);
+        } catch (DataIntegrityViolationException e) {
+            // A parallel replay with the same idempotency key saved the top-up first
+            if (!walletService.isTopUpSaved(wallet, idempotencyKey)) {
+                throw e;
+            }
+        }
 
         ModelAndView modelAndView = new ModelAndView();
         modelAndView.addObject("user", user);
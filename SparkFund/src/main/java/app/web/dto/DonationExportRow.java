@@ -0,0 +1,31 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationExportRow {
+
+    private UUID donationId;
+
+    private LocalDateTime createdOn;
+
+    private BigDecimal amount;
+
+    private String message;
+
+    private UUID sparkId;
+
+    private String sparkTitle;
+
+    private String donorUsername;
+}
@@ -0,0 +1,26 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationFeedItem {
+
+    private UUID id;
+
+    private LocalDateTime createdOn;
+
+    private String message;
+
+    private String donorUsername;
+
+    private String donorProfilePicture;
+}
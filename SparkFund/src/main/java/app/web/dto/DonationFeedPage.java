@@ -0,0 +1,25 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DonationFeedPage {
+
+    private List<DonationFeedItem> donations;
+
+    private boolean hasNextPage;
+
+    private LocalDateTime nextCreatedOn;
+
+    private UUID nextId;
+}
@@ -1,6 +1,7 @@
 package app.web.dto;
 
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -9,6 +10,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 @Builder
 @Data
@@ -18,8 +20,14 @@ public class DonationRequest {
 
     @NotNull
     @DecimalMin(value = "1", message = "Amount must be at least 1")
+    @Digits(integer = 10, fraction = 2, message = "Amount can have at most 2 decimal places")
     private BigDecimal amount;
 
     @Size(max = 200, message = "Your message cannot exceed 200 symbols")
     private String message;
+
+    /**
+     * Generated by the donation page, or sent in the Idempotency-Key header, so a resubmitted donation is recognised.
+     */
+    private UUID idempotencyKey;
 }
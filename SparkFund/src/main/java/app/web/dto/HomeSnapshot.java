@@ -0,0 +1,22 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HomeSnapshot {
+
+    private List<SparkCard> latestSparks;
+
+    private TotalDonationsInfo donationsInfo;
+
+    private Instant createdOn;
+}
@@ -0,0 +1,42 @@
+package app.web.dto;
+
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SparkCard {
+
+    /**
+     * The number of characters of the description shown on a card, which is clamped to a few lines anyway.
+     */
+    public static final int DESCRIPTION_LENGTH = 500;
+
+    private UUID id;
+
+    private String title;
+
+    private String description;
+
+    private String firstPictureUrl;
+
+    private SparkCategory category;
+
+    private SparkStatus status;
+
+    private BigDecimal currentAmount;
+
+    private BigDecimal goalAmount;
+
+    private LocalDateTime createdOn;
+}
@@ -0,0 +1,14 @@
+package app.web.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.UUID;
+
+@Data
+@Builder
+public class SparkGoalReachedEvent {
+
+    private UUID sparkId;
+
+}
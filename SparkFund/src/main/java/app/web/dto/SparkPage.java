@@ -0,0 +1,30 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SparkPage {
+
+    private List<SparkCard> sparks;
+
+    private boolean hasNextPage;
+
+    private LocalDateTime nextCreatedOn;
+
+    private UUID nextId;
+
+    /**
+     * The number of the next page of search results, which are ranked and therefore paged by offset.
+     */
+    private Integer nextPage;
+}
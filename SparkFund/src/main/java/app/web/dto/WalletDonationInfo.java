@@ -1,5 +1,6 @@
 package app.web.dto;
 
+import app.money.Money;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -11,7 +12,7 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class WalletDonationInfo {
 
-    private String totalDonations;
+    private Money totalDonations;
 
     private int totalSparks;
 }
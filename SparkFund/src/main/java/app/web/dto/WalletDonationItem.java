@@ -0,0 +1,25 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletDonationItem {
+
+    private UUID id;
+
+    private LocalDateTime createdOn;
+
+    private BigDecimal amount;
+
+    private String sparkTitle;
+}
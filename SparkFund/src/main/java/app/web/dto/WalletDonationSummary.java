@@ -0,0 +1,22 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletDonationSummary {
+
+    /**
+     * The sum of all donations of the wallet, or null if it has none.
+     */
+    private BigDecimal totalAmount;
+
+    private Long sparkCount;
+}
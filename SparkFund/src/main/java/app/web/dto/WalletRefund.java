@@ -0,0 +1,22 @@
+package app.web.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Builder
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletRefund {
+
+    private UUID walletId;
+
+    private String ownerEmail;
+
+    private BigDecimal amount;
+}
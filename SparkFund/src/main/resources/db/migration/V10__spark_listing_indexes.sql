@@ -0,0 +1,6 @@
+-- The Sparks of the listing are filtered by status and category and ordered by (created_on, id).
+create index idx_spark_status_created_on
+   on `spark` (`status`, `created_on`, `id`);
+
+create index idx_spark_status_category_created_on
+   on `spark` (`status`, `category`, `created_on`, `id`);
@@ -0,0 +1,21 @@
+-- Indexes for the filters and sort orders of the frequent queries, checked by QueryPlanITest.
+-- On MySQL the composite indexes that start with a foreign key column replace the index created for the foreign key.
+
+-- Donations of a wallet and of a Spark, newest first
+create index `idx_donation_wallet_created_on` on `donation` (`wallet_id`, `created_on`);
+create index `idx_donation_spark_created_on` on `donation` (`spark_id`, `created_on`);
+
+-- Completion of the active Sparks in chunks ordered by ID
+create index `idx_spark_status_id` on `spark` (`status`, `id`);
+
+-- Number of Sparks that received donations
+create index `idx_spark_current_amount` on `spark` (`current_amount`);
+
+-- Sparks of a creator, newest first
+create index `idx_spark_creator_created_on` on `spark` (`creator_id`, `created_on`);
+
+-- Oldest pending amount increments first
+create index `idx_spark_amount_increment_created_on` on `spark_amount_increment` (`created_on`);
+
+-- Signals of a user, newest first
+create index `idx_user_signal_creator_created_on` on `user_signal` (`creator_id`, `created_on`);
@@ -0,0 +1,4 @@
+-- The donation feed of a Spark is paged by (created_on, id), so the ID is part of the index as well.
+-- The new index is created before the old one is dropped, so the foreign key on spark_id always has an index.
+create index `idx_donation_spark_created_on_id` on `donation` (`spark_id`, `created_on`, `id`);
+drop index `idx_donation_spark_created_on` on `donation`;
@@ -0,0 +1,3 @@
+-- The donation summary of a wallet sums the amounts and counts the distinct Sparks of its donations,
+-- so an index with all three columns answers it without reading the donation rows.
+create index `idx_donation_wallet_spark_amount` on `donation` (`wallet_id`, `spark_id`, `amount`);
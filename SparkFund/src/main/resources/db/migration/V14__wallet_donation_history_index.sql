@@ -0,0 +1,4 @@
+-- The donation history of a wallet is paged by (created_on, id), so the ID is part of the index as well.
+-- The new index is created before the old one is dropped, so the foreign key on wallet_id always has an index.
+create index `idx_donation_wallet_created_on_id` on `donation` (`wallet_id`, `created_on`, `id`);
+drop index `idx_donation_wallet_created_on` on `donation`;
@@ -0,0 +1,100 @@
+-- Schema of SparkFund as it was created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that were created that way are baselined at this version and start with V2.
+
+create table `donation` (
+    `amount` decimal(38,2) not null,
+    `created_on` datetime(6) not null,
+    `id` binary(16) not null,
+    `spark_id` binary(16),
+    `wallet_id` binary(16),
+    `message` varchar(1000) not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create table `spark` (
+    `current_amount` decimal(38,2),
+    `goal_amount` decimal(38,2) not null,
+    `created_on` datetime(6) not null,
+    `updated_on` datetime(6),
+    `creator_id` binary(16),
+    `id` binary(16) not null,
+    `description` varchar(1000) not null,
+    `first_picture_url` varchar(255) not null,
+    `second_picture_url` varchar(255),
+    `third_picture_url` varchar(255),
+    `title` varchar(255) not null,
+    `category` enum ('EDUCATION','ENTERTAINMENT','ENVIRONMENT','HEALTH','SOCIAL') not null,
+    `status` enum ('ACTIVE','CANCELLED','COMPLETED') not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create table `user` (
+    `created_on` datetime(6) not null,
+    `updated_on` datetime(6),
+    `id` binary(16) not null,
+    `email` varchar(255),
+    `first_name` varchar(255),
+    `last_name` varchar(255),
+    `password` varchar(255) not null,
+    `profile_picture` varchar(255),
+    `username` varchar(255) not null,
+    `user_role` enum ('ADMIN','USER') not null,
+    `user_status` enum ('ACTIVE','INACTIVE') not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create table `user_signal` (
+    `created_on` datetime(6) not null,
+    `updated_on` datetime(6),
+    `creator_id` binary(16),
+    `id` binary(16) not null,
+    `admin_response` varchar(1000),
+    `message` varchar(1000) not null,
+    `title` varchar(255) not null,
+    `user_signal_status` enum ('PENDING','RESOLVED') not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create table `wallet` (
+    `amount` decimal(38,2) not null,
+    `currency` varchar(3) not null,
+    `created_on` datetime(6) not null,
+    `updated_on` datetime(6),
+    `id` binary(16) not null,
+    `owner_id` binary(16),
+    primary key (`id`)
+) engine=InnoDB;
+
+alter table `user`
+   add constraint UKob8kqyqqgmefl0aco34akdtpe unique (`email`);
+
+alter table `user`
+   add constraint UKsb8bbouer5wak8vyiiy4pf2bx unique (`username`);
+
+alter table `wallet`
+   add constraint UKgfsmvsbdpwgauvv08tggktrgx unique (`owner_id`);
+
+alter table `donation`
+   add constraint FKh2fi1skwn0q6dmu1yvop4k9dy
+   foreign key (`spark_id`)
+   references `spark` (`id`);
+
+alter table `donation`
+   add constraint FKdiptn3s3sp9agq4y7dxrks47f
+   foreign key (`wallet_id`)
+   references `wallet` (`id`);
+
+alter table `spark`
+   add constraint FKpfuxxmqcxtyro5ebekgpt77lf
+   foreign key (`creator_id`)
+   references `user` (`id`);
+
+alter table `user_signal`
+   add constraint FK47cf32f0s2mxy978l01ss5lhq
+   foreign key (`creator_id`)
+   references `user` (`id`);
+
+alter table `wallet`
+   add constraint FKrg4reqrefjux3h25jrga2dc0p
+   foreign key (`owner_id`)
+   references `user` (`id`);
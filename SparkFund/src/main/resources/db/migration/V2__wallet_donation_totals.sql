@@ -0,0 +1,10 @@
+-- Donation total of each wallet, kept up to date with every donation and refund for the top donors on the Home screen.
+create table `wallet_donation_total` (
+    `total_amount` decimal(38,2) not null,
+    `updated_on` datetime(6) not null,
+    `wallet_id` binary(16) not null,
+    primary key (`wallet_id`)
+) engine=InnoDB;
+
+create index idx_wallet_donation_total_amount
+   on `wallet_donation_total` (`total_amount`);
@@ -0,0 +1,11 @@
+-- Donated amounts waiting to be added to the current amount of their Spark in batches.
+create table `spark_amount_increment` (
+    `amount` decimal(38,2) not null,
+    `created_on` datetime(6) not null,
+    `id` binary(16) not null,
+    `spark_id` binary(16) not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create index idx_spark_amount_increment_spark
+   on `spark_amount_increment` (`spark_id`);
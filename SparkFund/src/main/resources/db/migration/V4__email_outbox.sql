@@ -0,0 +1,16 @@
+-- Emails that are written in the transaction of the donation or refund and sent afterwards.
+create table `outbox_email` (
+    `attempts` integer not null,
+    `created_on` datetime(6) not null,
+    `next_attempt_on` datetime(6) not null,
+    `id` binary(16) not null,
+    `last_error` varchar(500),
+    `body` varchar(2000) not null,
+    `subject` varchar(255) not null,
+    `user_email` varchar(255),
+    `status` enum ('FAILED','PENDING') not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create index idx_outbox_email_status_next_attempt
+   on `outbox_email` (`status`, `next_attempt_on`);
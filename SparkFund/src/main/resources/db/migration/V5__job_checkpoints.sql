@@ -0,0 +1,7 @@
+-- Last ID processed by a scheduled job, so an interrupted run resumes where it stopped.
+create table `job_checkpoint` (
+    `updated_on` datetime(6) not null,
+    `last_processed_id` binary(16) not null,
+    `job_name` varchar(255) not null,
+    primary key (`job_name`)
+) engine=InnoDB;
@@ -0,0 +1,9 @@
+-- Donation submissions claimed by the duplicate check when idempotency.store=jdbc, shared by all nodes.
+create table `submission_token` (
+    `expires_on` datetime(6) not null,
+    `token_key` binary(16) not null,
+    primary key (`token_key`)
+) engine=InnoDB;
+
+create index idx_submission_token_expires_on
+   on `submission_token` (`expires_on`);
@@ -0,0 +1,6 @@
+-- Key sent by the client with a donation, unique per wallet, so a replayed donation is not saved twice.
+alter table `donation`
+   add column `idempotency_key` binary(16);
+
+alter table `donation`
+   add constraint uk_donation_idempotency_key unique (`wallet_id`, `idempotency_key`);
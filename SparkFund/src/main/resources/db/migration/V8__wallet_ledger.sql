@@ -0,0 +1,18 @@
+-- Append-only ledger of the top-ups, donations and refunds of each wallet, with the balance after each entry.
+create table `wallet_transaction` (
+    `amount` decimal(38,2) not null,
+    `balance` decimal(38,2) not null,
+    `created_on` datetime(6) not null,
+    `id` bigint not null auto_increment,
+    `idempotency_key` binary(16),
+    `spark_id` binary(16),
+    `wallet_id` binary(16) not null,
+    `type` enum ('DONATION','REFUND','TOP_UP') not null,
+    primary key (`id`)
+) engine=InnoDB;
+
+create index idx_wallet_transaction_wallet
+   on `wallet_transaction` (`wallet_id`, `id`);
+
+alter table `wallet_transaction`
+   add constraint uk_wallet_transaction_idempotency_key unique (`wallet_id`, `idempotency_key`);
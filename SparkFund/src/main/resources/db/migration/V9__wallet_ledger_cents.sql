@@ -0,0 +1,9 @@
+-- The amounts and balances of the ledger are stored as whole euro cents.
+update `wallet_transaction`
+   set `amount` = `amount` * 100, `balance` = `balance` * 100;
+
+alter table `wallet_transaction`
+   modify `amount` bigint not null;
+
+alter table `wallet_transaction`
+   modify `balance` bigint not null;
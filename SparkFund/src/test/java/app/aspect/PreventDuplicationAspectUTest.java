@@ -1,9 +1,14 @@
 package app.aspect;
 
 import app.exceptions.DuplicateException;
+import app.idempotency.model.SubmissionKey;
+import app.idempotency.service.SubmissionStore;
+import app.metrics.DomainMetrics;
 import app.security.AuthenticationDetails;
 import app.user.model.UserRole;
 import app.user.model.UserStatus;
+import app.web.dto.DonationRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,14 +16,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
 
-import java.lang.reflect.Field;
-import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,49 +38,93 @@ public class PreventDuplicationAspectUTest {
     private ProceedingJoinPoint joinPoint;
     @Mock
     private Signature signature;
+    @Mock
+    private SubmissionStore submissionStore;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DomainMetrics domainMetrics = new DomainMetrics(meterRegistry);
 
     @InjectMocks
     private PreventDuplicationAspect aspect;
 
+    private UUID sparkId;
+    private AuthenticationDetails principal;
+    private SubmissionKey submissionKey;
+
     @BeforeEach
     void setup() {
-        when(joinPoint.getSignature()).thenReturn(signature);
-        when(signature.getName()).thenReturn("donateToSpark");
+        lenient().when(joinPoint.getSignature()).thenReturn(signature);
+        lenient().when(signature.getName()).thenReturn("donateToSpark");
+        sparkId = UUID.randomUUID();
+        principal = new AuthenticationDetails(UUID.randomUUID()
+                , "Kalin"
+                , "12345"
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        submissionKey = new SubmissionKey("donateToSpark", sparkId, principal.getUserId());
     }
 
     @Test
     void shouldProcessDonationRequest_whenNoDuplicateDonationIsDetected() throws Throwable {
+        when(submissionStore.tryAcquire(submissionKey)).thenReturn(true);
         when(joinPoint.proceed()).thenReturn("OK");
-        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
-                , "Kalin"
-                , "12345"
-                , UserRole.USER
-                , UserStatus.ACTIVE);
-        Object result = aspect.preventDonationDuplication(joinPoint, UUID.randomUUID(), principal);
+
+        Object result = aspect.preventDonationDuplication(joinPoint, sparkId, principal, null, new DonationRequest(), bindingResult(new DonationRequest()));
+
         assertEquals("OK", result);
+        verify(submissionStore, never()).release(any());
     }
 
     @Test
     void shouldThrowDuplicateException_whenDuplicateDonationIsDetected() throws Throwable {
-        UUID sparkId = UUID.randomUUID();
-        UUID userId = UUID.randomUUID();
-
-        Field cacheField = PreventDuplicationAspect.class.getDeclaredField("submissionCache");
-        cacheField.setAccessible(true);
-        String key = "donateToSpark" + ";" + sparkId + ";" + userId;
-        @SuppressWarnings("unchecked")
-        Map<String, Long> cache = (Map<String, Long>) cacheField.get(aspect);
-        cache.put(key, System.currentTimeMillis());
-
-        AuthenticationDetails principal = new AuthenticationDetails(userId
-                , "Kalin"
-                , "12345"
-                , UserRole.USER
-                , UserStatus.ACTIVE);
+        when(submissionStore.tryAcquire(submissionKey)).thenReturn(false);
 
         DuplicateException exception = assertThrows(DuplicateException.class, () ->
-                aspect.preventDonationDuplication(joinPoint, sparkId, principal)
+                aspect.preventDonationDuplication(joinPoint, sparkId, principal, null, new DonationRequest(), bindingResult(new DonationRequest()))
         );
         assertEquals("Duplicate donation attempt detected.", exception.getMessage());
+        assertEquals(1, meterRegistry.get("sparkfund.duplicate.rejected").tag("operation", "donateToSpark").counter().count());
+        verify(joinPoint, never()).proceed();
+    }
+
+    @Test
+    void shouldReleaseTheSubmission_whenTheDonationFails() throws Throwable {
+        when(submissionStore.tryAcquire(submissionKey)).thenReturn(true);
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("Donation failed"));
+
+        assertThrows(IllegalStateException.class, () -> aspect.preventDonationDuplication(joinPoint, sparkId, principal, null, new DonationRequest(), bindingResult(new DonationRequest())));
+        verify(submissionStore).release(submissionKey);
+    }
+
+    @Test
+    void shouldReleaseTheSubmission_whenTheDonationFormHasValidationErrors() throws Throwable {
+        when(submissionStore.tryAcquire(submissionKey)).thenReturn(true);
+        when(joinPoint.proceed()).thenReturn("donation");
+        DonationRequest donationRequest = new DonationRequest();
+        BindingResult bindingResult = bindingResult(donationRequest);
+        bindingResult.rejectValue("amount", "NotNull");
+
+        Object result = aspect.preventDonationDuplication(joinPoint, sparkId, principal, null, donationRequest, bindingResult);
+
+        assertEquals("donation", result);
+        verify(submissionStore).release(submissionKey);
+    }
+
+    @Test
+    void shouldNotCheckTheSubmissionStore_whenTheDonationHasAnIdempotencyKey() throws Throwable {
+        when(joinPoint.proceed()).thenReturn("OK");
+        DonationRequest donationRequest = DonationRequest.builder()
+                .idempotencyKey(UUID.randomUUID())
+                .build();
+
+        Object result = aspect.preventDonationDuplication(joinPoint, sparkId, principal, null, donationRequest, bindingResult(donationRequest));
+
+        assertEquals("OK", result);
+        verify(submissionStore, never()).tryAcquire(any());
+    }
+
+    private static BindingResult bindingResult(DonationRequest donationRequest) {
+        return new BeanPropertyBindingResult(donationRequest, "donationRequest");
     }
 }
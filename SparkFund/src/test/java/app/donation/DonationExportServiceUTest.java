@@ -0,0 +1,124 @@
+package app.donation;
+
+import app.donation.model.DonationExportFormat;
+import app.donation.repository.DonationRepository;
+import app.donation.service.DonationExportService;
+import app.web.dto.DonationExportRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcPropertySetImpl;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class DonationExportServiceUTest {
+
+    @Mock
+    private DonationRepository donationRepository;
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private Session session;
+
+    private DonationExportService donationExportService;
+    private DonationExportRow row;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        donationExportService = new DonationExportService(donationRepository, objectMapper, entityManager);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        row = DonationExportRow.builder()
+                .donationId(UUID.fromString("00000000-0000-0000-0000-000000000001"))
+                .createdOn(LocalDateTime.of(2025, 3, 10, 12, 30))
+                .amount(new BigDecimal("12.50"))
+                .message("Good luck, \"team\"")
+                .sparkId(UUID.fromString("00000000-0000-0000-0000-000000000002"))
+                .sparkTitle("=HYPERLINK(\"x\")")
+                .donorUsername("Kalin")
+                .build();
+    }
+
+    @Test
+    void givenDonations_whenExportedAsCsv_thenTextIsQuotedAndFormulasAreNotRun() throws Exception {
+        when(donationRepository.streamAllForExport()).thenReturn(Stream.of(row));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = donationExportService.exportDonations(DonationExportFormat.CSV, outputStream);
+
+        assertEquals(1, rows);
+        assertEquals("""
+                donation_id,created_on,amount,message,spark_id,spark_title,donor_username
+                00000000-0000-0000-0000-000000000001,2025-03-10T12:30,12.50,"Good luck, ""team\""",00000000-0000-0000-0000-000000000002,"'=HYPERLINK(""x"")",Kalin
+                """, outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void givenDonations_whenExportedAsNdjson_thenEveryDonationIsOneJsonLine() throws Exception {
+        when(donationRepository.streamAllForExport()).thenReturn(Stream.of(row, row));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        donationExportService.exportDonations(DonationExportFormat.NDJSON, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("{\"donationId\":\"00000000-0000-0000-0000-000000000001\",\"createdOn\":\"2025-03-10T12:30:00\",\"amount\":12.50,"
+                + "\"message\":\"Good luck, \\\"team\\\"\",\"sparkId\":\"00000000-0000-0000-0000-000000000002\","
+                + "\"sparkTitle\":\"=HYPERLINK(\\\"x\\\")\",\"donorUsername\":\"Kalin\"}", lines[0]);
+    }
+
+    @Test
+    void givenMySqlConnection_whenExported_thenReadThroughCursorAndRestoreTheConnection() throws Exception {
+        JdbcPropertySetImpl propertySet = new JdbcPropertySetImpl();
+        propertySet.initializeProperties(new Properties());
+        JdbcConnection mySqlConnection = mock(JdbcConnection.class);
+        Connection connection = mock(Connection.class);
+        when(mySqlConnection.getPropertySet()).thenReturn(propertySet);
+        when(connection.isWrapperFor(JdbcConnection.class)).thenReturn(true);
+        when(connection.unwrap(JdbcConnection.class)).thenReturn(mySqlConnection);
+        when(session.doReturningWork(any())).thenAnswer(invocation -> invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        doAnswer(invocation -> {
+            invocation.<Work>getArgument(0).execute(connection);
+            return null;
+        }).when(session).doWork(any());
+        when(donationRepository.streamAllForExport()).thenAnswer(invocation -> {
+            assertTrue(propertySet.getBooleanProperty(PropertyKey.useCursorFetch).getValue());
+            assertTrue(propertySet.getBooleanProperty(PropertyKey.useServerPrepStmts).getValue());
+            return Stream.of(row);
+        });
+
+        donationExportService.exportDonations(DonationExportFormat.CSV, new ByteArrayOutputStream());
+
+        assertFalse(propertySet.getBooleanProperty(PropertyKey.useCursorFetch).getValue());
+        assertFalse(propertySet.getBooleanProperty(PropertyKey.useServerPrepStmts).getValue());
+    }
+}
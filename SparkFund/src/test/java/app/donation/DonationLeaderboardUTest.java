@@ -0,0 +1,201 @@
+package app.donation;
+
+import app.donation.model.WalletDonationTotal;
+import app.donation.repository.WalletDonationTotalRepository;
+import app.donation.service.DonationLeaderboard;
+import app.spark.repostiroty.SparkRepository;
+import app.user.model.User;
+import app.wallet.model.Wallet;
+import app.web.dto.TotalDonationsInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class DonationLeaderboardUTest {
+
+    @Mock
+    private WalletDonationTotalRepository walletDonationTotalRepository;
+    @Mock
+    private SparkRepository sparkRepository;
+
+    @InjectMocks
+    private DonationLeaderboard donationLeaderboard;
+
+    private Wallet wallet1, wallet2, wallet3, wallet4;
+
+    @BeforeEach
+    void setUp() {
+        wallet1 = createWallet("user1", "www.pic1.com");
+        wallet2 = createWallet("user2", "www.pic2.com");
+        wallet3 = createWallet("user3", "www.pic3.com");
+        wallet4 = createWallet("user4", "www.pic4.com");
+    }
+
+    @Test
+    void givenLoadedTotals_whenGetTotalDonationsInfo_thenReturnTopThreeDonors() {
+        loadLeaderboard(BigDecimal.valueOf(59.6), 4,
+                total(wallet1, BigDecimal.valueOf(18.1)),
+                total(wallet2, BigDecimal.valueOf(17)),
+                total(wallet3, BigDecimal.valueOf(15)));
+
+        TotalDonationsInfo donationsInfo = donationLeaderboard.getTotalDonationsInfo();
+        assertNotNull(donationsInfo);
+        assertEquals(BigDecimal.valueOf(60), donationsInfo.getTotalMoneyRaised());
+        assertEquals(4, donationsInfo.getTotalSparksFunded());
+        assertEquals("www.pic1.com", donationsInfo.getFirstDonorImage());
+        assertEquals("user1", donationsInfo.getFirstDonorName());
+        assertEquals(BigDecimal.valueOf(18.1), donationsInfo.getFirstDonorDonations());
+        assertEquals("www.pic2.com", donationsInfo.getSecondDonorImage());
+        assertEquals("user2", donationsInfo.getSecondDonorName());
+        assertEquals(BigDecimal.valueOf(17), donationsInfo.getSecondDonorDonations());
+        assertEquals("www.pic3.com", donationsInfo.getThirdDonorImage());
+        assertEquals("user3", donationsInfo.getThirdDonorName());
+        assertEquals(BigDecimal.valueOf(15), donationsInfo.getThirdDonorDonations());
+    }
+
+    @Test
+    void givenOnlyOneDonor_whenGetTotalDonationsInfo_thenReturnOneDonor() {
+        loadLeaderboard(BigDecimal.valueOf(18.1), 4, total(wallet1, BigDecimal.valueOf(18.1)));
+
+        TotalDonationsInfo donationsInfo = donationLeaderboard.getTotalDonationsInfo();
+        assertEquals(BigDecimal.valueOf(18), donationsInfo.getTotalMoneyRaised());
+        assertEquals("user1", donationsInfo.getFirstDonorName());
+        assertEquals(BigDecimal.valueOf(18.1), donationsInfo.getFirstDonorDonations());
+        assertNull(donationsInfo.getSecondDonorImage());
+        assertNull(donationsInfo.getSecondDonorName());
+        assertEquals(BigDecimal.ZERO, donationsInfo.getSecondDonorDonations());
+        assertNull(donationsInfo.getThirdDonorImage());
+        assertNull(donationsInfo.getThirdDonorName());
+        assertEquals(BigDecimal.ZERO, donationsInfo.getThirdDonorDonations());
+    }
+
+    @Test
+    void givenNewDonorWithHigherTotal_whenRecordDonation_thenDonorEntersTopDonorsWithoutQueryingThem() {
+        loadLeaderboard(BigDecimal.valueOf(50), 2,
+                total(wallet1, BigDecimal.valueOf(20)),
+                total(wallet2, BigDecimal.valueOf(17)),
+                total(wallet3, BigDecimal.valueOf(13)));
+        when(walletDonationTotalRepository.increaseTotalAmount(eq(wallet4.getId()), eq(BigDecimal.valueOf(18)), any())).thenReturn(0);
+        when(walletDonationTotalRepository.findTotalAmountByWalletId(wallet4.getId())).thenReturn(BigDecimal.valueOf(18));
+
+        donationLeaderboard.recordDonation(wallet4, BigDecimal.valueOf(18));
+
+        verify(walletDonationTotalRepository).save(any(WalletDonationTotal.class));
+        verify(walletDonationTotalRepository, times(1)).findByTotalAmountGreaterThanEqualOrderByTotalAmountDesc(any(), any());
+        TotalDonationsInfo donationsInfo = donationLeaderboard.getTotalDonationsInfo();
+        assertEquals(BigDecimal.valueOf(68), donationsInfo.getTotalMoneyRaised());
+        assertEquals(2, donationsInfo.getTotalSparksFunded());
+        assertEquals("user1", donationsInfo.getFirstDonorName());
+        assertEquals("user4", donationsInfo.getSecondDonorName());
+        assertEquals(BigDecimal.valueOf(18), donationsInfo.getSecondDonorDonations());
+        assertEquals("user2", donationsInfo.getThirdDonorName());
+    }
+
+    @Test
+    void givenDonorAlreadyInTopDonors_whenRecordDonation_thenUpdateTheirTotalAndPosition() {
+        loadLeaderboard(BigDecimal.valueOf(50), 2,
+                total(wallet1, BigDecimal.valueOf(20)),
+                total(wallet2, BigDecimal.valueOf(17)),
+                total(wallet3, BigDecimal.valueOf(13)));
+        when(walletDonationTotalRepository.increaseTotalAmount(eq(wallet3.getId()), eq(BigDecimal.TEN), any())).thenReturn(1);
+        when(walletDonationTotalRepository.findTotalAmountByWalletId(wallet3.getId())).thenReturn(BigDecimal.valueOf(23));
+
+        donationLeaderboard.recordDonation(wallet3, BigDecimal.TEN);
+
+        verify(walletDonationTotalRepository, never()).save(any());
+        TotalDonationsInfo donationsInfo = donationLeaderboard.getTotalDonationsInfo();
+        assertEquals(2, donationsInfo.getTotalSparksFunded());
+        assertEquals("user3", donationsInfo.getFirstDonorName());
+        assertEquals(BigDecimal.valueOf(23), donationsInfo.getFirstDonorDonations());
+        assertEquals("user1", donationsInfo.getSecondDonorName());
+        assertEquals("user2", donationsInfo.getThirdDonorName());
+    }
+
+    @Test
+    void givenRefunds_whenRecordRefunds_thenSubtractFromTotalsAndReloadTopDonors() {
+        loadLeaderboard(BigDecimal.valueOf(50), 2,
+                total(wallet1, BigDecimal.valueOf(20)),
+                total(wallet2, BigDecimal.valueOf(17)),
+                total(wallet3, BigDecimal.valueOf(13)));
+        when(walletDonationTotalRepository.findByTotalAmountGreaterThanEqualOrderByTotalAmountDesc(BigDecimal.ONE, Limit.of(3)))
+                .thenReturn(List.of(total(wallet2, BigDecimal.valueOf(17)), total(wallet3, BigDecimal.valueOf(13))));
+
+        UUID sparkId = UUID.randomUUID();
+        donationLeaderboard.recordRefunds(sparkId, BigDecimal.valueOf(20));
+
+        verify(walletDonationTotalRepository).decreaseTotalAmountsByDonationsOfSpark(eq(sparkId), any());
+        TotalDonationsInfo donationsInfo = donationLeaderboard.getTotalDonationsInfo();
+        assertEquals(BigDecimal.valueOf(30), donationsInfo.getTotalMoneyRaised());
+        assertEquals(2, donationsInfo.getTotalSparksFunded());
+        assertEquals("user2", donationsInfo.getFirstDonorName());
+        assertEquals("user3", donationsInfo.getSecondDonorName());
+        assertNull(donationsInfo.getThirdDonorName());
+    }
+
+    @Test
+    void givenDonationsThroughOtherNodes_whenReload_thenReplaceStatisticsWithDatabaseTotals() {
+        loadLeaderboard(BigDecimal.valueOf(50), 2,
+                total(wallet1, BigDecimal.valueOf(20)),
+                total(wallet2, BigDecimal.valueOf(17)),
+                total(wallet3, BigDecimal.valueOf(13)));
+        when(walletDonationTotalRepository.sumTotalAmount()).thenReturn(BigDecimal.valueOf(80));
+        when(sparkRepository.countByCurrentAmountGreaterThan(BigDecimal.ZERO)).thenReturn(3L);
+        when(walletDonationTotalRepository.findByTotalAmountGreaterThanEqualOrderByTotalAmountDesc(BigDecimal.ONE, Limit.of(3)))
+                .thenReturn(List.of(total(wallet4, BigDecimal.valueOf(30)), total(wallet1, BigDecimal.valueOf(20)), total(wallet2, BigDecimal.valueOf(17))));
+
+        donationLeaderboard.reload();
+
+        TotalDonationsInfo donationsInfo = donationLeaderboard.getTotalDonationsInfo();
+        assertEquals(BigDecimal.valueOf(80), donationsInfo.getTotalMoneyRaised());
+        assertEquals(3, donationsInfo.getTotalSparksFunded());
+        assertEquals("user4", donationsInfo.getFirstDonorName());
+        assertEquals("user1", donationsInfo.getSecondDonorName());
+        assertEquals("user2", donationsInfo.getThirdDonorName());
+        verify(walletDonationTotalRepository, times(1)).insertMissingTotals();
+    }
+
+    private void loadLeaderboard(BigDecimal moneyRaised, long sparksFunded, WalletDonationTotal... topTotals) {
+        when(walletDonationTotalRepository.sumTotalAmount()).thenReturn(moneyRaised);
+        when(sparkRepository.countByCurrentAmountGreaterThan(BigDecimal.ZERO)).thenReturn(sparksFunded);
+        when(walletDonationTotalRepository.findByTotalAmountGreaterThanEqualOrderByTotalAmountDesc(BigDecimal.ONE, Limit.of(3)))
+                .thenReturn(List.of(topTotals));
+        donationLeaderboard.load();
+    }
+
+    private static Wallet createWallet(String username, String profilePicture) {
+        User owner = User.builder()
+                .username(username)
+                .profilePicture(profilePicture)
+                .build();
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .owner(owner)
+                .build();
+        owner.setWallet(wallet);
+        return wallet;
+    }
+
+    private static WalletDonationTotal total(Wallet wallet, BigDecimal amount) {
+        return WalletDonationTotal.builder()
+                .walletId(wallet.getId())
+                .wallet(wallet)
+                .totalAmount(amount)
+                .updatedOn(LocalDateTime.now())
+                .build();
+    }
+}
@@ -2,27 +2,45 @@ package app.donation;
 
 import app.donation.model.Donation;
 import app.donation.repository.DonationRepository;
+import app.donation.service.DonationLeaderboard;
 import app.donation.service.DonationService;
-import app.email.service.EmailService;
+import app.email.service.EmailOutboxService;
+import app.metrics.DomainMetrics;
 import app.spark.model.Spark;
+import app.spark.model.SparkStatus;
 import app.spark.service.SparkService;
 import app.user.model.User;
+import app.user.model.UserStatus;
 import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
+import app.web.dto.DonationFeedItem;
+import app.web.dto.DonationFeedPage;
+import app.web.dto.DonationRequest;
+import app.web.dto.SparkGoalReachedEvent;
 import app.web.dto.TotalDonationsInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 public class DonationServiceUTest {
@@ -34,122 +52,150 @@ public class DonationServiceUTest {
     @Mock
     private WalletService walletService;
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private DonationLeaderboard donationLeaderboard;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DomainMetrics domainMetrics = new DomainMetrics(meterRegistry);
 
     @InjectMocks
     private DonationService donationService;
 
-    private User user1, user2, user3;
-    private Wallet wallet1, wallet2, wallet3, wallet4;
+    private User user;
+    private Spark spark;
+    private DonationRequest donationRequest;
 
     @BeforeEach
     void setUp() {
-        user1 = User.builder()
+        user = User.builder()
                 .username("user1")
-                .profilePicture("www.pic1.com")
+                .userStatus(UserStatus.ACTIVE)
                 .build();
-        user2 = User.builder()
-                .username("user2")
-                .profilePicture("www.pic2.com")
+        user.setWallet(Wallet.builder()
+                .owner(user)
+                .amount(BigDecimal.valueOf(100))
+                .build());
+        spark = Spark.builder()
+                .creator(User.builder()
+                        .email("creator@gmail.com")
+                        .build())
+                .title("Spark")
+                .status(SparkStatus.ACTIVE)
+                .currentAmount(BigDecimal.ZERO)
+                .goalAmount(BigDecimal.valueOf(100))
                 .build();
-        user3 = User.builder()
-                .username("user3")
-                .profilePicture("www.pic3.com")
-                .build();
-        User user4 = User.builder()
-                .username("user4")
-                .profilePicture("www.pic4.com")
+        donationRequest = DonationRequest.builder()
+                .amount(BigDecimal.TEN)
+                .message("Donation message")
                 .build();
+    }
 
-        Donation donation1 = Donation.builder()
-                .amount(BigDecimal.valueOf(10))
-                .build();
-        Donation donation2 = Donation.builder()
-                .amount(BigDecimal.valueOf(5))
-                .build();
-        Donation donation3 = Donation.builder()
-                .amount(BigDecimal.valueOf(2))
-                .build();
-        Donation donation4 = Donation.builder()
-                .amount(BigDecimal.valueOf(1.1))
+    @Test
+    void givenGetTotalDonationInfo_returnTheStatisticsOfTheLeaderboard() {
+        TotalDonationsInfo leaderboardInfo = TotalDonationsInfo.builder()
+                .totalMoneyRaised(BigDecimal.valueOf(60))
+                .totalSparksFunded(4)
                 .build();
+        when(donationLeaderboard.getTotalDonationsInfo()).thenReturn(leaderboardInfo);
 
-        wallet1 = Wallet.builder()
-                .owner(user1)
-                .donations(List.of(donation1, donation2, donation3, donation4))
-                .build();
-        wallet2 = Wallet.builder()
-                .owner(user2)
-                .donations(List.of(donation1, donation2, donation3))
-                .build();
-        wallet3 = Wallet.builder()
-                .owner(user3)
-                .donations(List.of(donation1, donation2))
-                .build();
-        wallet4 = Wallet.builder()
-                .owner(user4)
-                .donations(List.of(donation1))
-                .build();
+        TotalDonationsInfo donationsInfo = donationService.getTotalDonationsInfo();
+        assertSame(leaderboardInfo, donationsInfo);
     }
 
     @Test
-    void givenGetTotalDonationInfo_returnTopThreeDonors() {
-        when(walletService.findAllWallets()).thenReturn(List.of(wallet1, wallet2, wallet3, wallet4));
-        when(sparkService.findAllSparksWithDonations()).thenReturn(List.of(new Spark(), new Spark(), new Spark(), new Spark()));
+    void givenActiveSpark_whenAddDonationToSpark_thenRecordTheDonationInTheLeaderboard() {
+        when(sparkService.getCurrentAmount(spark)).thenReturn(BigDecimal.ZERO);
 
-        TotalDonationsInfo donationsInfo = donationService.getTotalDonationsInfo();
-        assertNotNull(donationsInfo);
-        assertEquals(BigDecimal.valueOf(60), donationsInfo.getTotalMoneyRaised());
-        assertEquals(4, donationsInfo.getTotalSparksFunded());
-        assertEquals(user1.getProfilePicture(), donationsInfo.getFirstDonorImage());
-        assertEquals(user1.getUsername(), donationsInfo.getFirstDonorName());
-        assertEquals(BigDecimal.valueOf(18.1), donationsInfo.getFirstDonorDonations());
-        assertEquals(user2.getProfilePicture(), donationsInfo.getSecondDonorImage());
-        assertEquals(user2.getUsername(), donationsInfo.getSecondDonorName());
-        assertEquals(BigDecimal.valueOf(17), donationsInfo.getSecondDonorDonations());
-        assertEquals(user3.getProfilePicture(), donationsInfo.getThirdDonorImage());
-        assertEquals(user3.getUsername(), donationsInfo.getThirdDonorName());
-        assertEquals(BigDecimal.valueOf(15), donationsInfo.getThirdDonorDonations());
+        donationService.addDonationToSpark(user, spark, donationRequest);
+
+        verify(walletService).reduceAmount(user, BigDecimal.TEN, spark.getId());
+        verify(sparkService).increaseCurrentAmount(spark, BigDecimal.TEN);
+        verify(donationRepository).save(any(Donation.class));
+        verify(donationLeaderboard).recordDonation(user.getWallet(), BigDecimal.TEN);
+        verify(emailOutboxService).enqueueEmail(eq("creator@gmail.com"), eq("Your Spark received donation"), contains("Donation message"));
     }
 
     @Test
-    void givenGetTotalDonationInfo_whenThereIsOnlyOneDonor_returnOneDonors() {
-        when(walletService.findAllWallets()).thenReturn(List.of(wallet1));
-        when(sparkService.findAllSparksWithDonations()).thenReturn(List.of(new Spark(), new Spark(), new Spark(), new Spark()));
+    void givenDonationBelowGoalAmount_whenAddDonationToSpark_thenDoNotPublishGoalReachedEvent() {
+        when(sparkService.getCurrentAmount(spark)).thenReturn(BigDecimal.ONE);
 
-        TotalDonationsInfo donationsInfo = donationService.getTotalDonationsInfo();
-        assertNotNull(donationsInfo);
-        assertEquals(BigDecimal.valueOf(18), donationsInfo.getTotalMoneyRaised());
-        assertEquals(4, donationsInfo.getTotalSparksFunded());
-        assertEquals(user1.getProfilePicture(), donationsInfo.getFirstDonorImage());
-        assertEquals(user1.getUsername(), donationsInfo.getFirstDonorName());
-        assertEquals(BigDecimal.valueOf(18.1), donationsInfo.getFirstDonorDonations());
-        assertNull(donationsInfo.getSecondDonorImage());
-        assertNull(donationsInfo.getSecondDonorName());
-        assertEquals(BigDecimal.ZERO, donationsInfo.getSecondDonorDonations());
-        assertNull(donationsInfo.getThirdDonorImage());
-        assertNull(donationsInfo.getThirdDonorName());
-        assertEquals(BigDecimal.ZERO, donationsInfo.getThirdDonorDonations());
+        donationService.addDonationToSpark(user, spark, donationRequest);
+
+        verify(donationLeaderboard).recordDonation(user.getWallet(), BigDecimal.TEN);
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
-    void givenGetTotalDonationInfo_whenThereIsOnlyOneDonor_andSecondUserWithoutDonations_returnTheDonorsAndFilterOutTheOtherUser() {
-        wallet2.setDonations(new ArrayList<>());
-        when(walletService.findAllWallets()).thenReturn(List.of(wallet1, wallet2));
-        when(sparkService.findAllSparksWithDonations()).thenReturn(List.of(new Spark(), new Spark(), new Spark(), new Spark()));
+    void givenDonationReachesGoalAmount_whenAddDonationToSpark_thenPublishGoalReachedEvent() {
+        when(sparkService.getCurrentAmount(spark)).thenReturn(BigDecimal.valueOf(90));
 
-        TotalDonationsInfo donationsInfo = donationService.getTotalDonationsInfo();
-        assertNotNull(donationsInfo);
-        assertEquals(BigDecimal.valueOf(18), donationsInfo.getTotalMoneyRaised());
-        assertEquals(4, donationsInfo.getTotalSparksFunded());
-        assertEquals(user1.getProfilePicture(), donationsInfo.getFirstDonorImage());
-        assertEquals(user1.getUsername(), donationsInfo.getFirstDonorName());
-        assertEquals(BigDecimal.valueOf(18.1), donationsInfo.getFirstDonorDonations());
-        assertNull(donationsInfo.getSecondDonorImage());
-        assertNull(donationsInfo.getSecondDonorName());
-        assertEquals(BigDecimal.ZERO, donationsInfo.getSecondDonorDonations());
-        assertNull(donationsInfo.getThirdDonorImage());
-        assertNull(donationsInfo.getThirdDonorName());
-        assertEquals(BigDecimal.ZERO, donationsInfo.getThirdDonorDonations());
+        donationService.addDonationToSpark(user, spark, donationRequest);
+
+        verify(eventPublisher).publishEvent(SparkGoalReachedEvent.builder()
+                .sparkId(spark.getId())
+                .build());
+    }
+
+    @Test
+    void givenInactiveUser_whenAddDonationToSpark_thenThrowsExceptionAndNothingIsRecorded() {
+        user.setUserStatus(UserStatus.INACTIVE);
+
+        assertThrows(AccessDeniedException.class, () -> donationService.addDonationToSpark(user, spark, donationRequest));
+        verifyNoInteractions(walletService, donationRepository, donationLeaderboard, emailOutboxService, eventPublisher);
+        assertEquals(1, meterRegistry.get("sparkfund.donation.add").tags("outcome", "failure", "exception", "AccessDeniedException").timer().count());
+    }
+
+    @Test
+    void givenDonationWithUsedIdempotencyKey_whenAddDonationToSpark_thenTheDonationIsNotExecutedAgain() {
+        user.getWallet().setId(UUID.randomUUID());
+        donationRequest.setIdempotencyKey(UUID.randomUUID());
+        when(donationRepository.existsByWalletIdAndIdempotencyKey(user.getWallet().getId(), donationRequest.getIdempotencyKey())).thenReturn(true);
+
+        donationService.addDonationToSpark(user, spark, donationRequest);
+
+        verify(donationRepository, never()).save(any());
+        verifyNoInteractions(walletService, sparkService, donationLeaderboard, emailOutboxService, eventPublisher);
+        assertEquals(1, meterRegistry.get("sparkfund.donation.add").tag("outcome", "replayed").timer().count());
+    }
+
+    @Test
+    void givenMoreDonationsThanPageSize_whenGetDonationFeed_thenReturnPageWithCursorOfLastDonation() {
+        UUID sparkId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        List<DonationFeedItem> donations = IntStream.range(0, 11)
+                .mapToObj(i -> DonationFeedItem.builder()
+                        .id(UUID.randomUUID())
+                        .createdOn(now.minusMinutes(i))
+                        .build())
+                .toList();
+        when(donationRepository.findFeedBySparkId(eq(sparkId), any(Limit.class))).thenReturn(donations);
+
+        DonationFeedPage donationFeed = donationService.getDonationFeed(sparkId, null, null);
+
+        assertEquals(10, donationFeed.getDonations().size());
+        assertTrue(donationFeed.isHasNextPage());
+        assertEquals(donations.get(9).getCreatedOn(), donationFeed.getNextCreatedOn());
+        assertEquals(donations.get(9).getId(), donationFeed.getNextId());
+        verify(donationRepository).findFeedBySparkId(sparkId, Limit.of(11));
+    }
+
+    @Test
+    void givenCursor_whenGetDonationFeed_thenReadDonationsAfterCursorWithoutNextPage() {
+        UUID sparkId = UUID.randomUUID();
+        UUID afterId = UUID.randomUUID();
+        LocalDateTime afterCreatedOn = LocalDateTime.now();
+        when(donationRepository.findFeedBySparkIdAfter(eq(sparkId), eq(afterCreatedOn), eq(afterId), any(Limit.class)))
+                .thenReturn(List.of(DonationFeedItem.builder().id(UUID.randomUUID()).build()));
+
+        DonationFeedPage donationFeed = donationService.getDonationFeed(sparkId, afterCreatedOn, afterId);
+
+        assertEquals(1, donationFeed.getDonations().size());
+        assertFalse(donationFeed.isHasNextPage());
+        assertNull(donationFeed.getNextId());
+        verify(donationRepository, never()).findFeedBySparkId(any(), any());
     }
 }
@@ -0,0 +1,125 @@
+package app.email;
+
+import app.email.client.dto.EmailRequest;
+import app.email.model.OutboxEmail;
+import app.email.model.OutboxEmailStatus;
+import app.email.repository.OutboxEmailRepository;
+import app.email.service.EmailOutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxServiceUTest {
+
+    @Mock
+    private OutboxEmailRepository outboxEmailRepository;
+
+    private EmailOutboxService emailOutboxService;
+
+    @BeforeEach
+    void setUp() {
+        emailOutboxService = new EmailOutboxService(outboxEmailRepository, 3, Duration.ofSeconds(10), Duration.ofSeconds(30));
+    }
+
+    @Test
+    void givenEmail_whenEnqueueEmail_thenSavePendingEmailDueNow() {
+        emailOutboxService.enqueueEmail("user@gmail.com", "Subject", "Body");
+
+        ArgumentCaptor<OutboxEmail> emailCaptor = ArgumentCaptor.forClass(OutboxEmail.class);
+        verify(outboxEmailRepository).save(emailCaptor.capture());
+        OutboxEmail email = emailCaptor.getValue();
+        assertEquals("user@gmail.com", email.getUserEmail());
+        assertEquals("Subject", email.getSubject());
+        assertEquals("Body", email.getBody());
+        assertEquals(OutboxEmailStatus.PENDING, email.getStatus());
+        assertEquals(0, email.getAttempts());
+        assertFalse(email.getNextAttemptOn().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void givenManyEmails_whenEnqueueEmails_thenSaveThemAtOnce() {
+        emailOutboxService.enqueueEmails(List.of(
+                EmailRequest.builder().userEmail("user1@gmail.com").subject("Subject").body("Body 1").build(),
+                EmailRequest.builder().userEmail("user2@gmail.com").subject("Subject").body("Body 2").build()));
+
+        ArgumentCaptor<List<OutboxEmail>> emailsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(outboxEmailRepository).saveAll(emailsCaptor.capture());
+        assertEquals(2, emailsCaptor.getValue().size());
+        assertEquals("Body 2", emailsCaptor.getValue().get(1).getBody());
+    }
+
+    @Test
+    void givenDueEmails_whenClaimDueEmails_thenPostponeThemWhileTheyAreSent() {
+        OutboxEmail email = pendingEmail(0);
+        when(outboxEmailRepository.findAllByStatusAndNextAttemptOnLessThanEqualOrderByNextAttemptOn(eq(OutboxEmailStatus.PENDING), any(), eq(Limit.of(50))))
+                .thenReturn(List.of(email));
+
+        List<OutboxEmail> claimedEmails = emailOutboxService.claimDueEmails(50);
+
+        assertEquals(List.of(email), claimedEmails);
+        assertTrue(email.getNextAttemptOn().isAfter(LocalDateTime.now().plusMinutes(4)));
+    }
+
+    @Test
+    void givenSentAndFailedEmails_whenRecordResults_thenDeleteSentAndBackOffFailed() {
+        OutboxEmail sentEmail = pendingEmail(0);
+        OutboxEmail firstFailure = pendingEmail(0);
+        OutboxEmail thirdFailure = pendingEmail(2);
+        OutboxEmail rejectedEmail = pendingEmail(0);
+
+        emailOutboxService.recordResults(List.of(sentEmail)
+                , Map.of(firstFailure, "Connection refused", thirdFailure, "Connection refused")
+                , Map.of(rejectedEmail, "Rejected with status 400"));
+
+        verify(outboxEmailRepository).deleteAllInBatch(List.of(sentEmail));
+        assertEquals(1, firstFailure.getAttempts());
+        assertEquals(OutboxEmailStatus.PENDING, firstFailure.getStatus());
+        assertTrue(firstFailure.getNextAttemptOn().isAfter(LocalDateTime.now().plusSeconds(5)));
+        assertTrue(firstFailure.getNextAttemptOn().isBefore(LocalDateTime.now().plusSeconds(15)));
+        assertEquals("Connection refused", firstFailure.getLastError());
+        // The max attempts are reached
+        assertEquals(3, thirdFailure.getAttempts());
+        assertEquals(OutboxEmailStatus.FAILED, thirdFailure.getStatus());
+        assertEquals(OutboxEmailStatus.FAILED, rejectedEmail.getStatus());
+    }
+
+    @Test
+    void givenRepeatedFailures_whenRecordResults_thenBackoffDoesNotExceedMaximum() {
+        OutboxEmail email = pendingEmail(1);
+
+        emailOutboxService.recordResults(List.of(), Map.of(email, "Connection refused"), Map.of());
+
+        // 10s * 2 = 20s for the second attempt, below the 30s maximum
+        assertTrue(email.getNextAttemptOn().isAfter(LocalDateTime.now().plusSeconds(15)));
+        assertTrue(email.getNextAttemptOn().isBefore(LocalDateTime.now().plusSeconds(25)));
+        verify(outboxEmailRepository, never()).deleteAllInBatch(any());
+    }
+
+    private static OutboxEmail pendingEmail(int attempts) {
+        return OutboxEmail.builder()
+                .userEmail("user@gmail.com")
+                .subject("Subject")
+                .body("Body")
+                .status(OutboxEmailStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptOn(LocalDateTime.now())
+                .createdOn(LocalDateTime.now())
+                .build();
+    }
+}
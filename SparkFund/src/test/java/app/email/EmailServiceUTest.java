@@ -4,19 +4,28 @@ import app.email.client.EmailClient;
 import app.email.client.dto.EmailRequest;
 import app.email.client.dto.EmailResponse;
 import app.email.service.EmailService;
+import app.metrics.DomainMetrics;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -27,6 +36,10 @@ public class EmailServiceUTest {
     @Mock
     private EmailClient emailClient;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DomainMetrics domainMetrics = new DomainMetrics(meterRegistry);
+
     @InjectMocks
     private EmailService emailService;
 
@@ -62,6 +75,25 @@ public class EmailServiceUTest {
 
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, statusCode);
         verify(emailClient, times(1)).sendEmail(emailRequest);
+        assertEquals(1, meterRegistry.get("sparkfund.email.client").tags("operation", "send", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void givenMailServiceRejectsTheEmail_whenSendEmail_thenReturnTheStatusOfTheReply() {
+        when(emailClient.sendEmail(any(EmailRequest.class))).thenThrow(badRequest());
+
+        HttpStatusCode statusCode = emailService.sendEmail("user@example.com", "Test Subject", "Test Body");
+
+        assertEquals(HttpStatus.BAD_REQUEST, statusCode);
+        assertEquals(1, meterRegistry.get("sparkfund.email.client").tags("operation", "send", "outcome", "failure").timer().count());
+    }
+
+    @Test
+    void givenMailServiceIsUnreachable_whenSendEmail_thenThrow() {
+        RetryableException connectionRefused = new RetryableException(-1, "Connection refused", Request.HttpMethod.POST, (Long) null, request());
+        when(emailClient.sendEmail(any(EmailRequest.class))).thenThrow(connectionRefused);
+
+        assertThrows(RetryableException.class, () -> emailService.sendEmail("user@example.com", "Test Subject", "Test Body"));
     }
 
     @Test
@@ -107,4 +139,12 @@ public class EmailServiceUTest {
         emailService.deletedFailedEmail(emailId);
         verify(emailClient, times(1)).deletedFailedEmail(emailId);
     }
+
+    private static FeignException.BadRequest badRequest() {
+        return new FeignException.BadRequest("Invalid email address", request(), null, Map.of());
+    }
+
+    private static Request request() {
+        return Request.create(Request.HttpMethod.POST, "http://localhost:8081/api/v1/emails", Map.of(), null, StandardCharsets.UTF_8, null);
+    }
 }
@@ -0,0 +1,124 @@
+package app.home;
+
+import app.donation.service.DonationService;
+import app.home.service.HomeSnapshotService;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.web.dto.HomeSnapshot;
+import app.web.dto.SparkCard;
+import app.web.dto.TotalDonationsInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class HomeSnapshotServiceUTest {
+
+    @Mock
+    private SparkService sparkService;
+    @Mock
+    private DonationService donationService;
+
+    private HomeSnapshotService homeSnapshotService;
+
+    @AfterEach
+    void tearDown() {
+        homeSnapshotService.shutdown();
+    }
+
+    @Test
+    void givenNoSnapshot_whenGetSnapshot_thenBuildIt() {
+        homeSnapshotService = new HomeSnapshotService(sparkService, donationService, Duration.ofMinutes(1), 10);
+        SparkCard spark = SparkCard.builder()
+                .id(UUID.randomUUID())
+                .title("Spark")
+                .status(SparkStatus.ACTIVE)
+                .currentAmount(BigDecimal.ONE)
+                .goalAmount(BigDecimal.TEN)
+                .build();
+        TotalDonationsInfo donationsInfo = TotalDonationsInfo.builder()
+                .totalMoneyRaised(BigDecimal.ONE)
+                .build();
+        when(sparkService.getLatestActiveSparkCards(10)).thenReturn(List.of(spark));
+        when(donationService.getTotalDonationsInfo()).thenReturn(donationsInfo);
+
+        HomeSnapshot snapshot = homeSnapshotService.getSnapshot();
+
+        assertEquals(1, snapshot.getLatestSparks().size());
+        assertEquals(spark.getId(), snapshot.getLatestSparks().get(0).getId());
+        assertEquals(spark.getTitle(), snapshot.getLatestSparks().get(0).getTitle());
+        assertSame(donationsInfo, snapshot.getDonationsInfo());
+    }
+
+    @Test
+    void givenFreshSnapshot_whenGetSnapshot_thenServeItWithoutRebuilding() {
+        homeSnapshotService = new HomeSnapshotService(sparkService, donationService, Duration.ofMinutes(1), 10);
+        when(sparkService.getLatestActiveSparkCards(10)).thenReturn(List.of());
+
+        HomeSnapshot firstSnapshot = homeSnapshotService.getSnapshot();
+        HomeSnapshot secondSnapshot = homeSnapshotService.getSnapshot();
+
+        assertSame(firstSnapshot, secondSnapshot);
+        verify(sparkService, times(1)).getLatestActiveSparkCards(10);
+    }
+
+    @Test
+    void givenStaleSnapshot_whenGetSnapshot_thenServeItAndRebuildInBackground() {
+        homeSnapshotService = new HomeSnapshotService(sparkService, donationService, Duration.ZERO, 10);
+        when(sparkService.getLatestActiveSparkCards(10)).thenReturn(List.of());
+        HomeSnapshot staleSnapshot = homeSnapshotService.getSnapshot();
+
+        HomeSnapshot servedSnapshot = homeSnapshotService.getSnapshot();
+
+        assertSame(staleSnapshot, servedSnapshot);
+        verify(sparkService, timeout(1000).times(2)).getLatestActiveSparkCards(10);
+    }
+
+    @Test
+    void givenNoSnapshot_whenConcurrentGetSnapshot_thenBuildItOnce() throws Exception {
+        homeSnapshotService = new HomeSnapshotService(sparkService, donationService, Duration.ofMinutes(1), 10);
+        CountDownLatch rebuildStarted = new CountDownLatch(1);
+        CountDownLatch finishRebuild = new CountDownLatch(1);
+        when(sparkService.getLatestActiveSparkCards(10)).thenAnswer(invocation -> {
+            rebuildStarted.countDown();
+            finishRebuild.await();
+            return List.of();
+        });
+        ExecutorService requests = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<HomeSnapshot>> snapshots = new ArrayList<>();
+            snapshots.add(requests.submit(homeSnapshotService::getSnapshot));
+            rebuildStarted.await();
+            for (int i = 0; i < 3; i++) {
+                snapshots.add(requests.submit(homeSnapshotService::getSnapshot));
+            }
+            finishRebuild.countDown();
+
+            HomeSnapshot firstSnapshot = snapshots.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<HomeSnapshot> snapshot : snapshots) {
+                assertSame(firstSnapshot, snapshot.get(5, TimeUnit.SECONDS));
+            }
+            verify(sparkService, times(1)).getLatestActiveSparkCards(10);
+        } finally {
+            requests.shutdownNow();
+        }
+    }
+}
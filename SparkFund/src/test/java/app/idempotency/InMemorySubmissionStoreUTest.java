@@ -0,0 +1,80 @@
+package app.idempotency;
+
+import app.idempotency.model.SubmissionKey;
+import app.idempotency.service.InMemorySubmissionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InMemorySubmissionStoreUTest {
+
+    private static final Duration WINDOW = Duration.ofSeconds(5);
+
+    private final AtomicLong nanoTime = new AtomicLong();
+    private InMemorySubmissionStore submissionStore;
+    private SubmissionKey submissionKey;
+
+    @BeforeEach
+    void setUp() {
+        submissionStore = new InMemorySubmissionStore(WINDOW, 1000, nanoTime::get);
+        submissionKey = new SubmissionKey("donateToSpark", UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    @Test
+    void givenAcceptedSubmission_whenSameSubmissionWithinWindow_thenItIsRejected() {
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+
+        nanoTime.addAndGet(WINDOW.minusSeconds(1).toNanos());
+
+        assertFalse(submissionStore.tryAcquire(new SubmissionKey("donateToSpark", submissionKey.targetId(), submissionKey.userId())));
+    }
+
+    @Test
+    void givenAcceptedSubmission_whenSameSubmissionAfterWindow_thenItIsAccepted() {
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+
+        nanoTime.addAndGet(WINDOW.plusSeconds(1).toNanos());
+
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+    }
+
+    @Test
+    void givenReleasedSubmission_whenSubmittedAgain_thenItIsAccepted() {
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+
+        submissionStore.release(submissionKey);
+
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+    }
+
+    @Test
+    void givenParallelSameSubmissions_whenTryAcquire_thenOnlyOneIsAccepted() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Callable<Boolean>> submissions = IntStream.range(0, 32)
+                .<Callable<Boolean>>mapToObj(i -> () -> submissionStore.tryAcquire(submissionKey))
+                .toList();
+
+        long accepted = 0;
+        for (Future<Boolean> result : executor.invokeAll(submissions)) {
+            if (result.get()) {
+                accepted++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, accepted);
+    }
+}
@@ -0,0 +1,109 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.email.client.EmailClient;
+import app.security.AuthenticationDetails;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class DonationExportITest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private DonationService donationService;
+    @MockitoBean
+    private EmailClient emailClient;
+
+    @Test
+    void adminExportsDonationsAsCsv_withSparkTitleAndDonorUsername() throws Exception {
+        User creator = registerUser("ExportCreator");
+        User donor = registerUser("ExportDonor");
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Export Spark")
+                .description("Spark Description for integration testing of the donation export")
+                .goalAmount(BigDecimal.valueOf(100000))
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+        donationService.addDonationToSpark(donor, spark, DonationRequest.builder()
+                .amount(BigDecimal.valueOf(25))
+                .message("Exported donation")
+                .build());
+
+        MvcResult result = mockMvc.perform(get("/donations/export").param("format", "CSV").with(user(principal(creator, UserRole.ADMIN))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"donations.csv\""))
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(content().string(containsString(",25.00,Exported donation," + spark.getId() + ",Export Spark,ExportDonor\n")));
+    }
+
+    @Test
+    void userWhoIsNotAdmin_cannotExportDonations() throws Exception {
+        User user = registerUser("ExportUser");
+
+        mockMvc.perform(get("/donations/export").with(user(principal(user, UserRole.USER))))
+                .andExpect(status().isNotFound());
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        return userService.getUserById(user.getId());
+    }
+
+    private static AuthenticationDetails principal(User user, UserRole role) {
+        return new AuthenticationDetails(user.getId(), user.getUsername(), user.getPassword(), role, UserStatus.ACTIVE);
+    }
+}
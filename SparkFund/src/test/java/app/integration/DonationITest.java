@@ -1,7 +1,9 @@
 package app.integration;
 
-import app.donation.model.Donation;
+import app.donation.repository.WalletDonationTotalRepository;
+import app.donation.service.DonationLeaderboard;
 import app.donation.service.DonationService;
+import app.email.client.EmailClient;
 import app.spark.model.Spark;
 import app.spark.model.SparkCategory;
 import app.spark.model.SparkStatus;
@@ -14,18 +16,30 @@ import app.user.service.UserService;
 import app.wallet.model.Wallet;
 import app.wallet.repository.WalletRepository;
 import app.wallet.service.WalletService;
+import app.web.dto.DonationFeedItem;
+import app.web.dto.DonationFeedPage;
 import app.web.dto.DonationRequest;
 import app.web.dto.RegisterRequest;
+import app.web.dto.TotalDonationsInfo;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ActiveProfiles("test")
 @SpringBootTest
@@ -45,6 +59,12 @@ public class DonationITest {
     private WalletRepository walletRepository;
     @Autowired
     private DonationService donationService;
+    @Autowired
+    private WalletDonationTotalRepository walletDonationTotalRepository;
+    @Autowired
+    private DonationLeaderboard donationLeaderboard;
+    @MockitoBean
+    private EmailClient emailClient;
 
     @Test
     void registerDonorAndDonateToSpark_happyPath() {
@@ -95,14 +115,173 @@ public class DonationITest {
                 .build();
         donationService.addDonationToSpark(donor, spark, donationRequest);
 
-        spark = sparkService.getSparkById(spark.getId());
-        assertEquals(1, spark.getDonations().size());
-        Donation donation = spark.getDonations().get(0);
+        spark = sparkService.getSparkWithCreatorById(spark.getId());
+        DonationFeedPage donationFeed = donationService.getDonationFeed(spark.getId(), null, null);
+        assertEquals(1, donationFeed.getDonations().size());
+        DonationFeedItem donation = donationFeed.getDonations().get(0);
         assertEquals(0, BigDecimal.valueOf(51).compareTo(spark.getCurrentAmount()));
-        assertEquals(0, BigDecimal.valueOf(50).compareTo(donation.getAmount()));
         assertEquals(donationRequest.getMessage(), donation.getMessage());
-        assertEquals(spark, donation.getSpark());
+        assertEquals(donor.getUsername(), donation.getDonorUsername());
         assertNotNull(donation.getCreatedOn());
         assertEquals(0, BigDecimal.valueOf(50).compareTo(donor.getWallet().getAmount()));
+        assertEquals(1, walletService.getWalletDonationInfo(donor.getWallet()).getTotalSparks());
+    }
+
+    @Test
+    void donateAndCancelSpark_updatesDonationStatistics() {
+        User sparkCreator = userService.register(RegisterRequest.builder()
+                .username("LeaderboardCreator")
+                .email("leaderboardCreator@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        Spark spark = sparkRepository.save(Spark.builder()
+                .creator(sparkCreator)
+                .title("Leaderboard Spark")
+                .description("Spark Description for integration testing of the donation statistics")
+                .goalAmount(BigDecimal.valueOf(100000))
+                .currentAmount(BigDecimal.ZERO)
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .createdOn(LocalDateTime.now())
+                .build());
+        User donor = userService.register(RegisterRequest.builder()
+                .username("LeaderboardDonor")
+                .email("leaderboardDonor@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        donor = userService.getUserById(donor.getId());
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(50000), UserStatus.ACTIVE);
+        sparkService.applyPendingAmountIncrements();
+        donationLeaderboard.reload();
+        TotalDonationsInfo initialInfo = donationService.getTotalDonationsInfo();
+
+        donationService.addDonationToSpark(donor, spark, DonationRequest.builder()
+                .amount(BigDecimal.valueOf(40000))
+                .message("Donation message")
+                .build());
+
+        TotalDonationsInfo donatedInfo = donationService.getTotalDonationsInfo();
+        assertEquals(0, initialInfo.getTotalMoneyRaised().add(BigDecimal.valueOf(40000)).compareTo(donatedInfo.getTotalMoneyRaised()));
+        // The funded Sparks are counted in the database when the statistics are reloaded
+        sparkService.applyPendingAmountIncrements();
+        donationLeaderboard.reload();
+        donatedInfo = donationService.getTotalDonationsInfo();
+        assertEquals(0, initialInfo.getTotalMoneyRaised().add(BigDecimal.valueOf(40000)).compareTo(donatedInfo.getTotalMoneyRaised()));
+        assertEquals(initialInfo.getTotalSparksFunded() + 1, donatedInfo.getTotalSparksFunded());
+        assertEquals(donor.getUsername(), donatedInfo.getFirstDonorName());
+        assertEquals(0, BigDecimal.valueOf(40000).compareTo(donatedInfo.getFirstDonorDonations()));
+        assertEquals(0, BigDecimal.valueOf(40000).compareTo(walletDonationTotalRepository.findTotalAmountByWalletId(donor.getWallet().getId())));
+
+        sparkService.cancelSparkAndReturnDonations(sparkService.getSparkWithCreatorById(spark.getId()));
+
+        TotalDonationsInfo cancelledInfo = donationService.getTotalDonationsInfo();
+        assertEquals(0, initialInfo.getTotalMoneyRaised().compareTo(cancelledInfo.getTotalMoneyRaised()));
+        donationLeaderboard.reload();
+        cancelledInfo = donationService.getTotalDonationsInfo();
+        assertEquals(0, initialInfo.getTotalMoneyRaised().compareTo(cancelledInfo.getTotalMoneyRaised()));
+        assertEquals(initialInfo.getTotalSparksFunded(), cancelledInfo.getTotalSparksFunded());
+        assertNotEquals(donor.getUsername(), cancelledInfo.getFirstDonorName());
+        assertEquals(0, BigDecimal.ZERO.compareTo(walletDonationTotalRepository.findTotalAmountByWalletId(donor.getWallet().getId())));
+        assertEquals(0, BigDecimal.valueOf(50000).compareTo(walletRepository.findAmountById(donor.getWallet().getId())));
+    }
+
+    @Test
+    void donationReachingGoalAmount_completesSparkWithoutWaitingForScheduler() throws InterruptedException {
+        User sparkCreator = userService.register(RegisterRequest.builder()
+                .username("GoalCreator")
+                .email("goalCreator@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        Spark spark = sparkRepository.save(Spark.builder()
+                .creator(sparkCreator)
+                .title("Goal Spark")
+                .description("Spark Description for integration testing of the Spark completion")
+                .goalAmount(BigDecimal.valueOf(100))
+                .currentAmount(BigDecimal.ZERO)
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .createdOn(LocalDateTime.now())
+                .build());
+        User donor = userService.register(RegisterRequest.builder()
+                .username("GoalDonor")
+                .email("goalDonor@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        donor = userService.getUserById(donor.getId());
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+
+        donationService.addDonationToSpark(donor, spark, DonationRequest.builder()
+                .amount(BigDecimal.valueOf(100))
+                .message("Donation message")
+                .build());
+
+        // The Spark is completed asynchronously after the donation is committed
+        SparkStatus status = sparkService.getSparkById(spark.getId()).getStatus();
+        for (int i = 0; i < 50 && status == SparkStatus.ACTIVE; i++) {
+            Thread.sleep(100);
+            status = sparkService.getSparkById(spark.getId()).getStatus();
+        }
+        assertEquals(SparkStatus.COMPLETED, status);
+    }
+
+    @Test
+    void donationFeed_pagesThroughAllDonations_newestFirst() {
+        User creator = userService.register(RegisterRequest.builder()
+                .username("FeedCreator")
+                .email("feedCreator@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        Spark spark = sparkRepository.save(Spark.builder()
+                .creator(creator)
+                .title("Feed Spark")
+                .description("Spark Description for integration testing of the donation feed")
+                .goalAmount(BigDecimal.valueOf(1000))
+                .currentAmount(BigDecimal.ZERO)
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .createdOn(LocalDateTime.now())
+                .build());
+        User donor = userService.register(RegisterRequest.builder()
+                .username("FeedDonor")
+                .email("feedDonor@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        donor = userService.getUserById(donor.getId());
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        Set<String> messages = new HashSet<>();
+        for (int i = 0; i < 23; i++) {
+            messages.add("Donation " + i);
+            donationService.addDonationToSpark(donor, spark, DonationRequest.builder()
+                    .amount(BigDecimal.ONE)
+                    .message("Donation " + i)
+                    .build());
+        }
+
+        List<DonationFeedItem> feed = new ArrayList<>();
+        List<Integer> pageSizes = new ArrayList<>();
+        DonationFeedPage page = donationService.getDonationFeed(spark.getId(), null, null);
+        feed.addAll(page.getDonations());
+        pageSizes.add(page.getDonations().size());
+        while (page.isHasNextPage()) {
+            page = donationService.getDonationFeed(spark.getId(), page.getNextCreatedOn(), page.getNextId());
+            feed.addAll(page.getDonations());
+            pageSizes.add(page.getDonations().size());
+        }
+
+        assertEquals(List.of(10, 10, 3), pageSizes);
+        assertEquals(messages, feed.stream().map(DonationFeedItem::getMessage).collect(Collectors.toSet()));
+        for (int i = 1; i < feed.size(); i++) {
+            assertFalse(feed.get(i).getCreatedOn().isAfter(feed.get(i - 1).getCreatedOn()));
+        }
+        assertTrue(feed.stream().allMatch(donation -> "FeedDonor".equals(donation.getDonorUsername())));
     }
 }
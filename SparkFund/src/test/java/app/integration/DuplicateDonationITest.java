@@ -0,0 +1,98 @@
+package app.integration;
+
+import app.email.client.EmailClient;
+import app.security.AuthenticationDetails;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletService;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class DuplicateDonationITest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private WalletRepository walletRepository;
+    @Autowired
+    private SparkService sparkService;
+    @MockitoBean
+    private EmailClient emailClient;
+
+    @Test
+    void invalidDonation_thenCorrectedDonationRightAway_isDonated() throws Exception {
+        User creator = registerUser("DuplicateCreator");
+        User donor = registerUser("DuplicateDonor");
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Duplicate Spark")
+                .description("Spark Description for integration testing of the duplicate donations")
+                .goalAmount(BigDecimal.valueOf(100000))
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+        AuthenticationDetails principal = new AuthenticationDetails(donor.getId(), donor.getUsername(), donor.getPassword(), UserRole.USER, UserStatus.ACTIVE);
+
+        mockMvc.perform(post("/{id}/donation", spark.getId())
+                        .param("amount", "0")
+                        .param("message", "Donation message")
+                        .with(user(principal))
+                        .with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(view().name("donation"))
+                .andExpect(model().attributeHasFieldErrors("donationRequest", "amount"));
+
+        mockMvc.perform(post("/{id}/donation", spark.getId())
+                        .param("amount", "30")
+                        .param("message", "Donation message")
+                        .with(user(principal))
+                        .with(csrf()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/" + spark.getId() + "/spark"));
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(walletRepository.findAmountById(donor.getWallet().getId())));
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        return userService.getUserById(user.getId());
+    }
+}
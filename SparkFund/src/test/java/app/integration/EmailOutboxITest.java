@@ -0,0 +1,113 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.email.client.EmailClient;
+import app.email.client.dto.EmailRequest;
+import app.email.model.OutboxEmail;
+import app.email.repository.OutboxEmailRepository;
+import app.email.service.EmailOutboxService;
+import app.email.service.EmailService;
+import app.scheduler.EmailOutboxScheduler;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class EmailOutboxITest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private DonationService donationService;
+    @Autowired
+    private EmailService emailService;
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+    @MockitoBean
+    private EmailClient emailClient;
+
+    @Test
+    void donateToSpark_emailIsSavedWithTheDonationAndSentByTheDispatcher() {
+        User creator = registerUser("OutboxCreator");
+        User donor = registerUser("OutboxDonor");
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Outbox Spark")
+                .description("Spark Description for integration testing of the email outbox")
+                .goalAmount(BigDecimal.valueOf(1000))
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+
+        donationService.addDonationToSpark(donor, spark, DonationRequest.builder()
+                .amount(BigDecimal.TEN)
+                .message("Outbox message")
+                .build());
+
+        // The mail service is not called while the donation is made
+        verify(emailClient, never()).sendEmail(any());
+        List<OutboxEmail> creatorEmails = findEmailsTo(creator.getEmail());
+        assertEquals(1, creatorEmails.size());
+        assertTrue(creatorEmails.get(0).getBody().contains("Outbox message"));
+
+        when(emailClient.sendEmail(any())).thenReturn(ResponseEntity.ok().build());
+        EmailOutboxScheduler dispatcher = new EmailOutboxScheduler(emailOutboxService, emailService, 50, 4, Duration.ofSeconds(10), Duration.ofMinutes(1));
+        try {
+            dispatcher.dispatchEmails();
+        } finally {
+            dispatcher.shutdown();
+        }
+
+        ArgumentCaptor<EmailRequest> requestCaptor = ArgumentCaptor.forClass(EmailRequest.class);
+        verify(emailClient, atLeastOnce()).sendEmail(requestCaptor.capture());
+        assertTrue(requestCaptor.getAllValues().stream().anyMatch(request -> creator.getEmail().equals(request.getUserEmail())));
+        assertTrue(findEmailsTo(creator.getEmail()).isEmpty());
+    }
+
+    private List<OutboxEmail> findEmailsTo(String userEmail) {
+        return outboxEmailRepository.findAll().stream()
+                .filter(email -> userEmail.equals(email.getUserEmail()))
+                .toList();
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        return userService.getUserById(user.getId());
+    }
+}
@@ -0,0 +1,149 @@
+package app.integration;
+
+import app.donation.model.Donation;
+import app.donation.repository.DonationRepository;
+import app.donation.service.DonationService;
+import app.email.client.EmailClient;
+import app.money.Money;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.repostiroty.SparkRepository;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.model.WalletTransaction;
+import app.wallet.model.WalletTransactionType;
+import app.wallet.repository.WalletRepository;
+import app.wallet.repository.WalletTransactionRepository;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class IdempotencyKeyITest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SparkRepository sparkRepository;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private WalletRepository walletRepository;
+    @Autowired
+    private WalletTransactionRepository walletTransactionRepository;
+    @Autowired
+    private DonationService donationService;
+    @Autowired
+    private DonationRepository donationRepository;
+    @MockitoBean
+    private EmailClient emailClient;
+
+    private User donor;
+    private Spark spark;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User sparkCreator = userService.register(RegisterRequest.builder()
+                .username("KeyCreator" + suffix)
+                .email("keyCreator" + suffix + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        spark = sparkRepository.save(Spark.builder()
+                .creator(sparkCreator)
+                .title("Idempotency Spark")
+                .description("Spark Description for integration testing of the idempotency keys")
+                .goalAmount(BigDecimal.valueOf(100000))
+                .currentAmount(BigDecimal.ZERO)
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .createdOn(LocalDateTime.now())
+                .build());
+        User registeredDonor = userService.register(RegisterRequest.builder()
+                .username("KeyDonor" + suffix)
+                .email("keyDonor" + suffix + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        donor = userService.getUserById(registeredDonor.getId());
+    }
+
+    @Test
+    void replayedTopUp_addsTheFundsOnce() {
+        UUID idempotencyKey = UUID.randomUUID();
+
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE, idempotencyKey);
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE, idempotencyKey);
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(walletRepository.findAmountById(donor.getWallet().getId())));
+        assertTrue(walletService.isTopUpSaved(donor.getWallet(), idempotencyKey));
+    }
+
+    @Test
+    void replayedDonation_isDonatedOnce() {
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        DonationRequest donationRequest = DonationRequest.builder()
+                .amount(BigDecimal.valueOf(30))
+                .message("Donation message")
+                .idempotencyKey(UUID.randomUUID())
+                .build();
+
+        donationService.addDonationToSpark(donor, spark, donationRequest);
+        donationService.addDonationToSpark(donor, spark, donationRequest);
+
+        assertEquals(0, BigDecimal.valueOf(70).compareTo(walletRepository.findAmountById(donor.getWallet().getId())));
+        assertEquals(0, BigDecimal.valueOf(30).compareTo(sparkService.getCurrentAmount(spark)));
+        assertTrue(donationService.isDonationSaved(donor, donationRequest.getIdempotencyKey()));
+    }
+
+    @Test
+    void sameIdempotencyKeyOfTheSameWallet_isRejectedByTheUniqueIndex() {
+        UUID idempotencyKey = UUID.randomUUID();
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE, idempotencyKey);
+
+        // A parallel replay that passed the check before the first top-up was committed
+        assertThrows(DataIntegrityViolationException.class, () -> walletTransactionRepository.saveAndFlush(WalletTransaction.builder()
+                .walletId(donor.getWallet().getId())
+                .type(WalletTransactionType.TOP_UP)
+                .amount(Money.euroCents(10000))
+                .balance(Money.euroCents(20000))
+                .idempotencyKey(idempotencyKey)
+                .createdOn(LocalDateTime.now())
+                .build()));
+        assertThrows(DataIntegrityViolationException.class, () -> {
+            for (int i = 0; i < 2; i++) {
+                donationRepository.saveAndFlush(Donation.builder()
+                        .amount(BigDecimal.ONE)
+                        .message("Donation message")
+                        .spark(spark)
+                        .wallet(donor.getWallet())
+                        .idempotencyKey(idempotencyKey)
+                        .createdOn(LocalDateTime.now())
+                        .build());
+            }
+        });
+    }
+}
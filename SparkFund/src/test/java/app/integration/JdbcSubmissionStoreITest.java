@@ -0,0 +1,58 @@
+package app.integration;
+
+import app.idempotency.model.SubmissionKey;
+import app.idempotency.repository.SubmissionTokenRepository;
+import app.idempotency.service.JdbcSubmissionStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class JdbcSubmissionStoreITest {
+
+    @Autowired
+    private SubmissionTokenRepository submissionTokenRepository;
+
+    private SubmissionKey submissionKey;
+
+    @BeforeEach
+    void setUp() {
+        submissionKey = new SubmissionKey("donateToSpark", UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    @Test
+    void submissionAcceptedByOneNode_isRejectedByAnotherNode_untilItIsReleased() {
+        // Two stores over the same database act as two application nodes
+        JdbcSubmissionStore firstNode = new JdbcSubmissionStore(submissionTokenRepository, Duration.ofMinutes(1));
+        JdbcSubmissionStore secondNode = new JdbcSubmissionStore(submissionTokenRepository, Duration.ofMinutes(1));
+
+        assertTrue(firstNode.tryAcquire(submissionKey));
+        assertFalse(secondNode.tryAcquire(submissionKey));
+        assertFalse(firstNode.tryAcquire(submissionKey));
+
+        firstNode.release(submissionKey);
+
+        assertTrue(secondNode.tryAcquire(submissionKey));
+    }
+
+    @Test
+    void expiredSubmission_isAcceptedAgain_andDeletedByTheCleanup() {
+        JdbcSubmissionStore submissionStore = new JdbcSubmissionStore(submissionTokenRepository, Duration.ZERO);
+
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+        assertTrue(submissionStore.tryAcquire(submissionKey));
+
+        submissionStore.deleteExpiredTokens();
+
+        assertFalse(submissionTokenRepository.existsById(submissionKey.toUuid()));
+    }
+}
@@ -0,0 +1,94 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.security.AuthenticationDetails;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+public class MetricsITest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private DonationService donationService;
+
+    @Test
+    void donateToSpark_isExposedAsPercentileHistogramInPrometheusFormat() throws Exception {
+        User user = userService.register(RegisterRequest.builder()
+                .username("MetricsUser")
+                .email("metricsUser@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        user = userService.getUserById(user.getId());
+        walletService.addFunds(user.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Metrics Spark")
+                .description("Spark Description for integration testing of the metrics")
+                .goalAmount(BigDecimal.valueOf(1000))
+                .category(SparkCategory.HEALTH)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), user);
+
+        donationService.addDonationToSpark(userService.getUserById(user.getId()), sparkService.getSparkById(spark.getId())
+                , DonationRequest.builder()
+                        .amount(BigDecimal.TEN)
+                        .message("Donation message")
+                        .build());
+
+        AuthenticationDetails principal = new AuthenticationDetails(user.getId(), user.getUsername(), user.getPassword(), UserRole.ADMIN, UserStatus.ACTIVE);
+        mockMvc.perform(get("/actuator/prometheus").with(user(principal)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("sparkfund_donation_add_seconds_bucket{category=\"HEALTH\",exception=\"none\",outcome=\"success\"")))
+                .andExpect(content().string(containsString("sparkfund_wallet_debit_seconds_count{exception=\"none\",outcome=\"success\"}")));
+    }
+
+    @Test
+    void getMetricsEndpoints_asNonAdminUser_areForbidden() throws Exception {
+        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID(), "MetricsReader", "12345", UserRole.USER, UserStatus.ACTIVE);
+
+        mockMvc.perform(get("/actuator/metrics").with(user(principal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").with(user(principal)))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health").with(user(principal)))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,168 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.home.service.HomeSnapshotService;
+import app.scheduler.SparkAmountScheduler;
+import app.security.AuthenticationDetails;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Counts the SQL statements each screen executes, so that N+1 regressions fail the build.
+ * Every screen is measured twice, before and after more data is added, and the count must not change.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+public class QueryCountITest {
+
+    private static final long MAX_STATEMENTS_PER_SCREEN = 4;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private DonationService donationService;
+    @Autowired
+    private HomeSnapshotService homeSnapshotService;
+    // Keeps the background statements of the scheduler out of the counts
+    @MockitoBean
+    private SparkAmountScheduler sparkAmountScheduler;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void statementCountPerScreen_doesNotGrowWithData() throws Exception {
+        User creator = registerUser("QueryCreator");
+        User donor = registerUser("QueryDonor");
+        Spark spark = createSpark(creator);
+        donate(donor, spark);
+
+        Map<String, Long> initialCounts = countStatementsPerScreen(creator, donor, spark);
+
+        // Add more donors, donations and Sparks
+        for (int i = 0; i < 5; i++) {
+            User anotherDonor = registerUser("QueryDonor" + i);
+            Spark anotherSpark = createSpark(creator);
+            donate(anotherDonor, spark);
+            donate(anotherDonor, anotherSpark);
+            donate(donor, anotherSpark);
+        }
+
+        Map<String, Long> grownCounts = countStatementsPerScreen(creator, donor, spark);
+
+        initialCounts.forEach((screen, count) -> {
+            assertTrue(count <= MAX_STATEMENTS_PER_SCREEN, "Screen %s executed %d statements".formatted(screen, count));
+            assertEquals(count, grownCounts.get(screen), "Statement count of screen %s grows with data".formatted(screen));
+        });
+    }
+
+    private Map<String, Long> countStatementsPerScreen(User creator, User donor, Spark spark) throws Exception {
+        sparkService.applyPendingAmountIncrements();
+        // The Home screen is measured with a fresh snapshot, the rebuild itself does not depend on the user
+        homeSnapshotService.refresh();
+        AuthenticationDetails donorPrincipal = principal(donor, UserRole.USER);
+        AuthenticationDetails adminPrincipal = principal(creator, UserRole.ADMIN);
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("home", countStatements(get("/home").with(user(donorPrincipal))));
+        counts.put("show-spark", countStatements(get("/{id}/spark", spark.getId()).with(user(donorPrincipal))));
+        counts.put("profile", countStatements(get("/users/{id}/profile", donor.getId()).with(user(donorPrincipal))));
+        counts.put("all-sparks", countStatements(get("/all-sparks").with(user(donorPrincipal))));
+        counts.put("my-sparks", countStatements(get("/all-sparks")
+                .param("status", "ACTIVE")
+                .param("category", "ALL")
+                .param("ownership", "SPARKS_I_DONATE_TO")
+                .with(user(donorPrincipal))));
+        counts.put("users", countStatements(get("/users").with(user(adminPrincipal))));
+        return counts;
+    }
+
+    private long countStatements(MockHttpServletRequestBuilder request) throws Exception {
+        statistics.clear();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        user = userService.getUserById(user.getId());
+        walletService.addFunds(user.getWallet(), BigDecimal.valueOf(1000), UserStatus.ACTIVE);
+        return user;
+    }
+
+    private Spark createSpark(User creator) {
+        return sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Query Spark")
+                .description("Spark Description for integration testing of the statement count")
+                .goalAmount(BigDecimal.valueOf(100000))
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+    }
+
+    private void donate(User donor, Spark spark) {
+        donationService.addDonationToSpark(userService.getUserById(donor.getId())
+                , sparkService.getSparkById(spark.getId())
+                , DonationRequest.builder()
+                        .amount(BigDecimal.ONE)
+                        .message("Donation message")
+                        .build());
+    }
+
+    private static AuthenticationDetails principal(User user, UserRole role) {
+        return new AuthenticationDetails(user.getId(), user.getUsername(), user.getPassword(), role, UserStatus.ACTIVE);
+    }
+}
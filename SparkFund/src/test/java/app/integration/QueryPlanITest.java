@@ -0,0 +1,192 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.email.service.EmailOutboxService;
+import app.scheduler.SparkAmountScheduler;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.repostiroty.SparkRepository;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.repository.UserRepository;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Explains the SQL statements of the frequent queries on seeded data and fails when one of them scans a whole table.
+ * The statements are recorded by a Hibernate statement inspector and explained by H2 without their parameters,
+ * so the check covers the SQL that Hibernate really generates, including joins and sub queries.
+ */
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=app.integration.QueryPlanITest$RecordingStatementInspector")
+public class QueryPlanITest {
+
+    private static final int SPARKS_PER_CREATOR = 15;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private SparkRepository sparkRepository;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private DonationService donationService;
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+    // Keeps the pending amount increments in place
+    @MockitoBean
+    private SparkAmountScheduler sparkAmountScheduler;
+
+    @Test
+    void queriesOnHotPaths_doNotScanWholeTables() {
+        User creator = registerUser("PlanCreator");
+        User donor = registerUser("PlanDonor");
+        List<Spark> sparks = new ArrayList<>();
+        for (SparkCategory category : SparkCategory.values()) {
+            for (int i = 0; i < SPARKS_PER_CREATOR; i++) {
+                sparks.add(createSpark(i % 2 == 0 ? creator : donor, category));
+            }
+        }
+        for (int i = 0; i < sparks.size(); i += 3) {
+            donate(donor, sparks.get(i));
+        }
+        emailOutboxService.enqueueEmail("plan.donor@gmail.com", "Subject", "Body");
+        Spark spark = sparks.get(0);
+
+        assertNoFullScan("Home", () -> sparkService.getLatestActiveSparkCards(10));
+        assertNoFullScan("All Sparks", () -> sparkService.getAllSparks(donor, "ACTIVE", "ALL", "ALL_SPARKS", null, null));
+        assertNoFullScan("All Sparks of a category", () -> sparkService.getAllSparks(donor, "ACTIVE", "HEALTH", "ALL_SPARKS", null, null));
+        assertNoFullScan("All Sparks, next page", () -> sparkService.getAllSparks(donor, "ACTIVE", "ALL", "ALL_SPARKS"
+                , spark.getCreatedOn(), spark.getId()));
+        assertNoFullScan("My Sparks", () -> sparkService.getAllSparks(creator, "ACTIVE", "ALL", "MY_SPARKS", null, null));
+        assertNoFullScan("Sparks I donate to", () -> sparkService.getAllSparks(donor, "ACTIVE", "ALL", "SPARKS_I_DONATE_TO", null, null));
+        assertNoFullScan("Show Spark", () -> sparkService.getSparkWithCreatorById(spark.getId()));
+        assertNoFullScan("Donation feed", () -> donationService.getDonationFeed(spark.getId(), null, null));
+        assertNoFullScan("Donation feed, next page", () -> donationService.getDonationFeed(spark.getId(), spark.getCreatedOn(), spark.getId()));
+        assertNoFullScan("Current amount", () -> sparkService.getCurrentAmount(spark));
+        assertNoFullScan("Profile", () -> userService.getUserById(donor.getId()));
+        assertNoFullScan("Wallet donations", () -> walletService.getDonationHistory(donor.getWallet(), null, null));
+        assertNoFullScan("Wallet donations, next page", () -> walletService.getDonationHistory(donor.getWallet(), spark.getCreatedOn(), spark.getId()));
+        assertNoFullScan("Wallet donation info", () -> walletService.getWalletDonationInfo(donor.getWallet()));
+        assertNoFullScan("Wallet statement", () -> walletService.getStatement(donor.getWallet(), 0));
+        assertNoFullScan("Login by username", () -> userRepository.findByUsername("PlanDonor"));
+        assertNoFullScan("Login by email", () -> userRepository.findByEmail("plandonor@gmail.com"));
+        assertNoFullScan("Spark completion", () -> sparkService.findSparksForCompletion(null, 100));
+        assertNoFullScan("Spark completion, next chunk", () -> sparkService.findSparksForCompletion(spark.getId(), 100));
+        assertNoFullScan("Sparks funded", () -> sparkRepository.countByCurrentAmountGreaterThan(BigDecimal.ZERO));
+        assertNoFullScan("Email outbox", () -> emailOutboxService.claimDueEmails(50));
+        assertNoFullScan("Pending amount increments", () -> sparkService.applyPendingAmountIncrements());
+    }
+
+    private void assertNoFullScan(String name, Runnable query) {
+        RecordingStatementInspector.start();
+        try {
+            query.run();
+        } finally {
+            for (String sql : RecordingStatementInspector.stop()) {
+                if (!sql.strip().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    continue;
+                }
+                String plan = explain(sql);
+                assertFalse(plan.contains("tableScan"), "Query of %s scans a whole table:%n%s".formatted(name, plan));
+            }
+        }
+    }
+
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        });
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username.toLowerCase(Locale.ROOT) + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        user = userService.getUserById(user.getId());
+        walletService.addFunds(user.getWallet(), BigDecimal.valueOf(1000), UserStatus.ACTIVE);
+        return userService.getUserById(user.getId());
+    }
+
+    private Spark createSpark(User creator, SparkCategory category) {
+        return sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Plan Spark")
+                .description("Spark Description for integration testing of the query plans")
+                .goalAmount(BigDecimal.valueOf(100000))
+                .category(category)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+    }
+
+    private void donate(User donor, Spark spark) {
+        donationService.addDonationToSpark(userService.getUserById(donor.getId())
+                , sparkService.getSparkById(spark.getId())
+                , DonationRequest.builder()
+                        .amount(BigDecimal.ONE)
+                        .message("Donation message")
+                        .build());
+    }
+
+    /**
+     * Records the SQL statements that Hibernate prepares on the current thread.
+     */
+    public static class RecordingStatementInspector implements StatementInspector {
+
+        private static final ThreadLocal<List<String>> STATEMENTS = new ThreadLocal<>();
+
+        static void start() {
+            STATEMENTS.set(new ArrayList<>());
+        }
+
+        static List<String> stop() {
+            List<String> statements = STATEMENTS.get();
+            STATEMENTS.remove();
+            return statements;
+        }
+
+        @Override
+        public String inspect(String sql) {
+            List<String> statements = STATEMENTS.get();
+            if (statements != null) {
+                statements.add(sql);
+            }
+            return sql;
+        }
+    }
+}
@@ -1,21 +1,28 @@
 package app.integration;
 
+import app.donation.service.DonationService;
 import app.spark.model.Spark;
 import app.spark.model.SparkCategory;
 import app.spark.model.SparkStatus;
 import app.spark.repostiroty.SparkRepository;
 import app.spark.service.SparkService;
 import app.user.model.User;
+import app.user.model.UserStatus;
 import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
 import app.web.dto.ManageSparkRequest;
 import app.web.dto.RegisterRequest;
+import app.web.dto.SparkCard;
+import app.web.dto.SparkPage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.*;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,6 +36,10 @@ public class SparkITest {
     private UserService userService;
     @Autowired
     private SparkRepository sparkRepository;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private DonationService donationService;
 
     @Test
     void createAndUpdateSpark_happyPath() {
@@ -92,7 +103,7 @@ public class SparkITest {
         assertNotNull(spark.getUpdatedOn());
         assertEquals(updateSparkRequest.getTitle(), updatedSpark.getTitle());
         assertEquals(updateSparkRequest.getDescription(), updatedSpark.getDescription());
-        assertEquals(0, updatedSpark.getCurrentAmount().compareTo(BigDecimal.ONE));
+        assertEquals(0, sparkService.getCurrentAmount(updatedSpark).compareTo(BigDecimal.ONE));
         assertEquals(0, updateSparkRequest.getGoalAmount().compareTo(updatedSpark.getGoalAmount()));
         assertEquals(updateSparkRequest.getCategory(), updatedSpark.getCategory());
         assertEquals(SparkStatus.ACTIVE, updatedSpark.getStatus());
@@ -100,4 +111,94 @@ public class SparkITest {
         assertEquals(updateSparkRequest.getSecondPictureUrl(), updatedSpark.getSecondPictureUrl());
         assertEquals(updateSparkRequest.getThirdPictureUrl(), updatedSpark.getThirdPictureUrl());
     }
+
+    @Test
+    void filterSparksPageByPage_happyPath() {
+        // Register the Spark creator and a donor
+        User creator = userService.register(RegisterRequest.builder()
+                .username("PageCreator")
+                .email("page.creator@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        User donor = userService.register(RegisterRequest.builder()
+                .username("PageDonor")
+                .email("page.donor@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        donor = userService.getUserById(donor.getId());
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+
+        // Create more Sparks than fit on one page and donate to one of them
+        List<Spark> createdSparks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            createdSparks.add(sparkService.createSpark(ManageSparkRequest.builder()
+                    .title("Paged Spark " + i)
+                    .description("Spark Description for integration testing of the paginated filters")
+                    .goalAmount(BigDecimal.valueOf(1000))
+                    .category(SparkCategory.ENVIRONMENT)
+                    .status(SparkStatus.ACTIVE)
+                    .firstPictureUrl("www.pic1.com")
+                    .build(), creator));
+        }
+        donationService.addDonationToSpark(donor, createdSparks.get(0), DonationRequest.builder()
+                .amount(BigDecimal.TEN)
+                .message("Donation message")
+                .build());
+
+        // Walk through the creator's Sparks page by page
+        SparkPage firstPage = sparkService.getAllSparks(creator, "ACTIVE", "ENVIRONMENT", "MY_SPARKS", null, null);
+        assertEquals(10, firstPage.getSparks().size());
+        assertTrue(firstPage.isHasNextPage());
+
+        SparkPage secondPage = sparkService.getAllSparks(creator, "ACTIVE", "ENVIRONMENT", "MY_SPARKS"
+                , firstPage.getNextCreatedOn(), firstPage.getNextId());
+        assertEquals(2, secondPage.getSparks().size());
+        assertFalse(secondPage.isHasNextPage());
+
+        Set<UUID> pagedIds = new HashSet<>();
+        firstPage.getSparks().forEach(spark -> pagedIds.add(spark.getId()));
+        secondPage.getSparks().forEach(spark -> pagedIds.add(spark.getId()));
+        assertEquals(createdSparks.stream().map(Spark::getId).collect(Collectors.toSet()), pagedIds);
+
+        // Only the Spark that received a donation is returned for the donor
+        SparkPage donatedSparks = sparkService.getAllSparks(donor, "ACTIVE", "ALL", "SPARKS_I_DONATE_TO", null, null);
+        assertEquals(1, donatedSparks.getSparks().size());
+        assertEquals(createdSparks.get(0).getId(), donatedSparks.getSparks().get(0).getId());
+
+        // No cancelled Sparks exist for the creator
+        SparkPage cancelledSparks = sparkService.getAllSparks(creator, "CANCELLED", "ALL", "MY_SPARKS", null, null);
+        assertTrue(cancelledSparks.getSparks().isEmpty());
+    }
+
+    @Test
+    void getAllSparks_returnsCardsWithTruncatedDescription() {
+        User creator = userService.register(RegisterRequest.builder()
+                .username("CardCreator")
+                .email("card.creator@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        String description = "A long Spark description. ".repeat(38);
+        Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Card Spark")
+                .description(description)
+                .goalAmount(BigDecimal.valueOf(1000))
+                .category(SparkCategory.HEALTH)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+
+        SparkCard card = sparkService.getAllSparks(creator, "ACTIVE", "HEALTH", "MY_SPARKS", null, null).getSparks().get(0);
+
+        assertEquals(spark.getId(), card.getId());
+        assertEquals("Card Spark", card.getTitle());
+        assertEquals(description.substring(0, SparkCard.DESCRIPTION_LENGTH), card.getDescription());
+        assertEquals("www.pic1.com", card.getFirstPictureUrl());
+        assertEquals(SparkCategory.HEALTH, card.getCategory());
+        assertEquals(SparkStatus.ACTIVE, card.getStatus());
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(card.getGoalAmount()));
+        assertNotNull(card.getCreatedOn());
+    }
 }
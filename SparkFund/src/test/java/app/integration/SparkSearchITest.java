@@ -0,0 +1,150 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.email.client.EmailClient;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkSearchService;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import app.web.dto.SparkCard;
+import app.web.dto.SparkPage;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class SparkSearchITest {
+
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private SparkSearchService sparkSearchService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private DonationService donationService;
+    @MockitoBean
+    private EmailClient emailClient;
+
+    @Test
+    void searchSparks_ranksTitleMatchesFirst_andMatchesWordForms() {
+        User user = registerUser("SearchRanking");
+        Spark descriptionMatch = createSpark(user, "Village library", "Shelves for the telescope club of the village school", SparkCategory.EDUCATION);
+        Spark titleMatch = createSpark(user, "Telescopes for the school", "Two new instruments for the astronomy lessons", SparkCategory.EDUCATION);
+        createSpark(user, "Football pitch", "New goals and nets for the village football team", SparkCategory.SOCIAL);
+
+        SparkPage sparkPage = sparkSearchService.searchSparks(user, "telescope", null, null, null, 0);
+
+        assertEquals(List.of(titleMatch.getId(), descriptionMatch.getId()), sparkPage.getSparks().stream().map(SparkCard::getId).toList());
+        assertFalse(sparkPage.isHasNextPage());
+    }
+
+    @Test
+    void searchSparks_appliesCategoryAndOwnershipFilters() {
+        User creator = registerUser("SearchCreator");
+        User otherUser = registerUser("SearchOther");
+        Spark education = createSpark(creator, "Observatory roof", "A new roof for the observatory", SparkCategory.EDUCATION);
+        createSpark(creator, "Observatory run", "A charity run around the observatory", SparkCategory.SOCIAL);
+        createSpark(otherUser, "Observatory garden", "Plants for the observatory garden", SparkCategory.EDUCATION);
+
+        SparkPage sparkPage = sparkSearchService.searchSparks(creator, "observatory", "ACTIVE", "EDUCATION", "MY_SPARKS", 0);
+
+        assertEquals(List.of(education.getId()), sparkPage.getSparks().stream().map(SparkCard::getId).toList());
+        assertTrue(sparkSearchService.searchSparks(otherUser, "observatory", "ACTIVE", "ALL", "SPARKS_I_DONATE_TO", 0).getSparks().isEmpty());
+    }
+
+    @Test
+    void updatedAndCompletedSparks_areReindexed() {
+        User user = registerUser("SearchUpdates");
+        Spark spark = createSpark(user, "Planetarium seats", "Comfortable seats for the planetarium", SparkCategory.EDUCATION);
+
+        sparkService.updateSpark(ManageSparkRequest.builder()
+                .title("Lighthouse lamp")
+                .description("A brighter lamp for the old lighthouse")
+                .goalAmount(BigDecimal.valueOf(100))
+                .category(SparkCategory.EDUCATION)
+                .firstPictureUrl("www.pic1.com")
+                .build(), sparkService.getSparkById(spark.getId()), user);
+
+        assertTrue(sparkSearchService.searchSparks(user, "planetarium", null, null, null, 0).getSparks().isEmpty());
+        assertEquals(1, sparkSearchService.searchSparks(user, "lighthouse", null, null, null, 0).getSparks().size());
+
+        assertTrue(sparkService.completeSpark(sparkService.getSparkById(spark.getId())));
+
+        assertTrue(sparkSearchService.searchSparks(user, "lighthouse", "ACTIVE", null, null, 0).getSparks().isEmpty());
+        assertEquals(1, sparkSearchService.searchSparks(user, "lighthouse", "COMPLETED", null, null, 0).getSparks().size());
+    }
+
+    @Test
+    void searchSparks_donatedToFilter_keepsOnlyTheSparksTheUserDonatedTo_andUnknownFiltersFallBackToTheDefaults() {
+        User creator = registerUser("SearchDonatedCreator");
+        User donor = userService.getUserById(registerUser("SearchDonor").getId());
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        Spark donated = createSpark(creator, "Lighthouse lamp", "A new lamp for the lighthouse", SparkCategory.SOCIAL);
+        createSpark(creator, "Lighthouse stairs", "New stairs for the lighthouse", SparkCategory.SOCIAL);
+        donationService.addDonationToSpark(donor, sparkService.getSparkById(donated.getId()), DonationRequest.builder()
+                .amount(BigDecimal.TEN)
+                .message("Donation message")
+                .build());
+
+        SparkPage sparkPage = sparkSearchService.searchSparks(donor, "lighthouse", "UNKNOWN", "UNKNOWN", "SPARKS_I_DONATE_TO", 0);
+
+        assertEquals(List.of(donated.getId()), sparkPage.getSparks().stream().map(SparkCard::getId).toList());
+        assertFalse(sparkPage.isHasNextPage());
+    }
+
+    @Test
+    void searchSparks_pagesThroughRankedHits() {
+        User user = registerUser("SearchPages");
+        for (int i = 0; i < 12; i++) {
+            createSpark(user, "Aquarium tank " + i, "Fish tank number " + i + " for the aquarium", SparkCategory.ENTERTAINMENT);
+        }
+
+        SparkPage firstPage = sparkSearchService.searchSparks(user, "aquarium", null, null, null, 0);
+        SparkPage secondPage = sparkSearchService.searchSparks(user, "aquarium", null, null, null, firstPage.getNextPage());
+
+        assertEquals(10, firstPage.getSparks().size());
+        assertTrue(firstPage.isHasNextPage());
+        assertEquals(1, firstPage.getNextPage());
+        assertEquals(2, secondPage.getSparks().size());
+        assertFalse(secondPage.isHasNextPage());
+    }
+
+    private User registerUser(String username) {
+        return userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+    }
+
+    private Spark createSpark(User user, String title, String description, SparkCategory category) {
+        return sparkService.createSpark(ManageSparkRequest.builder()
+                .title(title)
+                .description(description)
+                .goalAmount(BigDecimal.valueOf(100))
+                .category(category)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), user);
+    }
+}
@@ -0,0 +1,82 @@
+package app.integration;
+
+import app.security.AuthenticationDetails;
+import app.user.model.User;
+import app.user.model.UserRole;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.RegisterRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class UserCacheITest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void loadAuthenticatedUserTwice_secondLoadIsServedBySecondLevelCache_withCurrentWalletBalance_andSwitchRoleEvictsIt() {
+        User user = userService.register(RegisterRequest.builder()
+                .username("CachedUser")
+                .email("cachedUser@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        AuthenticationDetails authenticationDetails = new AuthenticationDetails(user.getId()
+                , user.getUsername()
+                , user.getPassword()
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evict(User.class);
+
+        User authenticatedUser = getAuthenticatedUserInNewRequest(authenticationDetails);
+        assertTrue(entityManagerFactory.getCache().contains(User.class, user.getId()));
+        walletService.addFunds(authenticatedUser.getWallet(), BigDecimal.TEN, UserStatus.ACTIVE);
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        authenticatedUser = getAuthenticatedUserInNewRequest(authenticationDetails);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+        // The wallet is not cached, so the balance changed by the update query is read again
+        assertEquals(0, BigDecimal.TEN.compareTo(authenticatedUser.getWallet().getAmount()));
+
+        userService.switchRole(user.getId());
+        assertFalse(entityManagerFactory.getCache().contains(User.class, user.getId()));
+        assertEquals(UserRole.ADMIN, getAuthenticatedUserInNewRequest(authenticationDetails).getUserRole());
+
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests").tag("result", "hit").functionCounter());
+    }
+
+    /**
+     * Loads the authenticated user as a new web request would, so the user is not served by the request level of the cache.
+     */
+    private User getAuthenticatedUserInNewRequest(AuthenticationDetails authenticationDetails) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        return userService.getAuthenticatedUser(authenticationDetails);
+    }
+}
@@ -0,0 +1,119 @@
+package app.integration;
+
+import app.donation.repository.WalletDonationTotalRepository;
+import app.donation.service.DonationService;
+import app.exceptions.DomainException;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.ManageSparkRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Fires many parallel donations from one wallet to one Spark and verifies that no debit or Spark increment is lost,
+ * and that the wallet is never overdrawn.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+public class WalletConcurrencyITest {
+
+    private static final int DONATION_COUNT = 2000;
+    private static final int THREAD_COUNT = 16;
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private DonationService donationService;
+    @Autowired
+    private WalletDonationTotalRepository walletDonationTotalRepository;
+
+    @Test
+    void parallelDonationsFromOneWallet_doNotLoseOrOverdrawTheBalance() throws Exception {
+        User creator = registerUser("ConcurrentCreator");
+        User donor = registerUser("ConcurrentDonor");
+        Spark spark = sparkService.createSpark(ManageSparkRequest.builder()
+                .title("Concurrent Spark")
+                .description("Spark Description for integration testing of parallel donations")
+                .goalAmount(BigDecimal.valueOf(1000000))
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .build(), creator);
+
+        // Only half of the donations can be covered by the balance
+        BigDecimal initialBalance = BigDecimal.valueOf(DONATION_COUNT / 2);
+        walletService.addFunds(donor.getWallet(), initialBalance, UserStatus.ACTIVE);
+
+        AtomicInteger successfulDonations = new AtomicInteger();
+        AtomicInteger rejectedDonations = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREAD_COUNT);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < DONATION_COUNT; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    donate(donor.getId(), spark.getId());
+                    successfulDonations.incrementAndGet();
+                } catch (DomainException e) {
+                    rejectedDonations.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        BigDecimal finalBalance = walletService.findWalletById(donor.getWallet().getId()).getAmount();
+        BigDecimal donatedAmount = walletDonationTotalRepository.findTotalAmountByWalletId(donor.getWallet().getId());
+        assertEquals(DONATION_COUNT / 2, successfulDonations.get());
+        assertEquals(DONATION_COUNT / 2, rejectedDonations.get());
+        assertEquals(0, BigDecimal.ZERO.compareTo(finalBalance));
+        assertEquals(0, initialBalance.compareTo(donatedAmount));
+        assertEquals(0, initialBalance.compareTo(sparkService.getCurrentAmount(spark)));
+    }
+
+    private void donate(UUID donorId, UUID sparkId) {
+        donationService.addDonationToSpark(userService.getUserById(donorId), sparkService.getSparkById(sparkId),
+                DonationRequest.builder()
+                        .amount(BigDecimal.ONE)
+                        .message("Donation message")
+                        .build());
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        return userService.getUserById(user.getId());
+    }
+}
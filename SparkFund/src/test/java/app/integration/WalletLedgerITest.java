@@ -0,0 +1,119 @@
+package app.integration;
+
+import app.donation.service.DonationService;
+import app.email.client.EmailClient;
+import app.money.Money;
+import app.spark.model.Spark;
+import app.spark.model.SparkCategory;
+import app.spark.model.SparkStatus;
+import app.spark.repostiroty.SparkRepository;
+import app.spark.service.SparkService;
+import app.user.model.User;
+import app.user.model.UserStatus;
+import app.user.service.UserService;
+import app.wallet.model.WalletTransaction;
+import app.wallet.model.WalletTransactionType;
+import app.wallet.repository.WalletRepository;
+import app.wallet.service.WalletService;
+import app.web.dto.DonationRequest;
+import app.web.dto.RegisterRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ActiveProfiles("test")
+@SpringBootTest
+public class WalletLedgerITest {
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private SparkService sparkService;
+    @Autowired
+    private SparkRepository sparkRepository;
+    @Autowired
+    private WalletService walletService;
+    @Autowired
+    private WalletRepository walletRepository;
+    @Autowired
+    private DonationService donationService;
+    @MockitoBean
+    private EmailClient emailClient;
+
+    @Test
+    void topUpDonationsAndRefund_areAppendedToTheStatementWithTheirBalances() {
+        User sparkCreator = registerUser("LedgerCreator");
+        Spark spark = sparkRepository.save(Spark.builder()
+                .creator(sparkCreator)
+                .title("Ledger Spark")
+                .description("Spark Description for integration testing of the wallet ledger")
+                .goalAmount(BigDecimal.valueOf(1000))
+                .currentAmount(BigDecimal.ZERO)
+                .category(SparkCategory.SOCIAL)
+                .status(SparkStatus.ACTIVE)
+                .firstPictureUrl("www.pic1.com")
+                .createdOn(LocalDateTime.now())
+                .build());
+        User donor = registerUser("LedgerDonor");
+
+        walletService.addFunds(donor.getWallet(), BigDecimal.valueOf(100), UserStatus.ACTIVE);
+        for (int i = 0; i < 2; i++) {
+            donationService.addDonationToSpark(donor, spark, DonationRequest.builder()
+                    .amount(BigDecimal.valueOf(30))
+                    .message("Donation message")
+                    .build());
+        }
+        sparkService.cancelSparkAndReturnDonations(sparkService.getSparkWithCreatorById(spark.getId()));
+
+        List<WalletTransaction> statement = walletService.getStatement(donor.getWallet(), 0).getContent();
+        assertEquals(List.of(WalletTransactionType.REFUND, WalletTransactionType.DONATION, WalletTransactionType.DONATION, WalletTransactionType.TOP_UP)
+                , statement.stream().map(WalletTransaction::getType).toList());
+        assertAmounts(List.of(60, -30, -30, 100), statement.stream().map(WalletTransaction::getAmount).toList());
+        assertAmounts(List.of(100, 40, 70, 100), statement.stream().map(WalletTransaction::getBalance).toList());
+        assertEquals(spark.getId(), statement.get(0).getSparkId());
+        assertEquals(Money.euros(walletRepository.findAmountById(donor.getWallet().getId())), statement.get(0).getBalance());
+    }
+
+    @Test
+    void longStatement_isReadPageByPage() {
+        User user = registerUser("LedgerPages");
+        for (int i = 1; i <= WalletService.STATEMENT_PAGE_SIZE + 2; i++) {
+            walletService.addFunds(user.getWallet(), BigDecimal.valueOf(i), UserStatus.ACTIVE);
+        }
+
+        Slice<WalletTransaction> firstPage = walletService.getStatement(user.getWallet(), 0);
+        Slice<WalletTransaction> secondPage = walletService.getStatement(user.getWallet(), 1);
+
+        assertEquals(WalletService.STATEMENT_PAGE_SIZE, firstPage.getNumberOfElements());
+        assertTrue(firstPage.hasNext());
+        assertEquals(Money.euroCents((WalletService.STATEMENT_PAGE_SIZE + 2) * 100L), firstPage.getContent().get(0).getAmount());
+        assertEquals(2, secondPage.getNumberOfElements());
+        assertFalse(secondPage.hasNext());
+        assertEquals(Money.euroCents(100), secondPage.getContent().get(1).getBalance());
+    }
+
+    private void assertAmounts(List<Integer> expectedEuros, List<Money> actual) {
+        assertEquals(expectedEuros.stream().map(euros -> Money.euroCents(euros * 100L)).toList(), actual);
+    }
+
+    private User registerUser(String username) {
+        User user = userService.register(RegisterRequest.builder()
+                .username(username)
+                .email(username + "@gmail.com")
+                .password("12345")
+                .confirmPassword("12345")
+                .build());
+        return userService.getUserById(user.getId());
+    }
+}
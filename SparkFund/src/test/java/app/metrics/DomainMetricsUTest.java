@@ -0,0 +1,59 @@
+package app.metrics;
+
+import app.exceptions.DomainException;
+import app.spark.model.SparkCategory;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class DomainMetricsUTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DomainMetrics domainMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        domainMetrics = new DomainMetrics(meterRegistry);
+    }
+
+    @Test
+    void givenSuccessfulOperation_whenRecord_thenTimeItWithSuccessOutcomeAndReturnTheResult() {
+        String result = domainMetrics.record("sparkfund.test", DomainMetrics.category(SparkCategory.HEALTH), () -> "result");
+
+        assertEquals("result", result);
+        assertEquals(1, meterRegistry.get("sparkfund.test")
+                .tags("category", "HEALTH", "outcome", "success", "exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    void givenOutcomeOfTheResult_whenRecord_thenTagTheTimerWithIt() {
+        domainMetrics.record("sparkfund.test", Tags.empty(), () -> false, completed -> completed ? DomainMetrics.SUCCESS : "skipped");
+
+        assertEquals(1, meterRegistry.get("sparkfund.test").tag("outcome", "skipped").timer().count());
+    }
+
+    @Test
+    void givenFailingOperation_whenRecord_thenTimeItWithTheExceptionAndRethrow() {
+        assertThrows(DomainException.class, () -> domainMetrics.record("sparkfund.test", Tags.empty(), () -> {
+            throw new DomainException("Failed");
+        }));
+
+        assertEquals(1, meterRegistry.get("sparkfund.test")
+                .tags("outcome", "failure", "exception", "DomainException")
+                .timer().count());
+    }
+
+    @Test
+    void givenTags_whenIncrement_thenCountPerTags() {
+        domainMetrics.increment("sparkfund.test.counter", Tags.of("operation", "donate"));
+        domainMetrics.increment("sparkfund.test.counter", Tags.of("operation", "donate"));
+
+        assertEquals(2, meterRegistry.get("sparkfund.test.counter").tag("operation", "donate").counter().count());
+    }
+}
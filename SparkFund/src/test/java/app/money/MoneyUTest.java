@@ -0,0 +1,56 @@
+package app.money;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MoneyUTest {
+
+    @Test
+    void givenAmountWithCents_whenConvertedToMoney_thenItIsHeldAsCents() {
+        assertEquals(1230, Money.euros(new BigDecimal("12.30")).minorUnits());
+        assertEquals(1200, Money.euros(new BigDecimal("12")).minorUnits());
+        assertEquals(new BigDecimal("12.30"), Money.euroCents(1230).toBigDecimal());
+    }
+
+    @Test
+    void givenAmountWithFractionsOfCents_whenConvertedToMoney_thenThrowsException() {
+        assertThrows(ArithmeticException.class, () -> Money.euros(new BigDecimal("12.305")));
+    }
+
+    @Test
+    void givenAmountsInTheSameCurrency_whenAddedAndSubtracted_thenCentsAreExact() {
+        Money sum = Money.euros(new BigDecimal("0.10")).plus(Money.euros(new BigDecimal("0.20")));
+
+        assertEquals(Money.euroCents(30), sum);
+        assertEquals(Money.euroCents(-70), sum.minus(Money.euroCents(100)));
+        assertTrue(sum.minus(Money.euroCents(30)).isZero());
+    }
+
+    @Test
+    void givenAmountsInDifferentCurrencies_whenAdded_thenThrowsException() {
+        Money dollars = new Money(100, Currency.getInstance("USD"));
+
+        assertThrows(IllegalArgumentException.class, () -> Money.euroCents(100).plus(dollars));
+    }
+
+    @Test
+    void givenOverflowingSum_whenAdded_thenThrowsException() {
+        assertThrows(ArithmeticException.class, () -> Money.euroCents(Long.MAX_VALUE).plus(Money.euroCents(1)));
+    }
+
+    @Test
+    void givenAmount_whenFormatted_thenAllCentsAreShownWithTheSeparatorOfTheLocale() {
+        assertEquals("1230.05", Money.euroCents(123005).format(Locale.ROOT));
+        assertEquals("0.50", Money.euroCents(50).format(Locale.ROOT));
+        assertEquals("-3.00", Money.euroCents(-300).format(Locale.ROOT));
+        assertEquals("1230,05", Money.euroCents(123005).format(Locale.GERMANY));
+        assertEquals("€1230.05", new MoneyFormat().format(new BigDecimal("1230.05")));
+    }
+}
@@ -1,15 +1,18 @@
 package app.scheduler;
 
+import app.checkpoint.service.JobCheckpointService;
 import app.spark.model.Spark;
 import app.spark.service.SparkService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.Mockito.*;
@@ -17,38 +20,93 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 public class CompleteSparkSchedulerUTest {
 
+    private static final int CHUNK_SIZE = 2;
+
     @Mock
     private SparkService sparkService;
+    @Mock
+    private JobCheckpointService jobCheckpointService;
 
-    @InjectMocks
     private CompleteSparkScheduler scheduler;
 
+    @BeforeEach
+    void setUp() {
+        scheduler = new CompleteSparkScheduler(sparkService, jobCheckpointService, CHUNK_SIZE);
+    }
+
+    @Test
+    void givenSparksForCompletion_whenCompleteSparks_thenCompleteThemChunkByChunk() {
+        Spark spark1 = Spark.builder()
+                .id(UUID.randomUUID())
+                .build();
+        Spark spark2 = Spark.builder()
+                .id(UUID.randomUUID())
+                .build();
+        Spark spark3 = Spark.builder()
+                .id(UUID.randomUUID())
+                .build();
+
+        when(jobCheckpointService.getLastProcessedId(CompleteSparkScheduler.JOB_NAME)).thenReturn(Optional.empty());
+        when(sparkService.findSparksForCompletion(null, CHUNK_SIZE)).thenReturn(List.of(spark1, spark2));
+        when(sparkService.findSparksForCompletion(spark2.getId(), CHUNK_SIZE)).thenReturn(List.of(spark3));
+        when(sparkService.completeSpark(any())).thenReturn(true);
+
+        scheduler.completeSparks();
+
+        InOrder inOrder = inOrder(sparkService, jobCheckpointService);
+        inOrder.verify(sparkService).completeSpark(spark1);
+        inOrder.verify(sparkService).completeSpark(spark2);
+        inOrder.verify(jobCheckpointService).saveLastProcessedId(CompleteSparkScheduler.JOB_NAME, spark2.getId());
+        inOrder.verify(sparkService).completeSpark(spark3);
+        inOrder.verify(jobCheckpointService).saveLastProcessedId(CompleteSparkScheduler.JOB_NAME, spark3.getId());
+        inOrder.verify(jobCheckpointService).clearCheckpoint(CompleteSparkScheduler.JOB_NAME);
+    }
+
+    @Test
+    void givenCheckpointOfUnfinishedRun_whenCompleteSparks_thenResumeAfterCheckpoint() {
+        UUID lastProcessedId = UUID.randomUUID();
+        Spark spark = Spark.builder()
+                .id(UUID.randomUUID())
+                .build();
+
+        when(jobCheckpointService.getLastProcessedId(CompleteSparkScheduler.JOB_NAME)).thenReturn(Optional.of(lastProcessedId));
+        when(sparkService.findSparksForCompletion(lastProcessedId, CHUNK_SIZE)).thenReturn(List.of(spark));
+
+        scheduler.completeSparks();
+
+        verify(sparkService, never()).findSparksForCompletion(null, CHUNK_SIZE);
+        verify(sparkService).completeSpark(spark);
+        verify(jobCheckpointService).clearCheckpoint(CompleteSparkScheduler.JOB_NAME);
+    }
+
     @Test
-    void givenSparksForCompletion_whenCompleteSparks_thenCompleteThem() {
+    void givenCompletionOfOneSparkFails_whenCompleteSparks_thenCompleteTheOthers() {
         Spark spark1 = Spark.builder()
                 .id(UUID.randomUUID())
                 .build();
         Spark spark2 = Spark.builder()
                 .id(UUID.randomUUID())
                 .build();
-        List<Spark> sparks = List.of(spark1, spark2);
 
-        when(sparkService.findSparksForCompletion()).thenReturn(sparks);
+        when(jobCheckpointService.getLastProcessedId(CompleteSparkScheduler.JOB_NAME)).thenReturn(Optional.empty());
+        when(sparkService.findSparksForCompletion(null, CHUNK_SIZE)).thenReturn(List.of(spark1, spark2));
+        when(sparkService.findSparksForCompletion(spark2.getId(), CHUNK_SIZE)).thenReturn(Collections.emptyList());
+        when(sparkService.completeSpark(spark1)).thenThrow(new RuntimeException("Lock wait timeout"));
 
         scheduler.completeSparks();
 
-        verify(sparkService, times(1)).findSparksForCompletion();
-        verify(sparkService, times(1)).completeSpark(spark1);
-        verify(sparkService, times(1)).completeSpark(spark2);
+        verify(sparkService).completeSpark(spark2);
+        verify(jobCheckpointService).clearCheckpoint(CompleteSparkScheduler.JOB_NAME);
     }
 
     @Test
     void givenNoSparksForCompletion_whenCompleteSparks_thenDoNothing() {
-        when(sparkService.findSparksForCompletion()).thenReturn(Collections.emptyList());
+        when(jobCheckpointService.getLastProcessedId(CompleteSparkScheduler.JOB_NAME)).thenReturn(Optional.empty());
+        when(sparkService.findSparksForCompletion(null, CHUNK_SIZE)).thenReturn(Collections.emptyList());
 
         scheduler.completeSparks();
 
-        verify(sparkService, times(1)).findSparksForCompletion();
         verify(sparkService, never()).completeSpark(any());
+        verify(jobCheckpointService, never()).saveLastProcessedId(any(), any());
     }
 }
@@ -0,0 +1,116 @@
+package app.scheduler;
+
+import app.email.client.EmailClient;
+import app.email.client.dto.EmailRequest;
+import app.email.model.OutboxEmail;
+import app.email.service.EmailOutboxService;
+import app.email.service.EmailService;
+import app.metrics.DomainMetrics;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmailOutboxSchedulerUTest {
+
+    @Mock
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private EmailService emailService;
+
+    private EmailOutboxScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new EmailOutboxScheduler(emailOutboxService, emailService, 2, 2, Duration.ofMinutes(1), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void givenDueEmails_whenDispatchEmails_thenSendThemAndRecordTheResults() {
+        OutboxEmail sentEmail = email("user1@gmail.com");
+        OutboxEmail failedEmail = email("user2@gmail.com");
+        OutboxEmail rejectedEmail = email(null);
+        when(emailOutboxService.claimDueEmails(2)).thenReturn(List.of(sentEmail, failedEmail), List.of(rejectedEmail));
+        when(emailService.sendEmail("user1@gmail.com", "Subject", "Body")).thenReturn(HttpStatus.OK);
+        when(emailService.sendEmail("user2@gmail.com", "Subject", "Body")).thenReturn(HttpStatus.INTERNAL_SERVER_ERROR);
+        when(emailService.sendEmail(null, "Subject", "Body")).thenReturn(HttpStatus.BAD_REQUEST);
+
+        scheduler.dispatchEmails();
+
+        verify(emailOutboxService).recordResults(List.of(sentEmail), Map.of(failedEmail, "Failed with status 500"), Map.of());
+        verify(emailOutboxService).recordResults(List.of(), Map.of(), Map.of(rejectedEmail, "Rejected with status 400"));
+        verify(emailOutboxService, times(2)).claimDueEmails(2);
+    }
+
+    @Test
+    void givenMailServiceRejectsTheEmail_whenDispatchEmails_thenRecordItAsRejected() {
+        EmailClient emailClient = mock(EmailClient.class);
+        EmailOutboxScheduler schedulerWithClient = new EmailOutboxScheduler(emailOutboxService, new EmailService(emailClient, new DomainMetrics(new SimpleMeterRegistry()))
+                , 2, 2, Duration.ofMinutes(1), Duration.ofMinutes(5));
+        OutboxEmail rejectedEmail = email("invalid@address");
+        when(emailOutboxService.claimDueEmails(2)).thenReturn(List.of(rejectedEmail));
+        Request request = Request.create(Request.HttpMethod.POST, "http://localhost:8081/api/v1/emails", Map.of(), null, StandardCharsets.UTF_8, null);
+        when(emailClient.sendEmail(any(EmailRequest.class))).thenThrow(new FeignException.BadRequest("Invalid email address", request, null, Map.of()));
+
+        try {
+            schedulerWithClient.dispatchEmails();
+        } finally {
+            schedulerWithClient.shutdown();
+        }
+
+        verify(emailOutboxService).recordResults(List.of(), Map.of(), Map.of(rejectedEmail, "Rejected with status 400"));
+    }
+
+    @Test
+    void givenNoDueEmails_whenDispatchEmails_thenDoNothing() {
+        when(emailOutboxService.claimDueEmails(2)).thenReturn(List.of());
+
+        scheduler.dispatchEmails();
+
+        verifyNoInteractions(emailService);
+        verify(emailOutboxService, never()).recordResults(any(), anyMap(), anyMap());
+    }
+
+    @Test
+    void givenMailServiceIsUnavailable_whenDispatchEmails_thenPauseUntilTheBackoffPasses() {
+        OutboxEmail email = email("user1@gmail.com");
+        when(emailOutboxService.claimDueEmails(2)).thenReturn(List.of(email));
+        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenThrow(new IllegalStateException("Connection refused"));
+
+        scheduler.dispatchEmails();
+        scheduler.dispatchEmails();
+
+        verify(emailOutboxService, times(1)).claimDueEmails(2);
+        verify(emailOutboxService).recordResults(eq(List.of()), eq(Map.of(email, "Connection refused")), eq(Map.of()));
+    }
+
+    private static OutboxEmail email(String userEmail) {
+        return OutboxEmail.builder()
+                .userEmail(userEmail)
+                .subject("Subject")
+                .body("Body")
+                .build();
+    }
+}
@@ -2,18 +2,25 @@ package app.scheduler;
 
 import app.email.client.dto.EmailResponse;
 import app.email.service.EmailService;
+import app.metrics.DomainMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.TaskScheduler;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -22,10 +29,23 @@ public class ResendEmailSchedulerUTest {
 
     @Mock
     private EmailService emailService;
+    @Mock
+    private TaskScheduler taskScheduler;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private ResendEmailScheduler resendEmailScheduler;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        resendEmailScheduler = new ResendEmailScheduler(emailService, taskScheduler, new DomainMetrics(meterRegistry), 4, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        resendEmailScheduler.shutdown();
+    }
+
     @Test
     void givenFailedEmails_whenResendEmails_thenResendAndDeleteSuccessfulOnes() {
         EmailResponse failedEmail1 = EmailResponse.builder()
@@ -57,6 +77,9 @@ public class ResendEmailSchedulerUTest {
         verify(emailService, times(1)).sendEmail(failedEmail2.getUserEmail(), failedEmail2.getSubject(), failedEmail2.getBody());
         verify(emailService, times(1)).deletedFailedEmail(failedEmail1.getEmailId());
         verify(emailService, times(1)).deletedFailedEmail(failedEmail2.getEmailId());
+        assertEquals(2, meterRegistry.counter("sparkfund.email.resend.drained").count());
+        assertEquals(2, meterRegistry.get("sparkfund.email.resend").tags("outcome", "success").timer().count());
+        verifyNoInteractions(taskScheduler);
     }
 
     @Test
@@ -89,5 +112,38 @@ public class ResendEmailSchedulerUTest {
         verify(emailService, times(1)).getFailedEmails();
         verify(emailService, times(1)).sendEmail(failedEmail.getUserEmail(), failedEmail.getSubject(), failedEmail.getBody());
         verify(emailService, never()).deletedFailedEmail(any());
+        assertEquals(1, meterRegistry.get("sparkfund.email.resend").tags("outcome", "failure").timer().count());
+    }
+
+    @Test
+    void givenBacklogLeftAfterTimeBudget_whenResendEmails_thenStartNextRunImmediately() {
+        resendEmailScheduler.shutdown();
+        resendEmailScheduler = new ResendEmailScheduler(emailService, taskScheduler, new DomainMetrics(meterRegistry), 1, Duration.ofMillis(200));
+        EmailResponse failedEmail1 = EmailResponse.builder()
+                .emailId(UUID.randomUUID())
+                .userEmail("user1@example.com")
+                .subject("Test Subject 1")
+                .body("Test Body 1")
+                .createdOn(LocalDateTime.now().minusDays(1))
+                .build();
+        EmailResponse failedEmail2 = EmailResponse.builder()
+                .emailId(UUID.randomUUID())
+                .userEmail("user2@example.com")
+                .subject("Test Subject 2")
+                .body("Test Body 2")
+                .createdOn(LocalDateTime.now().minusDays(1))
+                .build();
+
+        when(emailService.getFailedEmails()).thenReturn(List.of(failedEmail1, failedEmail2));
+        when(emailService.sendEmail(anyString(), anyString(), anyString())).thenAnswer(invocation -> {
+            Thread.sleep(400);
+            return HttpStatus.OK;
+        });
+
+        resendEmailScheduler.resendEmails();
+
+        verify(emailService, times(1)).sendEmail(anyString(), anyString(), anyString());
+        verify(emailService, times(1)).deletedFailedEmail(failedEmail1.getEmailId());
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
     }
 }
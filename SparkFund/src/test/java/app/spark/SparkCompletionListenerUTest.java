@@ -0,0 +1,56 @@
+package app.spark;
+
+import app.spark.model.Spark;
+import app.spark.model.SparkStatus;
+import app.spark.service.SparkCompletionListener;
+import app.spark.service.SparkService;
+import app.web.dto.SparkGoalReachedEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class SparkCompletionListenerUTest {
+
+    @Mock
+    private SparkService sparkService;
+
+    @InjectMocks
+    private SparkCompletionListener sparkCompletionListener;
+
+    @Test
+    void givenActiveSpark_whenGoalReached_thenCompleteSpark() {
+        Spark spark = Spark.builder()
+                .id(UUID.randomUUID())
+                .status(SparkStatus.ACTIVE)
+                .build();
+        when(sparkService.getSparkById(spark.getId())).thenReturn(spark);
+
+        sparkCompletionListener.completeSparkOnGoalReached(SparkGoalReachedEvent.builder()
+                .sparkId(spark.getId())
+                .build());
+
+        verify(sparkService).completeSpark(spark);
+    }
+
+    @Test
+    void givenSparkAlreadyCompleted_whenGoalReached_thenDoNothing() {
+        Spark spark = Spark.builder()
+                .id(UUID.randomUUID())
+                .status(SparkStatus.COMPLETED)
+                .build();
+        when(sparkService.getSparkById(spark.getId())).thenReturn(spark);
+
+        sparkCompletionListener.completeSparkOnGoalReached(SparkGoalReachedEvent.builder()
+                .sparkId(spark.getId())
+                .build());
+
+        verify(sparkService, never()).completeSpark(any());
+    }
+}
@@ -1,29 +1,41 @@
 package app.spark;
 
-import app.donation.model.Donation;
-import app.email.service.EmailService;
+import app.donation.repository.DonationRepository;
+import app.donation.service.DonationLeaderboard;
+import app.email.client.dto.EmailRequest;
+import app.email.service.EmailOutboxService;
+import app.metrics.DomainMetrics;
 import app.spark.model.Spark;
 import app.spark.model.SparkCategory;
 import app.spark.model.SparkStatus;
+import app.spark.model.SparkAmountIncrement;
+import app.spark.repostiroty.SparkAmountIncrementRepository;
 import app.spark.repostiroty.SparkRepository;
+import app.spark.service.SparkSearchService;
 import app.spark.service.SparkService;
 import app.user.model.User;
 import app.user.model.UserStatus;
-import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
 import app.web.dto.ManageSparkRequest;
+import app.web.dto.SparkPage;
+import app.web.dto.SparkCard;
+import app.web.dto.WalletRefund;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -36,14 +48,25 @@ public class SparkServiceUTest {
     @Mock
     private SparkRepository sparkRepository;
     @Mock
+    private SparkAmountIncrementRepository sparkAmountIncrementRepository;
+    @Mock
+    private DonationRepository donationRepository;
+    @Mock
     private WalletService walletService;
     @Mock
-    private EmailService emailService;
+    private EmailOutboxService emailOutboxService;
+    @Mock
+    private DonationLeaderboard donationLeaderboard;
+    @Mock
+    private SparkSearchService sparkSearchService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DomainMetrics domainMetrics = new DomainMetrics(meterRegistry);
 
     @InjectMocks
     private SparkService sparkService;
 
-    private SparkService spySparkService;
     private User user;
     private Spark spark1, spark2, spark3;
 
@@ -78,7 +101,6 @@ public class SparkServiceUTest {
                 .creator(new User())
                 .donations(new ArrayList<>())
                 .build();
-        spySparkService = spy(sparkService);
     }
 
     @Test
@@ -166,127 +188,176 @@ public class SparkServiceUTest {
     }
 
     @Test
-    void givenAllSparksRequired_whenGetAllSparks_thenGetAllActiveSparks() {
-        List<Spark> allSparks = List.of(spark1, spark2);
-
-        when(sparkService.getAllActiveSparks()).thenReturn(allSparks);
-
-        List<Spark> result = sparkService.getAllSparks(new User(), null, null, null);
-        assertEquals(allSparks, result);
+    void givenAllSparksRequired_whenGetAllSparks_thenGetFirstPageOfSparks() {
+        List<SparkCard> cards = List.of(SparkCard.builder().id(spark1.getId()).title(spark1.getTitle()).build()
+                , SparkCard.builder().id(spark3.getId()).title(spark3.getTitle()).build());
+        when(sparkRepository.findCards(any(Specification.class), eq(Limit.of(11)))).thenReturn(cards);
+
+        SparkPage result = sparkService.getAllSparks(new User(), null, null, null, null, null);
+        assertEquals(cards, result.getSparks());
+        assertFalse(result.isHasNextPage());
+        assertNull(result.getNextCreatedOn());
+        assertNull(result.getNextId());
     }
 
     @Test
-    void givenStatusFilter_whenGetAllSparks_thenFilterSparksByStatus() {
-        when(sparkRepository.findAllByOrderByCreatedOnDesc()).thenReturn(List.of(spark1, spark2, spark3));
-
-        List<Spark> result = sparkService.getAllSparks(user, "ACTIVE", "ALL", null);
-        assertEquals(List.of(spark1, spark3), result);
+    void givenMoreSparksThanPageSize_whenGetAllSparks_thenReturnPageWithCursorToNextPage() {
+        List<SparkCard> sparks = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            sparks.add(SparkCard.builder()
+                    .id(UUID.randomUUID())
+                    .status(SparkStatus.ACTIVE)
+                    .createdOn(LocalDateTime.now().minusMinutes(i))
+                    .build());
+        }
+        when(sparkRepository.findCards(any(Specification.class), any())).thenReturn(sparks);
+
+        SparkPage result = sparkService.getAllSparks(user, "ACTIVE", "ALL", "ALL_SPARKS", null, null);
+        assertEquals(10, result.getSparks().size());
+        assertTrue(result.isHasNextPage());
+        assertEquals(sparks.get(9).getCreatedOn(), result.getNextCreatedOn());
+        assertEquals(sparks.get(9).getId(), result.getNextId());
     }
 
     @Test
-    void givenCategoryFilter_whenGetAllSparks_thenFilterSparksByCategory() {
-        when(sparkRepository.findAllByOrderByCreatedOnDesc()).thenReturn(List.of(spark1, spark2, spark3));
-
-        List<Spark> result = sparkService.getAllSparks(user, "ACTIVE", "HEALTH", null);
-        assertEquals(List.of(spark3), result);
+    void givenUserWithoutWallet_whenGetAllSparksIDonateTo_thenReturnEmptyPage() {
+        SparkPage result = sparkService.getAllSparks(user, "ACTIVE", "ALL", "SPARKS_I_DONATE_TO", null, null);
+        assertTrue(result.getSparks().isEmpty());
+        assertFalse(result.isHasNextPage());
+        verify(sparkRepository, never()).findCards(any(Specification.class), any());
     }
 
     @Test
-    void givenOwnershipFilter_whenGetAllSparks_thenFilterSparksByOwner() {
-        when(sparkRepository.findAllByOrderByCreatedOnDesc()).thenReturn(List.of(spark1, spark2, spark3));
+    void givenUnknownStatusAndCategoryFilters_whenGetAllSparks_thenReturnFirstPageOfActiveSparks() {
+        when(sparkRepository.findCards(any(Specification.class), eq(Limit.of(11)))).thenReturn(List.of());
 
-        doNothing().when(spySparkService).filterSparksByOwner(eq(user), anyList(), eq("MY_SPARKS"));
+        SparkPage result = sparkService.getAllSparks(user, "UNKNOWN", "HEALTHY", "ALL_SPARKS", null, null);
 
-        List<Spark> result = spySparkService.getAllSparks(user, "ACTIVE", "EDUCATION", "MY_SPARKS");
-        assertEquals(List.of(spark1), result);
+        assertTrue(result.getSparks().isEmpty());
+        verify(sparkRepository).findCards(any(Specification.class), eq(Limit.of(11)));
     }
 
     @Test
-    void givenSparksFilteredByOwner_whenFilterSparksByOwner_thenReturnUserSparks() {
-        List<Spark> allSparks = new ArrayList<>(Arrays.asList(spark1, spark2, spark3));
+    void givenMoneyDonatedToSparkForTheFirstTime_whenIncreaseCurrentAmount_thenAddToSparkCurrentAmount() {
+        sparkService.increaseCurrentAmount(spark1, BigDecimal.TEN);
+        assertEquals(BigDecimal.TEN, spark1.getCurrentAmount());
 
-        sparkService.filterSparksByOwner(user, allSparks, "MY_SPARKS");
-        assertEquals(List.of(spark1, spark2), allSparks);
+        ArgumentCaptor<SparkAmountIncrement> incrementCaptor = ArgumentCaptor.forClass(SparkAmountIncrement.class);
+        verify(sparkAmountIncrementRepository).save(incrementCaptor.capture());
+        assertEquals(spark1.getId(), incrementCaptor.getValue().getSparkId());
+        assertEquals(BigDecimal.TEN, incrementCaptor.getValue().getAmount());
+        verify(sparkRepository, never()).save(any());
     }
 
     @Test
-    void givenSparksFilteredByOwner_whenFilterSparksByOwner_thenReturnSparksUserDonateTo() {
-        Wallet wallet = new Wallet();
-        Donation donation = new Donation();
-        wallet.setDonations(List.of(donation));
-        user.setWallet(wallet);
-
-        Spark spark4 = Spark.builder()
-                .creator(user)
-                .donations(List.of(donation))
-                .build();
+    void givenMoneyDonatedToSparkNotForTheFirstTime_whenIncreaseCurrentAmount_thenAddToSparkCurrentAmount() {
+        spark1.setCurrentAmount(BigDecimal.TEN);
+        sparkService.increaseCurrentAmount(spark1, BigDecimal.TEN);
+        assertEquals(new BigDecimal("20"), spark1.getCurrentAmount());
+        verify(sparkAmountIncrementRepository).save(any(SparkAmountIncrement.class));
+    }
 
-        List<Spark> allSparks = new ArrayList<>(Arrays.asList(spark1, spark2, spark3, spark4));
+    @Test
+    void givenPendingIncrements_whenGetCurrentAmount_thenReturnAmountIncludingThem() {
+        when(sparkRepository.findCurrentAmountWithIncrementsById(spark1.getId())).thenReturn(new BigDecimal("11"));
 
-        sparkService.filterSparksByOwner(user, allSparks, "SPARKS_I_DONATE_TO");
-        assertEquals(List.of(spark4), allSparks);
+        assertEquals(new BigDecimal("11"), sparkService.getCurrentAmount(spark1));
     }
 
     @Test
-    void givenMoneyDonatedToSparkForTheFirstTime_whenIncreaseCurrentAmount_thenAddToSparkCurrentAmount() {
-        sparkService.increaseCurrentAmount(spark1, BigDecimal.TEN);
-        assertEquals(BigDecimal.TEN, spark1.getCurrentAmount());
-        assertNotNull(spark1.getUpdatedOn());
-        verify(sparkRepository).save(spark1);
+    void givenPendingIncrementsOfTwoSparks_whenApplyPendingAmountIncrements_thenUpdateEachSparkOnce() {
+        UUID otherSparkId = UUID.randomUUID();
+        List<SparkAmountIncrement> increments = List.of(
+                SparkAmountIncrement.builder().sparkId(spark1.getId()).amount(BigDecimal.ONE).build(),
+                SparkAmountIncrement.builder().sparkId(spark1.getId()).amount(BigDecimal.TEN).build(),
+                SparkAmountIncrement.builder().sparkId(otherSparkId).amount(BigDecimal.TEN).build());
+        when(sparkAmountIncrementRepository.findAllByOrderByCreatedOn(any())).thenReturn(increments);
+
+        assertEquals(3, sparkService.applyPendingAmountIncrements());
+
+        verify(sparkRepository).increaseCurrentAmount(eq(spark1.getId()), eq(new BigDecimal("11")), any());
+        verify(sparkRepository).increaseCurrentAmount(eq(otherSparkId), eq(BigDecimal.TEN), any());
+        verify(sparkAmountIncrementRepository).deleteAllInBatch(increments);
     }
 
     @Test
-    void givenMoneyDonatedToSparkNotForTheFirstTime_whenIncreaseCurrentAmount_thenAddToSparkCurrentAmount() {
-        spark1.setCurrentAmount(BigDecimal.TEN);
-        sparkService.increaseCurrentAmount(spark1, BigDecimal.TEN);
-        assertEquals(new BigDecimal("20"), spark1.getCurrentAmount());
-        assertNotNull(spark1.getUpdatedOn());
-        verify(sparkRepository).save(spark1);
+    void givenNoPendingIncrements_whenApplyPendingAmountIncrements_thenDoNothing() {
+        when(sparkAmountIncrementRepository.findAllByOrderByCreatedOn(any())).thenReturn(List.of());
+
+        assertEquals(0, sparkService.applyPendingAmountIncrements());
+        verifyNoInteractions(sparkRepository);
     }
 
     @Test
     void givenSparkIsCancelledBeforeDonations_whenCancelSparkAndReturnDonations_thenCancelSpark(){
+        when(sparkRepository.findCurrentAmountWithIncrementsById(spark1.getId())).thenReturn(BigDecimal.ZERO);
         sparkService.cancelSparkAndReturnDonations(spark1);
 
         assertNull(spark1.getCurrentAmount());
         assertEquals(SparkStatus.CANCELLED, spark1.getStatus());
         assertNotNull(spark1.getUpdatedOn());
+        verifyNoInteractions(donationLeaderboard);
         verify(sparkRepository).save(spark1);
     }
 
     @Test
     void givenSparkHasDonations_whenCancelSparkAndReturnDonations_thenCancelSpark(){
-        user.setEmail("kalin@gmail.com");
-        Wallet wallet = Wallet.builder()
-                .owner(user)
-                .build();
-
-        Donation donation = Donation.builder()
-                .wallet(wallet)
-                .amount(BigDecimal.TEN)
-                .build();
-
-        spark1.setDonations(List.of(donation));
-        spark1.setCurrentAmount(BigDecimal.TEN);
+        spark1.setTitle("Spark");
+        spark1.setCurrentAmount(BigDecimal.valueOf(15));
+        when(sparkRepository.findCurrentAmountWithIncrementsById(spark1.getId())).thenReturn(BigDecimal.valueOf(15));
+        when(donationRepository.findRefundsPerWalletBySparkId(spark1.getId())).thenReturn(List.of(
+                new WalletRefund(UUID.randomUUID(), "kalin@gmail.com", BigDecimal.TEN),
+                new WalletRefund(UUID.randomUUID(), "ivan@gmail.com", BigDecimal.valueOf(5))));
+        when(walletService.refundDonationsOfSpark(spark1.getId())).thenReturn(2);
 
         sparkService.cancelSparkAndReturnDonations(spark1);
         assertEquals(BigDecimal.ZERO, spark1.getCurrentAmount());
         assertEquals(SparkStatus.CANCELLED, spark1.getStatus());
         assertNotNull(spark1.getUpdatedOn());
 
-        verify(walletService).addFundsWithoutUserValidation(any(Wallet.class), any());
-        verify(emailService).sendEmail(any(), any(), any());
+        verify(walletService).refundDonationsOfSpark(spark1.getId());
+        verify(walletService, never()).addFundsWithoutUserValidation(any(), any());
+        ArgumentCaptor<List<EmailRequest>> emailsCaptor = ArgumentCaptor.captor();
+        verify(emailOutboxService).enqueueEmails(emailsCaptor.capture());
+        assertEquals(List.of("kalin@gmail.com", "ivan@gmail.com"), emailsCaptor.getValue().stream().map(EmailRequest::getUserEmail).toList());
+        verify(emailOutboxService, never()).enqueueEmail(any(), any(), any());
+        verify(donationLeaderboard).recordRefunds(spark1.getId(), BigDecimal.valueOf(15));
+        verify(sparkAmountIncrementRepository).deleteAllBySparkId(spark1.getId());
+        verify(sparkRepository).resetCurrentAmount(spark1.getId());
         verify(sparkRepository).save(spark1);
     }
 
     @Test
     void givenSparkShouldBeCompleted_whenCompleteSpark_thenCompleteSpark() {
+        user.setEmail("kalin@gmail.com");
         spark1.setGoalAmount(BigDecimal.TEN);
-        sparkService.completeSpark(spark1);
+        when(sparkRepository.completeActiveSpark(eq(spark1.getId()), any())).thenReturn(1);
+
+        assertTrue(sparkService.completeSpark(spark1));
 
         assertEquals(SparkStatus.COMPLETED, spark1.getStatus());
         assertNotNull(spark1.getUpdatedOn());
-        verify(emailService).sendEmail(any(), any(), any());
-        verify(sparkRepository).save(spark1);
+        verify(emailOutboxService).enqueueEmail(eq("kalin@gmail.com"), any(), any());
+        verify(sparkSearchService).reindexSpark(spark1);
+        verify(sparkRepository, never()).save(any());
+    }
+
+    @Test
+    void givenSparkIsNoLongerActive_whenCompleteSpark_thenSkipIt() {
+        spark1.setGoalAmount(BigDecimal.TEN);
+        when(sparkRepository.completeActiveSpark(eq(spark1.getId()), any())).thenReturn(0);
+
+        assertFalse(sparkService.completeSpark(spark1));
+
+        assertEquals(SparkStatus.ACTIVE, spark1.getStatus());
+        verifyNoInteractions(emailOutboxService, sparkSearchService);
+    }
+
+    @Test
+    void givenNoCheckpoint_whenFindSparksForCompletion_thenReadFirstChunk() {
+        when(sparkRepository.findSparksForCompletion(any())).thenReturn(List.of(spark1));
+
+        assertEquals(List.of(spark1), sparkService.findSparksForCompletion(null, 10));
+        verify(sparkRepository, never()).findSparksForCompletionAfter(any(), any());
     }
 }
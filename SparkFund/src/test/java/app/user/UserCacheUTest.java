@@ -0,0 +1,105 @@
+package app.user;
+
+import app.user.model.User;
+import app.user.service.UserCache;
+import app.wallet.model.Wallet;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class UserCacheUTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Mock
+    private Cache secondLevelCache;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserCache userCache;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.getCache()).thenReturn(secondLevelCache);
+        meterRegistry = new SimpleMeterRegistry();
+        userCache = new UserCache(entityManagerFactory, meterRegistry);
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .wallet(Wallet.builder()
+                        .id(UUID.randomUUID())
+                        .build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void givenUserLoadedDuringRequest_whenGetUserAgain_thenReturnItWithoutLoading() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<User> loader = () -> {
+            loads.incrementAndGet();
+            return user;
+        };
+
+        userCache.getUser(user.getId(), loader);
+        User cachedUser = userCache.getUser(user.getId(), loader);
+
+        assertSame(user, cachedUser);
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("sparkfund.user.request.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("sparkfund.user.request.cache").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void givenNoRequest_whenGetUser_thenLoadItEveryTime() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<User> loader = () -> {
+            loads.incrementAndGet();
+            return user;
+        };
+
+        userCache.getUser(user.getId(), loader);
+        userCache.getUser(user.getId(), loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void givenCachedUser_whenEvict_thenLoadItAgainAndEvictSecondLevelCache() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<User> loader = () -> {
+            loads.incrementAndGet();
+            return user;
+        };
+        userCache.getUser(user.getId(), loader);
+
+        userCache.evict(user);
+        userCache.getUser(user.getId(), loader);
+
+        assertEquals(2, loads.get());
+        verify(secondLevelCache).evict(User.class, user.getId());
+    }
+}
@@ -3,11 +3,13 @@ package app.user;
 import app.exceptions.EmailAlreadyExistException;
 import app.exceptions.ResourceNotFoundException;
 import app.exceptions.UsernameAlreadyExistException;
+import app.money.Money;
 import app.security.AuthenticationDetails;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.model.UserStatus;
 import app.user.repository.UserRepository;
+import app.user.service.UserCache;
 import app.user.service.UserService;
 import app.wallet.model.Wallet;
 import app.wallet.service.WalletService;
@@ -41,6 +43,8 @@ public class UserServiceUTest {
     private PasswordEncoder passwordEncoder;
     @Mock
     private WalletService walletService;
+    @Mock
+    private UserCache userCache;
 
     @InjectMocks
     private UserService userService;
@@ -166,6 +170,7 @@ public class UserServiceUTest {
         assertEquals(editProfileRequest.getLastName(), user.getLastName());
         assertEquals(editProfileRequest.getProfilePicture(), user.getProfilePicture());
         assertEquals(editProfileRequest.getEmail(), user.getEmail());
+        verify(userCache).evict(user);
     }
 
     @Test
@@ -223,6 +228,7 @@ public class UserServiceUTest {
 
         assertEquals(UserRole.ADMIN, user.getUserRole());
         verify(userRepository, times(1)).save(user);
+        verify(userCache).evict(user);
     }
 
     @Test
@@ -273,7 +279,7 @@ public class UserServiceUTest {
     void givenTwoExistingUsers_whenGetAllUsers_thenReturnTwoUsers() {
         List<User> users = List.of(new User(), new User());
 
-        when(userRepository.findAll()).thenReturn(users);
+        when(userRepository.findAllBy()).thenReturn(users);
 
         List<User> allUsers = userService.getAllUsers();
         assertEquals(2, allUsers.size());
@@ -285,7 +291,7 @@ public class UserServiceUTest {
         User user = User.builder().wallet(wallet).build();
 
         WalletDonationInfo expectedDonationInfo = WalletDonationInfo.builder()
-                .totalDonations("100.00")
+                .totalDonations(Money.euroCents(10000))
                 .totalSparks(5)
                 .build();
 
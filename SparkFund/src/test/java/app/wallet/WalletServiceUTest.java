@@ -1,31 +1,46 @@
 package app.wallet;
 
-import app.donation.model.Donation;
+import app.donation.repository.DonationRepository;
 import app.exceptions.DomainException;
 import app.exceptions.ResourceNotFoundException;
-import app.spark.model.Spark;
+import app.metrics.DomainMetrics;
+import app.money.Money;
 import app.user.model.User;
 import app.user.model.UserStatus;
 import app.wallet.model.Wallet;
+import app.wallet.model.WalletTransaction;
+import app.wallet.model.WalletTransactionType;
 import app.wallet.repository.WalletRepository;
+import app.wallet.repository.WalletTransactionRepository;
 import app.wallet.service.WalletService;
 import app.web.dto.WalletDonationInfo;
+import app.web.dto.WalletDonationItem;
+import app.web.dto.WalletDonationPage;
+import app.web.dto.WalletDonationSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.time.LocalDateTime;
 import java.util.Currency;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +48,14 @@ public class WalletServiceUTest {
 
     @Mock
     private WalletRepository walletRepository;
+    @Mock
+    private WalletTransactionRepository walletTransactionRepository;
+    @Mock
+    private DonationRepository donationRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Spy
+    private DomainMetrics domainMetrics = new DomainMetrics(meterRegistry);
 
     @InjectMocks
     private WalletService walletService;
@@ -56,59 +79,39 @@ public class WalletServiceUTest {
     @Test
     void givenRetrieveWalletDonationInfo_whenNoDonations_thenReturnWalletDonationInfo() {
         Wallet wallet = Wallet.builder()
-                .donations(new ArrayList<>())
+                .id(UUID.randomUUID())
                 .build();
+        when(donationRepository.findSummaryByWalletId(wallet.getId())).thenReturn(new WalletDonationSummary(null, 0L));
 
         WalletDonationInfo walletDonationInfo = walletService.getWalletDonationInfo(wallet);
 
-        assertEquals("0.00", walletDonationInfo.getTotalDonations());
+        assertEquals(Money.ZERO, walletDonationInfo.getTotalDonations());
         assertEquals(0, walletDonationInfo.getTotalSparks());
     }
 
     @Test
     void givenRetrieveWalletDonationInfo_whenHaveTwoDonationsToTwoSparks_thenReturnWalletDonationInfo() {
         Wallet wallet = Wallet.builder()
-                .donations(new ArrayList<>())
-                .build();
-        Donation donation1 = Donation.builder()
-                .wallet(wallet)
-                .spark(new Spark())
-                .amount(new BigDecimal("100"))
-                .build();
-        Donation donation2 = Donation.builder()
-                .wallet(wallet)
-                .spark(new Spark())
-                .amount(new BigDecimal("200"))
+                .id(UUID.randomUUID())
                 .build();
-        wallet.setDonations(List.of(donation1, donation2));
+        when(donationRepository.findSummaryByWalletId(wallet.getId())).thenReturn(new WalletDonationSummary(new BigDecimal("300.00"), 2L));
 
         WalletDonationInfo walletDonationInfo = walletService.getWalletDonationInfo(wallet);
 
-        assertEquals("300,00", walletDonationInfo.getTotalDonations());
+        assertEquals(Money.euroCents(30000), walletDonationInfo.getTotalDonations());
         assertEquals(2, walletDonationInfo.getTotalSparks());
     }
 
     @Test
     void givenRetrieveWalletDonationInfo_whenHaveTwoDonationsToOneSparks_thenReturnWalletDonationInfo() {
-        Spark spark = new Spark();
         Wallet wallet = Wallet.builder()
-                .donations(new ArrayList<>())
+                .id(UUID.randomUUID())
                 .build();
-        Donation donation1 = Donation.builder()
-                .wallet(wallet)
-                .spark(spark)
-                .amount(new BigDecimal("100"))
-                .build();
-        Donation donation2 = Donation.builder()
-                .wallet(wallet)
-                .spark(spark)
-                .amount(new BigDecimal("200"))
-                .build();
-        wallet.setDonations(List.of(donation1, donation2));
+        when(donationRepository.findSummaryByWalletId(wallet.getId())).thenReturn(new WalletDonationSummary(new BigDecimal("300.00"), 1L));
 
         WalletDonationInfo walletDonationInfo = walletService.getWalletDonationInfo(wallet);
 
-        assertEquals("300,00", walletDonationInfo.getTotalDonations());
+        assertEquals(Money.euroCents(30000), walletDonationInfo.getTotalDonations());
         assertEquals(1, walletDonationInfo.getTotalSparks());
     }
 
@@ -116,45 +119,71 @@ public class WalletServiceUTest {
     void givenSumIsTakenFromWallet_whenReduceAmount_andAmountIsOverBalance_thenThrowsException() {
         User user = new User();
         Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
                 .amount(new BigDecimal("100"))
                 .build();
         user.setWallet(wallet);
+        when(walletRepository.debitAmount(eq(wallet.getId()), eq(new BigDecimal("101")), any())).thenReturn(0);
 
-        assertThrows(DomainException.class, () -> walletService.reduceAmount(user, new BigDecimal("101")));
+        assertThrows(DomainException.class, () -> walletService.reduceAmount(user, new BigDecimal("101"), UUID.randomUUID()));
+        assertEquals(new BigDecimal("100"), wallet.getAmount());
+        verify(walletRepository, never()).findAmountById(any());
+        verifyNoInteractions(walletTransactionRepository);
     }
 
     @Test
     void givenSumIsTakenFromWallet_whenReduceAmount_andAmountEqualsBalance_thenSubtractAmount() {
         User user = new User();
         Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
                 .amount(new BigDecimal("100"))
                 .build();
         user.setWallet(wallet);
-
-        walletService.reduceAmount(user, new BigDecimal("100"));
-
-        ArgumentCaptor<Wallet> walletCaptor = ArgumentCaptor.forClass(Wallet.class);
-        verify(walletRepository).save(walletCaptor.capture());
-        Wallet capturedWallet = walletCaptor.getValue();
-
-        assertEquals(BigDecimal.ZERO, capturedWallet.getAmount());
+        when(walletRepository.debitAmount(eq(wallet.getId()), eq(new BigDecimal("100")), any())).thenReturn(1);
+        when(walletRepository.findAmountById(wallet.getId())).thenReturn(BigDecimal.ZERO);
+
+        UUID sparkId = UUID.randomUUID();
+
+        walletService.reduceAmount(user, new BigDecimal("100"), sparkId);
+
+        assertEquals(BigDecimal.ZERO, wallet.getAmount());
+        assertNotNull(wallet.getUpdatedOn());
+        verify(walletRepository, never()).save(any());
+        ArgumentCaptor<WalletTransaction> transactionCaptor = ArgumentCaptor.forClass(WalletTransaction.class);
+        verify(walletTransactionRepository).save(transactionCaptor.capture());
+        WalletTransaction transaction = transactionCaptor.getValue();
+        assertEquals(WalletTransactionType.DONATION, transaction.getType());
+        assertEquals(Money.euroCents(-10000), transaction.getAmount());
+        assertEquals(Money.ZERO, transaction.getBalance());
+        assertEquals(sparkId, transaction.getSparkId());
     }
 
     @Test
     void givenSumIsTakenFromWallet_whenReduceAmount_andAmountIsLessThanBalance_thenSubtractAmount() {
         User user = new User();
         Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
                 .amount(new BigDecimal("100"))
                 .build();
         user.setWallet(wallet);
+        when(walletRepository.debitAmount(eq(wallet.getId()), eq(new BigDecimal("60")), any())).thenReturn(1);
+        when(walletRepository.findAmountById(wallet.getId())).thenReturn(new BigDecimal("40"));
 
-        walletService.reduceAmount(user, new BigDecimal("60"));
+        walletService.reduceAmount(user, new BigDecimal("60"), UUID.randomUUID());
 
-        ArgumentCaptor<Wallet> walletCaptor = ArgumentCaptor.forClass(Wallet.class);
-        verify(walletRepository).save(walletCaptor.capture());
-        Wallet capturedWallet = walletCaptor.getValue();
+        assertEquals(new BigDecimal("40"), wallet.getAmount());
+    }
 
-        assertEquals(new BigDecimal("40"), capturedWallet.getAmount());
+    @Test
+    void givenSumIsTakenFromWallet_whenReduceAmount_andAmountHasFractionOfCent_thenThrowsException() {
+        User user = new User();
+        user.setWallet(Wallet.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("100"))
+                .build());
+
+        assertThrows(DomainException.class, () -> walletService.reduceAmount(user, new BigDecimal("10.005"), UUID.randomUUID()));
+        verifyNoInteractions(walletRepository, walletTransactionRepository);
     }
 
     @Test
@@ -165,16 +194,71 @@ public class WalletServiceUTest {
     @Test
     void givenFundsAreAddedToWallet_andUserIsActive_thenIncreaseWalletAmount() {
         Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
                 .amount(new BigDecimal("100"))
                 .build();
+        when(walletRepository.creditAmount(eq(wallet.getId()), eq(new BigDecimal("100")), any())).thenReturn(1);
+        when(walletRepository.findAmountById(wallet.getId())).thenReturn(new BigDecimal("200"));
 
         walletService.addFunds(wallet, new BigDecimal("100"), UserStatus.ACTIVE);
 
-        ArgumentCaptor<Wallet> walletCaptor = ArgumentCaptor.forClass(Wallet.class);
-        verify(walletRepository).save(walletCaptor.capture());
-        Wallet capturedWallet = walletCaptor.getValue();
+        assertEquals(new BigDecimal("200"), wallet.getAmount());
+        assertNotNull(wallet.getUpdatedOn());
+        ArgumentCaptor<WalletTransaction> transactionCaptor = ArgumentCaptor.forClass(WalletTransaction.class);
+        verify(walletTransactionRepository).save(transactionCaptor.capture());
+        WalletTransaction transaction = transactionCaptor.getValue();
+        assertEquals(wallet.getId(), transaction.getWalletId());
+        assertEquals(WalletTransactionType.TOP_UP, transaction.getType());
+        assertEquals(Money.euroCents(10000), transaction.getAmount());
+        assertEquals(Money.euroCents(20000), transaction.getBalance());
+    }
 
-        assertEquals(new BigDecimal("200"), capturedWallet.getAmount());
+    @Test
+    void givenFundsAreAddedToWallet_andAmountHasFractionOfCent_thenThrowException() {
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("100"))
+                .build();
+
+        assertThrows(DomainException.class, () -> walletService.addFunds(wallet, new BigDecimal("0.333"), UserStatus.ACTIVE));
+        assertEquals(new BigDecimal("100"), wallet.getAmount());
+        verify(walletRepository, never()).creditAmount(any(), any(), any());
+        verify(walletTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void givenTopUpWithUsedIdempotencyKey_whenAddFunds_thenFundsAreNotAddedAgain() {
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .amount(new BigDecimal("200"))
+                .build();
+        UUID idempotencyKey = UUID.randomUUID();
+        when(walletTransactionRepository.existsByWalletIdAndIdempotencyKey(wallet.getId(), idempotencyKey)).thenReturn(true);
+
+        walletService.addFunds(wallet, new BigDecimal("100"), UserStatus.ACTIVE, idempotencyKey);
+
+        assertEquals(new BigDecimal("200"), wallet.getAmount());
+        verify(walletRepository, never()).creditAmount(any(), any(), any());
+        verify(walletTransactionRepository, never()).save(any());
+    }
+
+    @Test
+    void givenWalletNotExist_whenAddFundsWithoutUserValidation_thenThrowException() {
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .build();
+        when(walletRepository.creditAmount(eq(wallet.getId()), eq(BigDecimal.TEN), any())).thenReturn(0);
+
+        assertThrows(ResourceNotFoundException.class, () -> walletService.addFundsWithoutUserValidation(wallet, BigDecimal.TEN));
+    }
+
+    @Test
+    void givenCancelledSpark_whenRefundDonationsOfSpark_thenCreditAllWalletsAtOnce() {
+        UUID sparkId = UUID.randomUUID();
+        when(walletRepository.creditDonationsOfSpark(eq(sparkId), any())).thenReturn(3);
+
+        assertEquals(3, walletService.refundDonationsOfSpark(sparkId));
+        verify(walletTransactionRepository).insertRefundsOfSpark(eq(sparkId), any());
     }
 
     @Test
@@ -183,12 +267,43 @@ public class WalletServiceUTest {
     }
 
     @Test
-    void givenTwoExistingWallets_whenFindAllWallets_thenReturnTwoWallets() {
-        List<Wallet> wallets = List.of(new Wallet(), new Wallet());
+    void givenMoreDonationsThanPageSize_whenGetDonationHistory_thenReturnPageWithCursorOfLastDonation() {
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .build();
+        LocalDateTime now = LocalDateTime.now();
+        List<WalletDonationItem> donations = IntStream.range(0, 11)
+                .mapToObj(i -> WalletDonationItem.builder()
+                        .id(UUID.randomUUID())
+                        .createdOn(now.minusMinutes(i))
+                        .build())
+                .toList();
+        when(donationRepository.findHistoryByWalletId(eq(wallet.getId()), any(Limit.class))).thenReturn(donations);
+
+        WalletDonationPage donationHistory = walletService.getDonationHistory(wallet, null, null);
+
+        assertEquals(10, donationHistory.getDonations().size());
+        assertTrue(donationHistory.isHasNextPage());
+        assertEquals(donations.get(9).getCreatedOn(), donationHistory.getNextCreatedOn());
+        assertEquals(donations.get(9).getId(), donationHistory.getNextId());
+        verify(donationRepository).findHistoryByWalletId(wallet.getId(), Limit.of(11));
+    }
+
+    @Test
+    void givenCursor_whenGetDonationHistory_thenReadDonationsAfterCursorWithoutNextPage() {
+        Wallet wallet = Wallet.builder()
+                .id(UUID.randomUUID())
+                .build();
+        UUID afterId = UUID.randomUUID();
+        LocalDateTime afterCreatedOn = LocalDateTime.now();
+        when(donationRepository.findHistoryByWalletIdAfter(eq(wallet.getId()), eq(afterCreatedOn), eq(afterId), any(Limit.class)))
+                .thenReturn(List.of(WalletDonationItem.builder().id(UUID.randomUUID()).build()));
 
-        when(walletRepository.findAll()).thenReturn(wallets);
+        WalletDonationPage donationHistory = walletService.getDonationHistory(wallet, afterCreatedOn, afterId);
 
-        List<Wallet> allWallets = walletService.findAllWallets();
-        assertEquals(2, allWallets.size());
+        assertEquals(1, donationHistory.getDonations().size());
+        assertFalse(donationHistory.isHasNextPage());
+        assertNull(donationHistory.getNextId());
+        verify(donationRepository, never()).findHistoryByWalletId(any(), any());
     }
 }
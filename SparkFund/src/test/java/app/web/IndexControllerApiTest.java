@@ -1,13 +1,13 @@
 package app.web;
 
-import app.donation.service.DonationService;
 import app.exceptions.EmailAlreadyExistException;
 import app.exceptions.UsernameAlreadyExistException;
+import app.home.service.HomeSnapshotService;
 import app.security.AuthenticationDetails;
-import app.spark.service.SparkService;
 import app.user.model.UserRole;
 import app.user.model.UserStatus;
 import app.user.service.UserService;
+import app.web.dto.HomeSnapshot;
 import app.web.dto.TotalDonationsInfo;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +18,8 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
@@ -35,9 +37,7 @@ public class IndexControllerApiTest {
     @MockitoBean
     private UserService userService;
     @MockitoBean
-    private SparkService sparkService;
-    @MockitoBean
-    private DonationService donationService;
+    private HomeSnapshotService homeSnapshotService;
 
     @Autowired
     private MockMvc mockMvc;
@@ -167,7 +167,11 @@ public class IndexControllerApiTest {
 
         TotalDonationsInfo mockDonationsInfo = new TotalDonationsInfo();
         mockDonationsInfo.setTotalMoneyRaised(new BigDecimal("1234.56"));
-        when(donationService.getTotalDonationsInfo()).thenReturn(mockDonationsInfo);
+        when(homeSnapshotService.getSnapshot()).thenReturn(HomeSnapshot.builder()
+                .latestSparks(List.of())
+                .donationsInfo(mockDonationsInfo)
+                .createdOn(Instant.now())
+                .build());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
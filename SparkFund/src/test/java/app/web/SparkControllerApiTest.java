@@ -1,14 +1,19 @@
 package app.web;
 
 import app.security.AuthenticationDetails;
+import app.donation.service.DonationService;
 import app.spark.model.Spark;
 import app.spark.model.SparkCategory;
 import app.spark.model.SparkStatus;
+import app.spark.service.SparkSearchService;
 import app.spark.service.SparkService;
 import app.user.model.User;
 import app.user.model.UserRole;
 import app.user.model.UserStatus;
 import app.user.service.UserService;
+import app.web.dto.DonationFeedItem;
+import app.web.dto.DonationFeedPage;
+import app.web.dto.SparkPage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -18,9 +23,13 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -35,6 +44,10 @@ public class SparkControllerApiTest {
     private UserService userService;
     @MockitoBean
     private SparkService sparkService;
+    @MockitoBean
+    private SparkSearchService sparkSearchService;
+    @MockitoBean
+    private DonationService donationService;
 
     @Autowired
     private MockMvc mockMvc;
@@ -60,12 +73,51 @@ public class SparkControllerApiTest {
                 .goalAmount(BigDecimal.TEN)
                 .build();
         when(userService.getAuthenticatedUser(any())).thenReturn(user);
-        when(sparkService.getSparkById(any())).thenReturn(spark);
+        when(sparkService.getSparkWithCreatorById(any())).thenReturn(spark);
+        when(donationService.getDonationFeed(any(), any(), any())).thenReturn(DonationFeedPage.builder()
+                .donations(List.of())
+                .build());
 
         mockMvc.perform(request)
                 .andExpect(status().isOk())
-                .andExpect(model().attributeExists("user", "spark"))
+                .andExpect(model().attributeExists("user", "spark", "donationFeed"))
                 .andExpect(view().name("show-spark"));
+        verify(donationService, times(1)).getDonationFeed(any(), eq(null), eq(null));
+    }
+
+    @Test
+    void getAuthorizedRequestToSparkDonationsWithCursor_thenReturnNextPageOfDonationFeed() throws Exception {
+        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
+                , "Kalin"
+                , "12345"
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        UUID sparkId = UUID.randomUUID();
+        UUID afterId = UUID.randomUUID();
+        UUID nextId = UUID.randomUUID();
+        MockHttpServletRequestBuilder request = get("/{id}/spark/donations", sparkId)
+                .with(user(principal))
+                .param("afterCreatedOn", "2025-03-01T10:15:30.123456")
+                .param("afterId", afterId.toString());
+
+        when(donationService.getDonationFeed(any(), any(), any())).thenReturn(DonationFeedPage.builder()
+                .donations(List.of(DonationFeedItem.builder()
+                        .id(UUID.randomUUID())
+                        .createdOn(LocalDateTime.of(2025, 3, 1, 10, 0))
+                        .message("Good luck!")
+                        .donorUsername("Ivan")
+                        .build()))
+                .hasNextPage(true)
+                .nextCreatedOn(LocalDateTime.of(2025, 3, 1, 10, 0))
+                .nextId(nextId)
+                .build());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Ivan: Good luck!")))
+                .andExpect(content().string(containsString("afterId=" + nextId)));
+        verify(donationService, times(1)).getDonationFeed(eq(sparkId)
+                , eq(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000)), eq(afterId));
     }
 
     @Test
@@ -214,6 +266,67 @@ public class SparkControllerApiTest {
         verify(sparkService, times(1)).cancelSparkAndReturnDonations(any());
     }
 
+    @Test
+    void getAuthorizedRequestToAllSparksWithCursor_thenReturnAllSparksView() throws Exception {
+        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
+                , "Kalin"
+                , "12345"
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        UUID afterId = UUID.randomUUID();
+        MockHttpServletRequestBuilder request = get("/all-sparks")
+                .with(user(principal))
+                .with(csrf())
+                .param("status", SparkStatus.ACTIVE.name())
+                .param("category", "ALL")
+                .param("ownership", "ALL_SPARKS")
+                .param("afterCreatedOn", "2025-03-01T10:15:30.123456")
+                .param("afterId", afterId.toString());
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(new User());
+        when(sparkService.getAllSparks(any(), any(), any(), any(), any(), any())).thenReturn(SparkPage.builder()
+                .sparks(List.of())
+                .build());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("user", "allSparks", "sparkPage", "filterData"))
+                .andExpect(view().name("all-sparks"));
+        verify(sparkService, times(1)).getAllSparks(any(), eq("ACTIVE"), eq("ALL"), eq("ALL_SPARKS")
+                , eq(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000)), eq(afterId));
+    }
+
+    @Test
+    void getAuthorizedRequestToAllSparksWithSearchQuery_thenSearchSparks() throws Exception {
+        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
+                , "Kalin"
+                , "12345"
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        MockHttpServletRequestBuilder request = get("/all-sparks")
+                .with(user(principal))
+                .with(csrf())
+                .param("status", SparkStatus.ACTIVE.name())
+                .param("category", "ALL")
+                .param("ownership", "ALL_SPARKS")
+                .param("query", " school books ")
+                .param("page", "1");
+
+        when(userService.getAuthenticatedUser(any())).thenReturn(new User());
+        when(sparkSearchService.searchSparks(any(), any(), any(), any(), any(), anyInt())).thenReturn(SparkPage.builder()
+                .sparks(List.of())
+                .hasNextPage(true)
+                .nextPage(2)
+                .build());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("query", " school books "))
+                .andExpect(view().name("all-sparks"));
+        verify(sparkSearchService, times(1)).searchSparks(any(), eq("school books"), eq("ACTIVE"), eq("ALL"), eq("ALL_SPARKS"), eq(1));
+        verify(sparkService, never()).getAllSparks(any(), any(), any(), any(), any(), any());
+    }
+
     @Test
     void givenRedirectToNonExistingSpark_thenThrowErrorAndShowErrorPage() throws Exception {
         AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
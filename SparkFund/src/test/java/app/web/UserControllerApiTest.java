@@ -4,6 +4,8 @@ import app.security.AuthenticationDetails;
 import app.user.model.UserRole;
 import app.user.model.UserStatus;
 import app.user.service.UserService;
+import app.web.dto.WalletDonationItem;
+import app.web.dto.WalletDonationPage;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -12,13 +14,21 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -97,4 +107,54 @@ public class UserControllerApiTest {
                 .andExpect(redirectedUrl("/users"));
         verify(userService, times(1)).switchStatus(any());
     }
+
+    @Test
+    void getAuthorizedRequestToProfileDonationsWithCursor_thenReturnNextPageOfDonationHistory() throws Exception {
+        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
+                , "Kalin"
+                , "12345"
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        UUID afterId = UUID.randomUUID();
+        UUID nextId = UUID.randomUUID();
+        MockHttpServletRequestBuilder request = get("/users/{id}/profile/donations", principal.getUserId())
+                .with(user(principal))
+                .param("afterCreatedOn", "2025-03-01T10:15:30.123456")
+                .param("afterId", afterId.toString());
+
+        when(userService.getWalletDonations(any(), any(), any())).thenReturn(WalletDonationPage.builder()
+                .donations(List.of(WalletDonationItem.builder()
+                        .id(UUID.randomUUID())
+                        .createdOn(LocalDateTime.of(2025, 3, 1, 10, 0))
+                        .amount(new BigDecimal("25.50"))
+                        .sparkTitle("Village library")
+                        .build()))
+                .hasNextPage(true)
+                .nextCreatedOn(LocalDateTime.of(2025, 3, 1, 10, 0))
+                .nextId(nextId)
+                .build());
+
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Village library")))
+                .andExpect(content().string(containsString("€25.50")))
+                .andExpect(content().string(containsString("afterId=" + nextId)));
+        verify(userService, times(1)).getWalletDonations(any()
+                , eq(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456000)), eq(afterId));
+    }
+
+    @Test
+    void getRequestToProfileDonationsOfAnotherUser_shouldThrowExceptionAndNotReadDonations() throws Exception {
+        AuthenticationDetails principal = new AuthenticationDetails(UUID.randomUUID()
+                , "Kalin"
+                , "12345"
+                , UserRole.USER
+                , UserStatus.ACTIVE);
+        MockHttpServletRequestBuilder request = get("/users/{id}/profile/donations", UUID.randomUUID())
+                .with(user(principal));
+
+        mockMvc.perform(request)
+                .andExpect(status().isNotFound());
+        verify(userService, never()).getWalletDonations(any(), any(), any());
+    }
 }
@@ -107,7 +107,7 @@ public class UserSignalApiTest {
         User user = User.builder()
                 .id(UUID.randomUUID())
                 .build();
-        when(userService.getAuthenticatedUser(any())).thenReturn(user);
+        when(userService.getAuthenticatedUserWithSignals(any())).thenReturn(user);
         when(userSignalService.getAllSignals(any(), any())).thenReturn(List.of(new UserSignal(), new UserSignal()));
 
         mockMvc.perform(request)